@@ -0,0 +1,166 @@
+package io.github.zapolyarnydev.algorithm.impl;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Evaluates Ken Perlin's improved 3D noise for many points at once with the Vector API.
+ * <p>
+ * The evaluation is split into passes over the whole block: lattice cells and fractions, permutation hashes
+ * (scalar, since the permutation lookups do not vectorize), corner gradients and trilinear interpolation.
+ * The passes call no helper methods, so the JIT keeps every vector in registers.
+ * Every operation is the one of the scalar algorithm in the same order, so the results are identical.
+ * <p>
+ * Only use this class when {@link VectorSupport#ENABLED} is {@code true}. An instance holds scratch arrays
+ * and must not be shared between threads.
+ */
+public final class ImprovedNoiseVectorKernel {
+
+    private static final VectorSpecies<Double> DOUBLES = DoubleVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Integer> INTS =
+            VectorSpecies.of(int.class, VectorShape.forBitSize(DOUBLES.vectorBitSize() / 2));
+
+    /**
+     * Coordinates beyond this magnitude do not fit the int conversion used for the lattice and are left to the scalar code.
+     */
+    private static final double MAX_COORDINATE = Integer.MAX_VALUE;
+
+    private final int[] perm;
+    private final int capacity;
+    private final int[] cells;
+    private final double[] fractions;
+    private final int[] hashes;
+    private final double[] gradients;
+
+    /**
+     * @param perm     The doubled permutation table (512 entries).
+     * @param capacity The maximum number of points passed to one {@link #accumulate} call.
+     */
+    public ImprovedNoiseVectorKernel(int[] perm, int capacity) {
+        this.perm = perm;
+        this.capacity = DOUBLES.loopBound(capacity);
+        this.cells = new int[3 * this.capacity];
+        this.fractions = new double[3 * this.capacity];
+        this.hashes = new int[8 * this.capacity];
+        this.gradients = new double[8 * this.capacity];
+    }
+
+    static int lanes() {
+        return DOUBLES.length();
+    }
+
+    /**
+     * Adds {@code noise(xs[i], ys[i], zs[i]) * amplitude} to {@code out[offset + i]} for a prefix of the points.
+     * The remaining points, a tail shorter than a vector or points too far from the origin, are left to the caller.
+     *
+     * @return The number of points processed.
+     */
+    public int accumulate(double[] xs, double[] ys, double[] zs, int length, double amplitude, double[] out, int offset) {
+        int bound = DOUBLES.loopBound(Math.min(length, capacity));
+        bound = lattice(xs, 0, bound);
+        bound = lattice(ys, capacity, bound);
+        bound = lattice(zs, 2 * capacity, bound);
+        hash(bound);
+        gradients(bound);
+        interpolate(bound, amplitude, out, offset);
+        return bound;
+    }
+
+    /**
+     * Stores {@code (int) Math.floor(c) & 255} and {@code c - Math.floor(c)} of every coordinate, stopping at the first
+     * vector with a coordinate outside the int range.
+     */
+    private int lattice(double[] coords, int base, int length) {
+        for (int i = 0; i < length; i += DOUBLES.length()) {
+            DoubleVector c = DoubleVector.fromArray(DOUBLES, coords, i);
+            if (c.abs().compare(VectorOperators.GT, MAX_COORDINATE).anyTrue()) {
+                return i;
+            }
+            IntVector truncated = (IntVector) c.convertShape(VectorOperators.D2I, INTS, 0);
+            DoubleVector floor = (DoubleVector) truncated.convertShape(VectorOperators.I2D, DOUBLES, 0);
+            VectorMask<Double> above = floor.compare(VectorOperators.GT, c);
+            truncated.sub(1, above.cast(INTS)).and(255).intoArray(cells, base + i);
+            floor = floor.sub(1, above).blend(c, c.compare(VectorOperators.EQ, floor));
+            c.sub(floor).intoArray(fractions, base + i);
+        }
+        return length;
+    }
+
+    /**
+     * Looks up the permutation hash of the eight cell corners, in the order 000, 100, 010, 110, 001, 101, 011, 111
+     * of the (x, y, z) offsets.
+     */
+    private void hash(int length) {
+        for (int i = 0; i < length; i++) {
+            int X = cells[i];
+            int Y = cells[capacity + i];
+            int Z = cells[2 * capacity + i];
+            int A = perm[X] + Y;
+            int AA = perm[A] + Z;
+            int AB = perm[A + 1] + Z;
+            int B = perm[X + 1] + Y;
+            int BA = perm[B] + Z;
+            int BB = perm[B + 1] + Z;
+            hashes[i] = perm[AA];
+            hashes[capacity + i] = perm[BA];
+            hashes[2 * capacity + i] = perm[AB];
+            hashes[3 * capacity + i] = perm[BB];
+            hashes[4 * capacity + i] = perm[AA + 1];
+            hashes[5 * capacity + i] = perm[BA + 1];
+            hashes[6 * capacity + i] = perm[AB + 1];
+            hashes[7 * capacity + i] = perm[BB + 1];
+        }
+    }
+
+    private void gradients(int length) {
+        for (int corner = 0; corner < 8; corner++) {
+            double dx = corner & 1;
+            double dy = (corner >> 1) & 1;
+            double dz = corner >> 2;
+            int base = corner * capacity;
+            for (int i = 0; i < length; i += DOUBLES.length()) {
+                DoubleVector x = DoubleVector.fromArray(DOUBLES, fractions, i).sub(dx);
+                DoubleVector y = DoubleVector.fromArray(DOUBLES, fractions, capacity + i).sub(dy);
+                DoubleVector z = DoubleVector.fromArray(DOUBLES, fractions, 2 * capacity + i).sub(dz);
+                IntVector h = IntVector.fromArray(INTS, hashes, base + i).and(15);
+                DoubleVector u = y.blend(x, h.compare(VectorOperators.LT, 8).cast(DOUBLES));
+                DoubleVector v = z.blend(x, h.compare(VectorOperators.EQ, 12).or(h.compare(VectorOperators.EQ, 14)).cast(DOUBLES))
+                        .blend(y, h.compare(VectorOperators.LT, 4).cast(DOUBLES));
+                u.lanewise(VectorOperators.NEG, h.and(1).compare(VectorOperators.NE, 0).cast(DOUBLES))
+                        .add(v.lanewise(VectorOperators.NEG, h.and(2).compare(VectorOperators.NE, 0).cast(DOUBLES)))
+                        .intoArray(gradients, base + i);
+            }
+        }
+    }
+
+    private void interpolate(int length, double amplitude, double[] out, int offset) {
+        for (int i = 0; i < length; i += DOUBLES.length()) {
+            DoubleVector x = DoubleVector.fromArray(DOUBLES, fractions, i);
+            DoubleVector y = DoubleVector.fromArray(DOUBLES, fractions, capacity + i);
+            DoubleVector z = DoubleVector.fromArray(DOUBLES, fractions, 2 * capacity + i);
+            DoubleVector u = x.mul(x).mul(x).mul(x.mul(6).sub(15).mul(x).add(10));
+            DoubleVector v = y.mul(y).mul(y).mul(y.mul(6).sub(15).mul(y).add(10));
+            DoubleVector w = z.mul(z).mul(z).mul(z.mul(6).sub(15).mul(z).add(10));
+            DoubleVector g0 = DoubleVector.fromArray(DOUBLES, gradients, i);
+            DoubleVector g1 = DoubleVector.fromArray(DOUBLES, gradients, capacity + i);
+            DoubleVector g2 = DoubleVector.fromArray(DOUBLES, gradients, 2 * capacity + i);
+            DoubleVector g3 = DoubleVector.fromArray(DOUBLES, gradients, 3 * capacity + i);
+            DoubleVector g4 = DoubleVector.fromArray(DOUBLES, gradients, 4 * capacity + i);
+            DoubleVector g5 = DoubleVector.fromArray(DOUBLES, gradients, 5 * capacity + i);
+            DoubleVector g6 = DoubleVector.fromArray(DOUBLES, gradients, 6 * capacity + i);
+            DoubleVector g7 = DoubleVector.fromArray(DOUBLES, gradients, 7 * capacity + i);
+            DoubleVector x0 = g1.sub(g0).mul(u).add(g0);
+            DoubleVector x1 = g3.sub(g2).mul(u).add(g2);
+            DoubleVector x2 = g5.sub(g4).mul(u).add(g4);
+            DoubleVector x3 = g7.sub(g6).mul(u).add(g6);
+            DoubleVector y0 = x1.sub(x0).mul(v).add(x0);
+            DoubleVector y1 = x3.sub(x2).mul(v).add(x2);
+            DoubleVector noise = y1.sub(y0).mul(w).add(y0);
+            DoubleVector.fromArray(DOUBLES, out, offset + i).add(noise.mul(amplitude)).intoArray(out, offset + i);
+        }
+    }
+}
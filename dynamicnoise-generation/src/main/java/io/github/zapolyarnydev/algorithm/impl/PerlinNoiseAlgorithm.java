@@ -6,23 +6,29 @@ import java.util.Random;
 
 public class PerlinNoiseAlgorithm implements NoiseAlgorithm {
 
+    /**
+     * Bounds of the absolute value of improved noise. On the line y = 0, which 1D maps sample, the gradients
+     * reduce to 0 or &plusmn;x and the noise peaks at 0.5 midway between two lattice points. 2D noise reaches 1
+     * where a corner gradient points along the diagonal; the 3D supremum is about 1.036.
+     */
+    public static final double MAX_1D = 0.5;
+    public static final double MAX_2D = 1.0;
+    public static final double MAX_3D = 1.04;
+
     private final int[] permutationTable;
-    private final int[] permutation;
-    private final Random random;
 
     public PerlinNoiseAlgorithm(Random random) {
-        this.random = random;
         permutationTable = new int[512];
-        permutation = new int[256];
+        int[] permutation = new int[256];
         for (int i = 0; i < 256; i++) {
             permutation[i] = i;
         }
-        shufflePermutation();
+        shufflePermutation(permutation, random);
         System.arraycopy(permutation, 0, permutationTable, 0, 256);
         System.arraycopy(permutation, 0, permutationTable, 256, 256);
     }
 
-    private void shufflePermutation() {
+    private static void shufflePermutation(int[] permutation, Random random) {
         for (int i = 255; i > 0; i--) {
             int j = random.nextInt(i + 1);
             int tmp = permutation[i];
@@ -52,14 +58,66 @@ public class PerlinNoiseAlgorithm implements NoiseAlgorithm {
         int Y = (int) Math.floor(y) & 255;
         double xf = x - Math.floor(x);
         double yf = y - Math.floor(y);
-        double u = fade(xf);
-        double v = fade(yf);
 
         int aa = permutationTable[X + permutationTable[Y]];
         int ab = permutationTable[X + permutationTable[Y + 1]];
         int ba = permutationTable[X + 1 + permutationTable[Y]];
         int bb = permutationTable[X + 1 + permutationTable[Y + 1]];
 
+        return interpolate(aa, ab, ba, bb, xf, yf, fade(xf), fade(yf));
+    }
+
+    /**
+     * Adds {@code noise(xs[i], y) * amplitude} to {@code out[offset + i]} for {@code i < length}.
+     * The y terms are computed once, and the corner hashes are reused while consecutive points stay in the same cell.
+     */
+    public void accumulateAlongX(double[] xs, double y, int length, double amplitude, double[] out, int offset) {
+        int Y = (int) Math.floor(y) & 255;
+        double yf = y - Math.floor(y);
+        double v = fade(yf);
+        int cell = -1;
+        int aa = 0, ab = 0, ba = 0, bb = 0;
+        for (int i = 0; i < length; i++) {
+            double x = xs[i];
+            int X = (int) Math.floor(x) & 255;
+            if (X != cell) {
+                aa = permutationTable[X + permutationTable[Y]];
+                ab = permutationTable[X + permutationTable[Y + 1]];
+                ba = permutationTable[X + 1 + permutationTable[Y]];
+                bb = permutationTable[X + 1 + permutationTable[Y + 1]];
+                cell = X;
+            }
+            double xf = x - Math.floor(x);
+            out[offset + i] += interpolate(aa, ab, ba, bb, xf, yf, fade(xf), v) * amplitude;
+        }
+    }
+
+    /**
+     * Adds {@code noise(x, ys[i]) * amplitude} to {@code out[offset + i]} for {@code i < length}.
+     * The x terms are computed once, and the corner hashes are reused while consecutive points stay in the same cell.
+     */
+    public void accumulateAlongY(double x, double[] ys, int length, double amplitude, double[] out, int offset) {
+        int X = (int) Math.floor(x) & 255;
+        double xf = x - Math.floor(x);
+        double u = fade(xf);
+        int cell = -1;
+        int aa = 0, ab = 0, ba = 0, bb = 0;
+        for (int i = 0; i < length; i++) {
+            double y = ys[i];
+            int Y = (int) Math.floor(y) & 255;
+            if (Y != cell) {
+                aa = permutationTable[X + permutationTable[Y]];
+                ab = permutationTable[X + permutationTable[Y + 1]];
+                ba = permutationTable[X + 1 + permutationTable[Y]];
+                bb = permutationTable[X + 1 + permutationTable[Y + 1]];
+                cell = Y;
+            }
+            double yf = y - Math.floor(y);
+            out[offset + i] += interpolate(aa, ab, ba, bb, xf, yf, u, fade(yf)) * amplitude;
+        }
+    }
+
+    private double interpolate(int aa, int ab, int ba, int bb, double xf, double yf, double u, double v) {
         double x1 = lerp(grad(aa, xf, yf), grad(ba, xf - 1, yf), u);
         double x2 = lerp(grad(ab, xf, yf - 1), grad(bb, xf - 1, yf - 1), u);
 
@@ -68,6 +126,121 @@ public class PerlinNoiseAlgorithm implements NoiseAlgorithm {
 
     @Override
     public double noise(double x, double y, double z) {
-        return 0;
+        int X = (int) Math.floor(x) & 255;
+        int Y = (int) Math.floor(y) & 255;
+        int Z = (int) Math.floor(z) & 255;
+        double xf = x - Math.floor(x);
+        double yf = y - Math.floor(y);
+        double zf = z - Math.floor(z);
+        double u = fade(xf);
+        double v = fade(yf);
+        double w = fade(zf);
+
+        int a = permutationTable[X] + Y;
+        int aa = permutationTable[a] + Z;
+        int ab = permutationTable[a + 1] + Z;
+        int b = permutationTable[X + 1] + Y;
+        int ba = permutationTable[b] + Z;
+        int bb = permutationTable[b + 1] + Z;
+
+        double x1 = lerp(grad(permutationTable[aa], xf, yf, zf), grad(permutationTable[ba], xf - 1, yf, zf), u);
+        double x2 = lerp(grad(permutationTable[ab], xf, yf - 1, zf), grad(permutationTable[bb], xf - 1, yf - 1, zf), u);
+        double x3 = lerp(grad(permutationTable[aa + 1], xf, yf, zf - 1), grad(permutationTable[ba + 1], xf - 1, yf, zf - 1), u);
+        double x4 = lerp(grad(permutationTable[ab + 1], xf, yf - 1, zf - 1), grad(permutationTable[bb + 1], xf - 1, yf - 1, zf - 1), u);
+
+        return lerp(lerp(x1, x2, v), lerp(x3, x4, v), w);
+    }
+
+    /**
+     * Adds {@code noise(x, y, zs[i]) * amplitude} to {@code out[offset + i]} for {@code i < length}.
+     * The x and y terms are computed once. The corner hashes, and which coordinates each corner gradient sums,
+     * are only recomputed when a point enters a new cell, so every other point evaluates the gradients without branches.
+     * They are kept in {@code cellTerms}, which the caller reuses from call to call.
+     */
+    public void accumulateAlongZ(double x, double y, double[] zs, int length, double amplitude, double[] out, int offset,
+                                 CellTerms cellTerms) {
+        int X = (int) Math.floor(x) & 255;
+        int Y = (int) Math.floor(y) & 255;
+        double u = fade(x - Math.floor(x));
+        double v = fade(y - Math.floor(y));
+        int a = permutationTable[X] + Y;
+        int b = permutationTable[X + 1] + Y;
+
+        double[] fractions = cellTerms.fractions;
+        int[] terms = cellTerms.terms;
+        double[] signs = cellTerms.signs;
+        fractions[0] = x - Math.floor(x);
+        fractions[1] = fractions[0] - 1;
+        fractions[2] = y - Math.floor(y);
+        fractions[3] = fractions[2] - 1;
+        int cell = -1;
+        for (int i = 0; i < length; i++) {
+            double z = zs[i];
+            int Z = (int) Math.floor(z) & 255;
+            if (Z != cell) {
+                int aa = permutationTable[a] + Z;
+                int ab = permutationTable[a + 1] + Z;
+                int ba = permutationTable[b] + Z;
+                int bb = permutationTable[b + 1] + Z;
+                gradientTerms(permutationTable[aa], 0, terms, signs);
+                gradientTerms(permutationTable[ba], 1, terms, signs);
+                gradientTerms(permutationTable[ab], 2, terms, signs);
+                gradientTerms(permutationTable[bb], 3, terms, signs);
+                gradientTerms(permutationTable[aa + 1], 4, terms, signs);
+                gradientTerms(permutationTable[ba + 1], 5, terms, signs);
+                gradientTerms(permutationTable[ab + 1], 6, terms, signs);
+                gradientTerms(permutationTable[bb + 1], 7, terms, signs);
+                cell = Z;
+            }
+            double zf = z - Math.floor(z);
+            double w = fade(zf);
+            fractions[4] = zf;
+            fractions[5] = zf - 1;
+
+            double x1 = lerp(signs[0] * fractions[terms[0]] + signs[1] * fractions[terms[1]],
+                    signs[2] * fractions[terms[2]] + signs[3] * fractions[terms[3]], u);
+            double x2 = lerp(signs[4] * fractions[terms[4]] + signs[5] * fractions[terms[5]],
+                    signs[6] * fractions[terms[6]] + signs[7] * fractions[terms[7]], u);
+            double x3 = lerp(signs[8] * fractions[terms[8]] + signs[9] * fractions[terms[9]],
+                    signs[10] * fractions[terms[10]] + signs[11] * fractions[terms[11]], u);
+            double x4 = lerp(signs[12] * fractions[terms[12]] + signs[13] * fractions[terms[13]],
+                    signs[14] * fractions[terms[14]] + signs[15] * fractions[terms[15]], u);
+            out[offset + i] += lerp(lerp(x1, x2, v), lerp(x3, x4, v), w) * amplitude;
+        }
+    }
+
+    private double grad(int hash, double x, double y, double z) {
+        int h = hash & 15;
+        double u = h < 8 ? x : y;
+        double v = h < 4 ? y : (h == 12 || h == 14) ? x : z;
+        return ((h & 1) == 0 ? u : -u) + ((h & 2) == 0 ? v : -v);
+    }
+
+    /**
+     * Stores which fractions the 3D {@link #grad} sums for {@code hash} at the given corner of the cell
+     * (000, 100, 010, 110, 001, 101, 011, 111 of the (x, y, z) offsets), and with which signs.
+     * Multiplying by the signs is exact, so the sum equals {@code grad} bit for bit.
+     */
+    private static void gradientTerms(int hash, int corner, int[] terms, double[] signs) {
+        int h = hash & 15;
+        int x = corner & 1;
+        int y = 2 + (corner >> 1 & 1);
+        int z = 4 + (corner >> 2);
+        terms[2 * corner] = h < 8 ? x : y;
+        terms[2 * corner + 1] = h < 4 ? y : (h == 12 || h == 14) ? x : z;
+        signs[2 * corner] = (h & 1) == 0 ? 1 : -1;
+        signs[2 * corner + 1] = (h & 2) == 0 ? 1 : -1;
+    }
+
+    /**
+     * The working memory of {@link #accumulateAlongZ}.
+     */
+    public static final class CellTerms {
+
+        // The fractions and their offsets to the far corner, indexed as xf, xf - 1, yf, yf - 1, zf, zf - 1,
+        // and for each of the 8 cell corners the two of them that grad() sums, with their signs.
+        final double[] fractions = new double[6];
+        final int[] terms = new int[16];
+        final double[] signs = new double[16];
     }
 }
@@ -0,0 +1,157 @@
+package io.github.zapolyarnydev.algorithm.impl;
+
+import io.github.zapolyarnydev.algorithm.NoiseAlgorithm;
+
+import java.util.Random;
+
+/**
+ * Stefan Gustavson's simplex noise. The space is split into triangles (2D) or tetrahedra (3D) on a skewed grid,
+ * so a point sums the contributions of 3 or 4 corners instead of the 4 or 8 of a cubic lattice.
+ * The result lies roughly in [-1, 1].
+ */
+public class SimplexNoiseAlgorithm implements NoiseAlgorithm {
+
+    /**
+     * Bounds of the absolute value of 2D and 3D noise. The scale factors 70 and 76.8 bring the extremes just below 1;
+     * the largest 3D value found by searching many seeds is 0.9990.
+     */
+    public static final double MAX_2D = 1.0;
+    public static final double MAX_3D = 1.0;
+
+    static final double F2 = 0.5 * (Math.sqrt(3) - 1);
+    static final double G2 = (3 - Math.sqrt(3)) / 6;
+    static final double F3 = 1.0 / 3;
+    static final double G3 = 1.0 / 6;
+
+    /**
+     * The 12 gradients pointing to the edge midpoints of a cube. 2D noise uses their x and y components.
+     */
+    private static final double[] GRAD_X = {1, -1, 1, -1, 1, -1, 1, -1, 0, 0, 0, 0};
+    private static final double[] GRAD_Y = {1, 1, -1, -1, 0, 0, 0, 0, 1, -1, 1, -1};
+    private static final double[] GRAD_Z = {0, 0, 0, 0, 1, 1, -1, -1, 1, 1, -1, -1};
+
+    final int[] permutationTable;
+
+    /**
+     * The components of the gradient of each hash, so that a corner costs one lookup per component.
+     */
+    private final double[] gradientX = new double[512];
+    private final double[] gradientY = new double[512];
+    private final double[] gradientZ = new double[512];
+
+    public SimplexNoiseAlgorithm(Random random) {
+        permutationTable = new int[512];
+        int[] permutation = new int[256];
+        for (int i = 0; i < 256; i++) {
+            permutation[i] = i;
+        }
+        shufflePermutation(permutation, random);
+        for (int i = 0; i < 512; i++) {
+            permutationTable[i] = permutation[i & 255];
+            int gradient = permutationTable[i] % 12;
+            gradientX[i] = GRAD_X[gradient];
+            gradientY[i] = GRAD_Y[gradient];
+            gradientZ[i] = GRAD_Z[gradient];
+        }
+    }
+
+    private static void shufflePermutation(int[] permutation, Random random) {
+        for (int i = 255; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = permutation[i];
+            permutation[i] = permutation[j];
+            permutation[j] = tmp;
+        }
+    }
+
+    @Override
+    public double noise(double x, double y) {
+        double s = (x + y) * F2;
+        int i = (int) Math.floor(x + s);
+        int j = (int) Math.floor(y + s);
+        double t = (i + j) * G2;
+        double x0 = x - (i - t);
+        double y0 = y - (j - t);
+
+        // The triangle containing the point: lower (x0 > y0) or upper.
+        int i1 = x0 > y0 ? 1 : 0;
+        int j1 = 1 - i1;
+
+        double x1 = x0 - i1 + G2;
+        double y1 = y0 - j1 + G2;
+        double x2 = x0 - 1 + 2 * G2;
+        double y2 = y0 - 1 + 2 * G2;
+
+        int ii = i & 255;
+        int jj = j & 255;
+        return 70 * (corner(ii + permutationTable[jj], x0, y0)
+                + corner(ii + i1 + permutationTable[jj + j1], x1, y1)
+                + corner(ii + 1 + permutationTable[jj + 1], x2, y2));
+    }
+
+    @Override
+    public double noise(double x, double y, double z) {
+        double s = (x + y + z) * F3;
+        int i = (int) Math.floor(x + s);
+        int j = (int) Math.floor(y + s);
+        int k = (int) Math.floor(z + s);
+        double t = (i + j + k) * G3;
+        double x0 = x - (i - t);
+        double y0 = y - (j - t);
+        double z0 = z - (k - t);
+
+        // The tetrahedron containing the point is given by the order of x0, y0 and z0: the second corner steps
+        // along the largest of them, the third along the two largest. Ties are broken towards x, then y.
+        int i1 = x0 >= y0 && x0 >= z0 ? 1 : 0;
+        int j1 = y0 > x0 && y0 >= z0 ? 1 : 0;
+        int k1 = z0 > x0 && z0 > y0 ? 1 : 0;
+        int i2 = x0 >= y0 || x0 >= z0 ? 1 : 0;
+        int j2 = y0 > x0 || y0 >= z0 ? 1 : 0;
+        int k2 = z0 > x0 || z0 > y0 ? 1 : 0;
+
+        double x1 = x0 - i1 + G3;
+        double y1 = y0 - j1 + G3;
+        double z1 = z0 - k1 + G3;
+        double x2 = x0 - i2 + 2 * G3;
+        double y2 = y0 - j2 + 2 * G3;
+        double z2 = z0 - k2 + 2 * G3;
+        double x3 = x0 - 1 + 3 * G3;
+        double y3 = y0 - 1 + 3 * G3;
+        double z3 = z0 - 1 + 3 * G3;
+
+        int ii = i & 255;
+        int jj = j & 255;
+        int kk = k & 255;
+        return 76.8 * (corner(ii + permutationTable[jj + permutationTable[kk]], x0, y0, z0)
+                + corner(ii + i1 + permutationTable[jj + j1 + permutationTable[kk + k1]], x1, y1, z1)
+                + corner(ii + i2 + permutationTable[jj + j2 + permutationTable[kk + k2]], x2, y2, z2)
+                + corner(ii + 1 + permutationTable[jj + 1 + permutationTable[kk + 1]], x3, y3, z3));
+    }
+
+    /**
+     * The contribution of the corner with the given hash at offset {@code (x, y)} from the point,
+     * which falls off to 0 at distance sqrt(0.5).
+     */
+    private double corner(int hash, double x, double y) {
+        double t = 0.5 - x * x - y * y;
+        if (t < 0) {
+            return 0;
+        }
+        t *= t;
+        return t * t * (gradientX[hash] * x + gradientY[hash] * y);
+    }
+
+    /**
+     * The contribution of a 3D corner, which falls off to 0 at distance sqrt(0.5), the distance from a corner
+     * to the opposite face of its tetrahedra. The 0.6 of the reference code reaches beyond that face, into
+     * simplices that do not include the corner, so the noise jumps where those simplices meet.
+     */
+    private double corner(int hash, double x, double y, double z) {
+        double t = 0.5 - x * x - y * y - z * z;
+        if (t < 0) {
+            return 0;
+        }
+        t *= t;
+        return t * t * (gradientX[hash] * x + gradientY[hash] * y + gradientZ[hash] * z);
+    }
+}
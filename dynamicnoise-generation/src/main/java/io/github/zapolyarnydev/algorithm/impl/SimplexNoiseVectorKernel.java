@@ -0,0 +1,317 @@
+package io.github.zapolyarnydev.algorithm.impl;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+import static io.github.zapolyarnydev.algorithm.impl.SimplexNoiseAlgorithm.F2;
+import static io.github.zapolyarnydev.algorithm.impl.SimplexNoiseAlgorithm.F3;
+import static io.github.zapolyarnydev.algorithm.impl.SimplexNoiseAlgorithm.G2;
+import static io.github.zapolyarnydev.algorithm.impl.SimplexNoiseAlgorithm.G3;
+
+/**
+ * Evaluates the simplex noise of a {@link SimplexNoiseAlgorithm} for many points at once with the Vector API.
+ * <p>
+ * The evaluation is split into passes over the whole block: skewing, lattice cells and the simplex containing
+ * each point, the gradients of its corners (scalar, since the permutation lookups do not vectorize), and the
+ * corner contributions, which expand the gradients to their components with blends rather than gathering them
+ * from the tables of the algorithm: gathers crashed the C2 compiler of JDK 21 on AVX-512.
+ * As in {@link ImprovedNoiseVectorKernel}, the passes are written out without helper methods and repeat the
+ * operations of the scalar algorithm in the same order, so the results are identical.
+ * <p>
+ * Requires {@link VectorSupport#ENABLED}. The scratch arrays of an instance belong to one thread at a time.
+ */
+public final class SimplexNoiseVectorKernel {
+
+    private static final VectorSpecies<Double> DOUBLES = DoubleVector.SPECIES_PREFERRED;
+    private static final VectorSpecies<Integer> INTS =
+            VectorSpecies.of(int.class, VectorShape.forBitSize(DOUBLES.vectorBitSize() / 2));
+
+    /**
+     * Skewed coordinates beyond this magnitude do not fit the int conversion used for the lattice and are left
+     * to the scalar code.
+     */
+    private static final double MAX_COORDINATE = Integer.MAX_VALUE;
+
+    private static final DoubleVector ZERO = DoubleVector.zero(DOUBLES);
+    private static final DoubleVector ONE = DoubleVector.broadcast(DOUBLES, 1);
+
+    private final int[] perm;
+
+    private final int capacity;
+    private final int[] cells;
+    private final int[] steps;
+    private final double[] offsets;
+    private final int[] gradients;
+    private final double[] sums;
+
+    /**
+     * @param algorithm The noise to evaluate.
+     * @param capacity  The maximum number of points passed to one {@code accumulate} call.
+     */
+    public SimplexNoiseVectorKernel(SimplexNoiseAlgorithm algorithm, int capacity) {
+        this.perm = algorithm.permutationTable;
+        this.capacity = DOUBLES.loopBound(capacity);
+        this.cells = new int[3 * this.capacity];
+        this.steps = new int[6 * this.capacity];
+        this.offsets = new double[12 * this.capacity];
+        this.gradients = new int[4 * this.capacity];
+        this.sums = new double[this.capacity];
+    }
+
+    /**
+     * Adds {@code noise(xs[i], ys[i]) * amplitude} to {@code out[offset + i]} for a prefix of the points.
+     * The remaining points, a tail shorter than a vector or points too far from the origin, are left to the caller.
+     *
+     * @return The number of points processed.
+     */
+    public int accumulate(double[] xs, double[] ys, int length, double amplitude, double[] out, int offset) {
+        int bound = skewTriangles(xs, ys, DOUBLES.loopBound(Math.min(length, capacity)));
+        gradientsOfTriangles(bound);
+        sumTriangles(bound, amplitude, out, offset);
+        return bound;
+    }
+
+    /**
+     * Adds {@code noise(xs[i], ys[i], zs[i]) * amplitude} to {@code out[offset + i]} for a prefix of the points.
+     * The remaining points, a tail shorter than a vector or points too far from the origin, are left to the caller.
+     *
+     * @return The number of points processed.
+     */
+    public int accumulate(double[] xs, double[] ys, double[] zs, int length, double amplitude, double[] out, int offset) {
+        int bound = skewTetrahedra(xs, ys, zs, DOUBLES.loopBound(Math.min(length, capacity)));
+        gradientsOfTetrahedra(bound);
+        sumTetrahedra(bound, amplitude, out, offset);
+        return bound;
+    }
+
+    /**
+     * Stores the cell of every 2D point masked to the permutation range, whether its triangle steps along x first,
+     * and its offsets from the three corners. Stops at the first vector with a coordinate outside the int range.
+     */
+    private int skewTriangles(double[] xs, double[] ys, int length) {
+        for (int i = 0; i < length; i += DOUBLES.length()) {
+            DoubleVector x = DoubleVector.fromArray(DOUBLES, xs, i);
+            DoubleVector y = DoubleVector.fromArray(DOUBLES, ys, i);
+            DoubleVector s = x.add(y).mul(F2);
+            DoubleVector sx = x.add(s);
+            DoubleVector sy = y.add(s);
+            if (sx.abs().compare(VectorOperators.GT, MAX_COORDINATE)
+                    .or(sy.abs().compare(VectorOperators.GT, MAX_COORDINATE)).anyTrue()) {
+                return i;
+            }
+            IntVector ci = (IntVector) sx.convertShape(VectorOperators.D2I, INTS, 0);
+            DoubleVector fi = (DoubleVector) ci.convertShape(VectorOperators.I2D, DOUBLES, 0);
+            VectorMask<Double> aboveX = fi.compare(VectorOperators.GT, sx);
+            ci = ci.sub(1, aboveX.cast(INTS));
+            fi = fi.sub(1, aboveX);
+            IntVector cj = (IntVector) sy.convertShape(VectorOperators.D2I, INTS, 0);
+            DoubleVector fj = (DoubleVector) cj.convertShape(VectorOperators.I2D, DOUBLES, 0);
+            VectorMask<Double> aboveY = fj.compare(VectorOperators.GT, sy);
+            cj = cj.sub(1, aboveY.cast(INTS));
+            fj = fj.sub(1, aboveY);
+
+            DoubleVector t = ((DoubleVector) ci.add(cj).convertShape(VectorOperators.I2D, DOUBLES, 0)).mul(G2);
+            DoubleVector x0 = x.sub(fi.sub(t));
+            DoubleVector y0 = y.sub(fj.sub(t));
+            VectorMask<Double> lower = x0.compare(VectorOperators.GT, y0);
+            DoubleVector i1 = ZERO.blend(1, lower);
+            DoubleVector j1 = ONE.sub(i1);
+
+            ci.and(255).intoArray(cells, i);
+            cj.and(255).intoArray(cells, capacity + i);
+            IntVector.zero(INTS).blend(1, lower.cast(INTS)).intoArray(steps, i);
+            x0.intoArray(offsets, i);
+            y0.intoArray(offsets, capacity + i);
+            x0.sub(i1).add(G2).intoArray(offsets, 3 * capacity + i);
+            y0.sub(j1).add(G2).intoArray(offsets, 4 * capacity + i);
+            x0.sub(1).add(2 * G2).intoArray(offsets, 6 * capacity + i);
+            y0.sub(1).add(2 * G2).intoArray(offsets, 7 * capacity + i);
+        }
+        return length;
+    }
+
+    /**
+     * Stores the cell of every 3D point masked to the permutation range, the steps from the first corner of its
+     * tetrahedron to the second and third, and its offsets from the four corners. Stops at the first vector with
+     * a coordinate outside the int range.
+     */
+    private int skewTetrahedra(double[] xs, double[] ys, double[] zs, int length) {
+        for (int i = 0; i < length; i += DOUBLES.length()) {
+            DoubleVector x = DoubleVector.fromArray(DOUBLES, xs, i);
+            DoubleVector y = DoubleVector.fromArray(DOUBLES, ys, i);
+            DoubleVector z = DoubleVector.fromArray(DOUBLES, zs, i);
+            DoubleVector s = x.add(y).add(z).mul(F3);
+            DoubleVector sx = x.add(s);
+            DoubleVector sy = y.add(s);
+            DoubleVector sz = z.add(s);
+            if (sx.abs().compare(VectorOperators.GT, MAX_COORDINATE)
+                    .or(sy.abs().compare(VectorOperators.GT, MAX_COORDINATE))
+                    .or(sz.abs().compare(VectorOperators.GT, MAX_COORDINATE)).anyTrue()) {
+                return i;
+            }
+            IntVector ci = (IntVector) sx.convertShape(VectorOperators.D2I, INTS, 0);
+            DoubleVector fi = (DoubleVector) ci.convertShape(VectorOperators.I2D, DOUBLES, 0);
+            VectorMask<Double> aboveX = fi.compare(VectorOperators.GT, sx);
+            ci = ci.sub(1, aboveX.cast(INTS));
+            fi = fi.sub(1, aboveX);
+            IntVector cj = (IntVector) sy.convertShape(VectorOperators.D2I, INTS, 0);
+            DoubleVector fj = (DoubleVector) cj.convertShape(VectorOperators.I2D, DOUBLES, 0);
+            VectorMask<Double> aboveY = fj.compare(VectorOperators.GT, sy);
+            cj = cj.sub(1, aboveY.cast(INTS));
+            fj = fj.sub(1, aboveY);
+            IntVector ck = (IntVector) sz.convertShape(VectorOperators.D2I, INTS, 0);
+            DoubleVector fk = (DoubleVector) ck.convertShape(VectorOperators.I2D, DOUBLES, 0);
+            VectorMask<Double> aboveZ = fk.compare(VectorOperators.GT, sz);
+            ck = ck.sub(1, aboveZ.cast(INTS));
+            fk = fk.sub(1, aboveZ);
+
+            DoubleVector t = ((DoubleVector) ci.add(cj).add(ck).convertShape(VectorOperators.I2D, DOUBLES, 0)).mul(G3);
+            DoubleVector x0 = x.sub(fi.sub(t));
+            DoubleVector y0 = y.sub(fj.sub(t));
+            DoubleVector z0 = z.sub(fk.sub(t));
+
+            // The same comparisons as the scalar code, which breaks ties towards x, then y.
+            VectorMask<Double> xy = x0.compare(VectorOperators.GE, y0);
+            VectorMask<Double> xz = x0.compare(VectorOperators.GE, z0);
+            VectorMask<Double> yz = y0.compare(VectorOperators.GE, z0);
+            VectorMask<Double> i1 = xy.and(xz);
+            VectorMask<Double> j1 = xy.not().and(yz);
+            VectorMask<Double> k1 = xz.not().and(yz.not());
+            VectorMask<Double> i2 = xy.or(xz);
+            VectorMask<Double> j2 = xy.not().or(yz);
+            VectorMask<Double> k2 = xz.not().or(yz.not());
+            IntVector none = IntVector.zero(INTS);
+
+            ci.and(255).intoArray(cells, i);
+            cj.and(255).intoArray(cells, capacity + i);
+            ck.and(255).intoArray(cells, 2 * capacity + i);
+            none.blend(1, i1.cast(INTS)).intoArray(steps, i);
+            none.blend(1, j1.cast(INTS)).intoArray(steps, capacity + i);
+            none.blend(1, k1.cast(INTS)).intoArray(steps, 2 * capacity + i);
+            none.blend(1, i2.cast(INTS)).intoArray(steps, 3 * capacity + i);
+            none.blend(1, j2.cast(INTS)).intoArray(steps, 4 * capacity + i);
+            none.blend(1, k2.cast(INTS)).intoArray(steps, 5 * capacity + i);
+            x0.intoArray(offsets, i);
+            y0.intoArray(offsets, capacity + i);
+            z0.intoArray(offsets, 2 * capacity + i);
+            x0.sub(ZERO.blend(1, i1)).add(G3).intoArray(offsets, 3 * capacity + i);
+            y0.sub(ZERO.blend(1, j1)).add(G3).intoArray(offsets, 4 * capacity + i);
+            z0.sub(ZERO.blend(1, k1)).add(G3).intoArray(offsets, 5 * capacity + i);
+            x0.sub(ZERO.blend(1, i2)).add(2 * G3).intoArray(offsets, 6 * capacity + i);
+            y0.sub(ZERO.blend(1, j2)).add(2 * G3).intoArray(offsets, 7 * capacity + i);
+            z0.sub(ZERO.blend(1, k2)).add(2 * G3).intoArray(offsets, 8 * capacity + i);
+            x0.sub(1).add(3 * G3).intoArray(offsets, 9 * capacity + i);
+            y0.sub(1).add(3 * G3).intoArray(offsets, 10 * capacity + i);
+            z0.sub(1).add(3 * G3).intoArray(offsets, 11 * capacity + i);
+        }
+        return length;
+    }
+
+    /**
+     * Stores which of the 12 gradients of {@link SimplexNoiseAlgorithm} each of the three corners of every 2D point has.
+     */
+    private void gradientsOfTriangles(int length) {
+        for (int i = 0; i < length; i++) {
+            int ii = cells[i];
+            int jj = cells[capacity + i];
+            int i1 = steps[i];
+            gradients[i] = perm[ii + perm[jj]] % 12;
+            gradients[capacity + i] = perm[ii + i1 + perm[jj + 1 - i1]] % 12;
+            gradients[2 * capacity + i] = perm[ii + 1 + perm[jj + 1]] % 12;
+        }
+    }
+
+    /**
+     * Stores which of the 12 gradients of {@link SimplexNoiseAlgorithm} each of the four corners of every 3D point has.
+     */
+    private void gradientsOfTetrahedra(int length) {
+        for (int i = 0; i < length; i++) {
+            int ii = cells[i];
+            int jj = cells[capacity + i];
+            int kk = cells[2 * capacity + i];
+            gradients[i] = perm[ii + perm[jj + perm[kk]]] % 12;
+            gradients[capacity + i] = perm[ii + steps[i]
+                    + perm[jj + steps[capacity + i] + perm[kk + steps[2 * capacity + i]]]] % 12;
+            gradients[2 * capacity + i] = perm[ii + steps[3 * capacity + i]
+                    + perm[jj + steps[4 * capacity + i] + perm[kk + steps[5 * capacity + i]]]] % 12;
+            gradients[3 * capacity + i] = perm[ii + 1 + perm[jj + 1 + perm[kk + 1]]] % 12;
+        }
+    }
+
+    /**
+     * Sums the contributions of the three corners of every 2D point, in corner order, and adds the scaled sum.
+     */
+    private void sumTriangles(int length, double amplitude, double[] out, int offset) {
+        for (int corner = 0; corner < 3; corner++) {
+            int base = 3 * corner * capacity;
+            for (int i = 0; i < length; i += DOUBLES.length()) {
+                DoubleVector x = DoubleVector.fromArray(DOUBLES, offsets, base + i);
+                DoubleVector y = DoubleVector.fromArray(DOUBLES, offsets, base + capacity + i);
+                // The components of the gradients are 1, -1 or 0, laid out as in SimplexNoiseAlgorithm.GRAD_X and GRAD_Y.
+                IntVector g = IntVector.fromArray(INTS, gradients, corner * capacity + i);
+                VectorMask<Double> below4 = g.compare(VectorOperators.LT, 4).cast(DOUBLES);
+                VectorMask<Double> below8 = g.compare(VectorOperators.LT, 8).cast(DOUBLES);
+                DoubleVector oddSign = ONE.blend(-1, g.and(1).compare(VectorOperators.NE, 0).cast(DOUBLES));
+                DoubleVector pairSign = ONE.blend(-1, g.and(2).compare(VectorOperators.NE, 0).cast(DOUBLES));
+                DoubleVector gx = ZERO.blend(oddSign, below8);
+                DoubleVector gy = oddSign.blend(ZERO, below8).blend(pairSign, below4);
+                DoubleVector t = DoubleVector.broadcast(DOUBLES, 0.5).sub(x.mul(x)).sub(y.mul(y));
+                VectorMask<Double> outside = t.compare(VectorOperators.LT, 0);
+                t = t.mul(t);
+                DoubleVector contribution = t.mul(t).mul(gx.mul(x).add(gy.mul(y)))
+                        .blend(ZERO, outside);
+                if (corner > 0) {
+                    contribution = DoubleVector.fromArray(DOUBLES, sums, i).add(contribution);
+                }
+                if (corner < 2) {
+                    contribution.intoArray(sums, i);
+                } else {
+                    DoubleVector.fromArray(DOUBLES, out, offset + i).add(contribution.mul(70).mul(amplitude))
+                            .intoArray(out, offset + i);
+                }
+            }
+        }
+    }
+
+    /**
+     * Sums the contributions of the four corners of every 3D point, in corner order, and adds the scaled sum.
+     */
+    private void sumTetrahedra(int length, double amplitude, double[] out, int offset) {
+        for (int corner = 0; corner < 4; corner++) {
+            int base = 3 * corner * capacity;
+            for (int i = 0; i < length; i += DOUBLES.length()) {
+                DoubleVector x = DoubleVector.fromArray(DOUBLES, offsets, base + i);
+                DoubleVector y = DoubleVector.fromArray(DOUBLES, offsets, base + capacity + i);
+                DoubleVector z = DoubleVector.fromArray(DOUBLES, offsets, base + 2 * capacity + i);
+                // The components of the gradients are 1, -1 or 0, laid out as in SimplexNoiseAlgorithm.GRAD_X, GRAD_Y
+                // and GRAD_Z.
+                IntVector g = IntVector.fromArray(INTS, gradients, corner * capacity + i);
+                VectorMask<Double> below4 = g.compare(VectorOperators.LT, 4).cast(DOUBLES);
+                VectorMask<Double> below8 = g.compare(VectorOperators.LT, 8).cast(DOUBLES);
+                DoubleVector oddSign = ONE.blend(-1, g.and(1).compare(VectorOperators.NE, 0).cast(DOUBLES));
+                DoubleVector pairSign = ONE.blend(-1, g.and(2).compare(VectorOperators.NE, 0).cast(DOUBLES));
+                DoubleVector gx = ZERO.blend(oddSign, below8);
+                DoubleVector gy = oddSign.blend(ZERO, below8).blend(pairSign, below4);
+                DoubleVector gz = pairSign.blend(ZERO, below4);
+                DoubleVector t = DoubleVector.broadcast(DOUBLES, 0.5).sub(x.mul(x)).sub(y.mul(y)).sub(z.mul(z));
+                VectorMask<Double> outside = t.compare(VectorOperators.LT, 0);
+                t = t.mul(t);
+                DoubleVector contribution = t.mul(t).mul(gx.mul(x).add(gy.mul(y)).add(gz.mul(z)))
+                        .blend(ZERO, outside);
+                if (corner > 0) {
+                    contribution = DoubleVector.fromArray(DOUBLES, sums, i).add(contribution);
+                }
+                if (corner < 3) {
+                    contribution.intoArray(sums, i);
+                } else {
+                    DoubleVector.fromArray(DOUBLES, out, offset + i).add(contribution.mul(76.8).mul(amplitude))
+                            .intoArray(out, offset + i);
+                }
+            }
+        }
+    }
+}
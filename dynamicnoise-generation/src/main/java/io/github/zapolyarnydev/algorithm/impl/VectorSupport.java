@@ -0,0 +1,34 @@
+package io.github.zapolyarnydev.algorithm.impl;
+
+/**
+ * Decides whether the vectorized noise kernels are used.
+ * <p>
+ * The kernels are built on the incubating Vector API ({@code jdk.incubator.vector}), which is only available
+ * when the module is added to the running JVM, e.g. with {@code --add-modules jdk.incubator.vector}.
+ * Without it, or with {@code -Ddynamicnoise.vector=false}, the writers use their scalar loops.
+ * Both paths produce the same values.
+ */
+public final class VectorSupport {
+
+    /**
+     * Whether the vectorized kernels are available and enabled.
+     */
+    public static final boolean ENABLED = detect();
+
+    private VectorSupport() {
+    }
+
+    private static boolean detect() {
+        if (!Boolean.parseBoolean(System.getProperty("dynamicnoise.vector", "true"))) {
+            return false;
+        }
+        if (ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+            return false;
+        }
+        try {
+            return ImprovedNoiseVectorKernel.lanes() >= 2;
+        } catch (LinkageError e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package io.github.zapolyarnydev.buffer;
+
+/**
+ * Holds and validates the shape shared by all {@link NoiseBuffer} implementations.
+ */
+public abstract class AbstractNoiseBuffer implements NoiseBuffer {
+
+    private final int dimension;
+    private final int width;
+    private final int height;
+    private final int depth;
+
+    protected AbstractNoiseBuffer(int dimension, int width, int height, int depth) {
+        if (dimension < 1 || dimension > 3) {
+            throw new IllegalArgumentException("Buffer dimension must be between 1 and 3.");
+        }
+        if (width <= 0 || height <= 0 || depth <= 0) {
+            throw new IllegalArgumentException("Buffer dimensions must be positive.");
+        }
+        this.dimension = dimension;
+        this.width = width;
+        this.height = height;
+        this.depth = depth;
+    }
+
+    /**
+     * Returns the number of samples of a buffer of the given shape that has to fit into a single Java array.
+     */
+    protected static int arraySize(int width, int height, int depth) {
+        long size = (long) width * height * depth;
+        if (size > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Buffer of " + size + " samples does not fit into a single array.");
+        }
+        return (int) size;
+    }
+
+    @Override
+    public int dimension() {
+        return dimension;
+    }
+
+    @Override
+    public int width() {
+        return width;
+    }
+
+    @Override
+    public int height() {
+        return height;
+    }
+
+    @Override
+    public int depth() {
+        return depth;
+    }
+}
@@ -0,0 +1,77 @@
+package io.github.zapolyarnydev.buffer;
+
+/**
+ * {@link NoiseBuffer} backed by a single {@code double[]}.
+ * Compared to jagged {@code double[][]} or {@code double[][][]} arrays it avoids one object per row,
+ * keeps the whole map in one cache-friendly block and indexes it with plain strides.
+ */
+public final class DoubleNoiseBuffer extends AbstractNoiseBuffer {
+
+    private final double[] data;
+
+    public DoubleNoiseBuffer(int width) {
+        this(1, width, 1, 1);
+    }
+
+    public DoubleNoiseBuffer(int width, int height) {
+        this(2, width, height, 1);
+    }
+
+    public DoubleNoiseBuffer(int width, int height, int depth) {
+        this(3, width, height, depth);
+    }
+
+    private DoubleNoiseBuffer(int dimension, int width, int height, int depth) {
+        super(dimension, width, height, depth);
+        this.data = new double[arraySize(width, height, depth)];
+    }
+
+    /**
+     * The backing array. Changes to it are visible through the buffer and vice versa.
+     */
+    public double[] data() {
+        return data;
+    }
+
+    public int strideX() {
+        return height() * depth();
+    }
+
+    public int strideY() {
+        return depth();
+    }
+
+    public double get(int x) {
+        return data[x];
+    }
+
+    public double get(int x, int y) {
+        return data[x * height() + y];
+    }
+
+    public double get(int x, int y, int z) {
+        return data[(x * height() + y) * depth() + z];
+    }
+
+    public void set(int x, double value) {
+        data[x] = value;
+    }
+
+    public void set(int x, int y, double value) {
+        data[x * height() + y] = value;
+    }
+
+    public void set(int x, int y, int z, double value) {
+        data[(x * height() + y) * depth() + z] = value;
+    }
+
+    @Override
+    public double get(long index) {
+        return data[(int) index];
+    }
+
+    @Override
+    public void set(long index, double value) {
+        data[(int) index] = value;
+    }
+}
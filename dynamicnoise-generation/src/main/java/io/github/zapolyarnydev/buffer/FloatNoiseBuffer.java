@@ -0,0 +1,78 @@
+package io.github.zapolyarnydev.buffer;
+
+/**
+ * {@link NoiseBuffer} backed by a single {@code float[]}.
+ * It takes half the memory of a {@link DoubleNoiseBuffer}. Writers still evaluate noise in double precision
+ * and round each sample once when storing it, so a stored value differs from the double sample
+ * by at most half a float ulp (a relative error of 2<sup>-24</sup>).
+ */
+public final class FloatNoiseBuffer extends AbstractNoiseBuffer {
+
+    private final float[] data;
+
+    public FloatNoiseBuffer(int width) {
+        this(1, width, 1, 1);
+    }
+
+    public FloatNoiseBuffer(int width, int height) {
+        this(2, width, height, 1);
+    }
+
+    public FloatNoiseBuffer(int width, int height, int depth) {
+        this(3, width, height, depth);
+    }
+
+    private FloatNoiseBuffer(int dimension, int width, int height, int depth) {
+        super(dimension, width, height, depth);
+        this.data = new float[arraySize(width, height, depth)];
+    }
+
+    /**
+     * The backing array. Changes to it are visible through the buffer and vice versa.
+     */
+    public float[] data() {
+        return data;
+    }
+
+    public int strideX() {
+        return height() * depth();
+    }
+
+    public int strideY() {
+        return depth();
+    }
+
+    public float get(int x) {
+        return data[x];
+    }
+
+    public float get(int x, int y) {
+        return data[x * height() + y];
+    }
+
+    public float get(int x, int y, int z) {
+        return data[(x * height() + y) * depth() + z];
+    }
+
+    public void set(int x, float value) {
+        data[x] = value;
+    }
+
+    public void set(int x, int y, float value) {
+        data[x * height() + y] = value;
+    }
+
+    public void set(int x, int y, int z, float value) {
+        data[(x * height() + y) * depth() + z] = value;
+    }
+
+    @Override
+    public double get(long index) {
+        return data[(int) index];
+    }
+
+    @Override
+    public void set(long index, double value) {
+        data[(int) index] = (float) value;
+    }
+}
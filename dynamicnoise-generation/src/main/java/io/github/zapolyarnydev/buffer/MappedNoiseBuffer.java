@@ -0,0 +1,158 @@
+package io.github.zapolyarnydev.buffer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * {@link NoiseBuffer} backed by a memory-mapped file, for maps larger than the Java heap.
+ * <p>
+ * The file holds the raw samples as little-endian doubles in row-major order, without a header,
+ * and is created or grown to {@code width * height * depth * 8} bytes. Residency is left to the operating system's
+ * page cache: only the pages currently being written or read need to be in memory, and the generated
+ * map is persisted in the file. Since a single mapping is limited to 2 GB, the file is mapped in 1 GB segments.
+ * <pre>{@code
+ * try (MappedNoiseBuffer buffer = new MappedNoiseBuffer(Path.of("world.bin"), 65536, 65536)) {
+ *     generator.generateForMap(new NoiseMap(buffer), noise, 0, 1);
+ *     buffer.force();
+ * }
+ * }</pre>
+ * The buffer cannot be used after {@link #close()}. The mapping itself is never unmapped explicitly: it is
+ * released by the garbage collector once the buffer is unreachable, so a thread still reading or writing the buffer
+ * while it is closed cannot touch unmapped memory. Until then the file stays mapped, which on some systems prevents
+ * it from being deleted or truncated.
+ */
+public final class MappedNoiseBuffer extends AbstractNoiseBuffer implements Closeable {
+
+    private static final int SEGMENT_SHIFT = 27;
+    private static final long SEGMENT_SAMPLES = 1L << SEGMENT_SHIFT;
+    private static final int SEGMENT_MASK = (int) SEGMENT_SAMPLES - 1;
+
+    private final Path file;
+    private final FileChannel channel;
+    private MappedByteBuffer[] segments;
+    private DoubleBuffer[] views;
+
+    public MappedNoiseBuffer(Path file, int width) throws IOException {
+        this(file, 1, width, 1, 1);
+    }
+
+    public MappedNoiseBuffer(Path file, int width, int height) throws IOException {
+        this(file, 2, width, height, 1);
+    }
+
+    public MappedNoiseBuffer(Path file, int width, int height, int depth) throws IOException {
+        this(file, 3, width, height, depth);
+    }
+
+    private MappedNoiseBuffer(Path file, int dimension, int width, int height, int depth) throws IOException {
+        super(dimension, width, height, depth);
+        this.file = file;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            long size = size();
+            int count = (int) ((size + SEGMENT_SAMPLES - 1) >>> SEGMENT_SHIFT);
+            this.segments = new MappedByteBuffer[count];
+            this.views = new DoubleBuffer[count];
+            for (int i = 0; i < count; i++) {
+                long start = (long) i << SEGMENT_SHIFT;
+                long samples = Math.min(SEGMENT_SAMPLES, size - start);
+                segments[i] = channel.map(FileChannel.MapMode.READ_WRITE, start * Double.BYTES, samples * Double.BYTES);
+                views[i] = segments[i].order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+            }
+        } catch (IOException | RuntimeException e) {
+            detach();
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * The file the buffer is mapped from.
+     */
+    public Path file() {
+        return file;
+    }
+
+    public boolean isOpen() {
+        return views != null;
+    }
+
+    @Override
+    public double get(long index) {
+        return views()[(int) (index >>> SEGMENT_SHIFT)].get((int) index & SEGMENT_MASK);
+    }
+
+    @Override
+    public void set(long index, double value) {
+        views()[(int) (index >>> SEGMENT_SHIFT)].put((int) index & SEGMENT_MASK, value);
+    }
+
+    @Override
+    public void getRow(long index, double[] dst, int offset, int length) {
+        DoubleBuffer[] current = views();
+        while (length > 0) {
+            int local = (int) index & SEGMENT_MASK;
+            int count = (int) Math.min(length, SEGMENT_SAMPLES - local);
+            current[(int) (index >>> SEGMENT_SHIFT)].get(local, dst, offset, count);
+            index += count;
+            offset += count;
+            length -= count;
+        }
+    }
+
+    @Override
+    public void setRow(long index, double[] src, int offset, int length) {
+        DoubleBuffer[] current = views();
+        while (length > 0) {
+            int local = (int) index & SEGMENT_MASK;
+            int count = (int) Math.min(length, SEGMENT_SAMPLES - local);
+            current[(int) (index >>> SEGMENT_SHIFT)].put(local, src, offset, count);
+            index += count;
+            offset += count;
+            length -= count;
+        }
+    }
+
+    /**
+     * Writes all modified pages to the file.
+     */
+    public void force() {
+        views();
+        for (MappedByteBuffer segment : segments) {
+            segment.force();
+        }
+    }
+
+    /**
+     * Closes the channel of the file and detaches the buffer from its mapping, which is unmapped once it is
+     * no longer reachable. Modified pages are written back by the operating system; call {@link #force()} first
+     * to make sure they reach the storage device. Calling this method more than once has no effect.
+     */
+    @Override
+    public void close() throws IOException {
+        if (views == null) {
+            return;
+        }
+        detach();
+        channel.close();
+    }
+
+    private void detach() {
+        segments = null;
+        views = null;
+    }
+
+    private DoubleBuffer[] views() {
+        DoubleBuffer[] current = views;
+        if (current == null) {
+            throw new IllegalStateException("Mapped noise buffer has been closed.");
+        }
+        return current;
+    }
+}
@@ -0,0 +1,59 @@
+package io.github.zapolyarnydev.buffer;
+
+/**
+ * Contiguous storage for a 1D, 2D or 3D noise map.
+ * <p>
+ * Values are laid out row-major, exactly like the equivalent jagged array: the sample {@code (x, y, z)}
+ * is stored at {@code (x * height + y) * depth + z}. Unused dimensions have a length of 1.
+ */
+public interface NoiseBuffer {
+
+    int dimension();
+
+    int width();
+
+    int height();
+
+    int depth();
+
+    default long size() {
+        return (long) width() * height() * depth();
+    }
+
+    default long index(int x, int y, int z) {
+        return ((long) x * height() + y) * depth() + z;
+    }
+
+    /**
+     * The length of one row, the run of samples along the last dimension stored next to each other.
+     */
+    default int rowLength() {
+        return switch (dimension()) {
+            case 1 -> width();
+            case 2 -> height();
+            default -> depth();
+        };
+    }
+
+    double get(long index);
+
+    void set(long index, double value);
+
+    /**
+     * Copies {@code length} consecutive samples starting at {@code index} into {@code dst}.
+     */
+    default void getRow(long index, double[] dst, int offset, int length) {
+        for (int i = 0; i < length; i++) {
+            dst[offset + i] = get(index + i);
+        }
+    }
+
+    /**
+     * Stores {@code length} samples from {@code src} at consecutive positions starting at {@code index}.
+     */
+    default void setRow(long index, double[] src, int offset, int length) {
+        for (int i = 0; i < length; i++) {
+            set(index + i, src[offset + i]);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package io.github.zapolyarnydev.buffer;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Hands out {@link OffHeapNoiseBuffer}s and takes them back for reuse, so that an application that keeps replacing
+ * off-heap maps, such as a server generating chunks, allocates direct memory only for the maps it holds at once
+ * instead of waiting for the garbage collector to free the memory of the maps it dropped.
+ * <p>
+ * A buffer belongs to the caller from {@link #acquire} until {@link #release}. After its release it belongs to the pool:
+ * neither the buffer nor any view of it may be used any more, since the next {@code acquire} of the same shape hands
+ * it out again, still holding the samples of its previous use. The pool keeps at most {@code maxIdle} released
+ * buffers; buffers released beyond that, and those dropped by {@link #clear()}, are freed by the garbage collector.
+ * <pre>{@code
+ * OffHeapBufferPool pool = new OffHeapBufferPool(256);
+ * OffHeapNoiseBuffer chunk = pool.acquire(32, 32, 256);
+ * generator.generateForMap(new NoiseMap(chunk), noise, window, 0, 1);
+ * ...
+ * pool.release(chunk);
+ * }</pre>
+ * The pool is thread-safe.
+ */
+public final class OffHeapBufferPool {
+
+    private final int maxIdle;
+    private final Map<Shape, ArrayDeque<OffHeapNoiseBuffer>> idle = new HashMap<>();
+    private int idleCount;
+
+    /**
+     * @param maxIdle The maximum number of released buffers kept for reuse.
+     */
+    public OffHeapBufferPool(int maxIdle) {
+        if (maxIdle < 0) {
+            throw new IllegalArgumentException("Maximum number of idle buffers cannot be negative.");
+        }
+        this.maxIdle = maxIdle;
+    }
+
+    public OffHeapNoiseBuffer acquire(int width) {
+        return acquire(new Shape(1, width, 1, 1));
+    }
+
+    public OffHeapNoiseBuffer acquire(int width, int height) {
+        return acquire(new Shape(2, width, height, 1));
+    }
+
+    public OffHeapNoiseBuffer acquire(int width, int height, int depth) {
+        return acquire(new Shape(3, width, height, depth));
+    }
+
+    private OffHeapNoiseBuffer acquire(Shape shape) {
+        synchronized (idle) {
+            ArrayDeque<OffHeapNoiseBuffer> buffers = idle.get(shape);
+            OffHeapNoiseBuffer buffer = buffers == null ? null : buffers.pollLast();
+            if (buffer != null) {
+                idleCount--;
+                buffer.idle = false;
+                return buffer;
+            }
+        }
+        OffHeapNoiseBuffer buffer = new OffHeapNoiseBuffer(shape.dimension(), shape.width(), shape.height(), shape.depth());
+        buffer.pool = this;
+        return buffer;
+    }
+
+    /**
+     * Returns a buffer acquired from this pool. Neither the buffer nor its views may be used afterwards.
+     *
+     * @throws IllegalArgumentException If the buffer was not acquired from this pool.
+     * @throws IllegalStateException    If the buffer has already been released.
+     */
+    public void release(OffHeapNoiseBuffer buffer) {
+        synchronized (idle) {
+            if (buffer == null || buffer.pool != this) {
+                throw new IllegalArgumentException("Buffer was not acquired from this pool.");
+            }
+            if (buffer.idle) {
+                throw new IllegalStateException("Buffer has already been released.");
+            }
+            if (idleCount == maxIdle) {
+                buffer.pool = null;
+                return;
+            }
+            idle.computeIfAbsent(new Shape(buffer.dimension(), buffer.width(), buffer.height(), buffer.depth()),
+                    shape -> new ArrayDeque<>()).addLast(buffer);
+            buffer.idle = true;
+            idleCount++;
+        }
+    }
+
+    /**
+     * The number of released buffers kept for reuse.
+     */
+    public int idleCount() {
+        synchronized (idle) {
+            return idleCount;
+        }
+    }
+
+    /**
+     * Drops every released buffer, leaving its memory to the garbage collector.
+     */
+    public void clear() {
+        synchronized (idle) {
+            for (ArrayDeque<OffHeapNoiseBuffer> buffers : idle.values()) {
+                for (OffHeapNoiseBuffer buffer : buffers) {
+                    buffer.pool = null;
+                }
+            }
+            idle.clear();
+            idleCount = 0;
+        }
+    }
+
+    private record Shape(int dimension, int width, int height, int depth) {
+    }
+}
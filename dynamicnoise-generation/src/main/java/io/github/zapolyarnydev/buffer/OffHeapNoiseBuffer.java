@@ -0,0 +1,90 @@
+package io.github.zapolyarnydev.buffer;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+
+/**
+ * {@link NoiseBuffer} that keeps its samples outside the Java heap, in a direct {@link ByteBuffer}
+ * of native-order doubles. Off-heap maps are not scanned or moved by the garbage collector,
+ * and {@link #byteBuffer()} can be handed to native or OpenGL upload code without copying.
+ * <p>
+ * The memory is owned by the direct buffer and freed by the garbage collector once neither this buffer nor any
+ * view returned by {@link #byteBuffer()} or {@link #doubleBuffer()} is reachable, so native code that keeps the
+ * address must keep a view reachable as well. Applications that keep replacing off-heap maps should take them from
+ * an {@link OffHeapBufferPool}, which hands released buffers out again instead of allocating new memory.
+ * A buffer can hold at most {@code Integer.MAX_VALUE / 8} samples.
+ * <pre>{@code
+ * OffHeapNoiseBuffer buffer = new OffHeapNoiseBuffer(512, 512, 64);
+ * generator.generateForMap(new NoiseMap(buffer), noise, 0, 1);
+ * upload(buffer.byteBuffer());
+ * }</pre>
+ */
+public final class OffHeapNoiseBuffer extends AbstractNoiseBuffer {
+
+    private final ByteBuffer bytes;
+    private final DoubleBuffer doubles;
+
+    /**
+     * The pool the buffer was acquired from, and whether it has been released to it. Guarded by the pool.
+     */
+    OffHeapBufferPool pool;
+    boolean idle;
+
+    public OffHeapNoiseBuffer(int width) {
+        this(1, width, 1, 1);
+    }
+
+    public OffHeapNoiseBuffer(int width, int height) {
+        this(2, width, height, 1);
+    }
+
+    public OffHeapNoiseBuffer(int width, int height, int depth) {
+        this(3, width, height, depth);
+    }
+
+    OffHeapNoiseBuffer(int dimension, int width, int height, int depth) {
+        super(dimension, width, height, depth);
+        long size = (long) width * height * depth;
+        if (size > Integer.MAX_VALUE / Double.BYTES) {
+            throw new IllegalArgumentException("Off-heap buffer of " + size + " samples exceeds " + Integer.MAX_VALUE / Double.BYTES + " samples.");
+        }
+        this.bytes = ByteBuffer.allocateDirect((int) size * Double.BYTES).order(ByteOrder.nativeOrder());
+        this.doubles = bytes.asDoubleBuffer();
+    }
+
+    /**
+     * The native-order backing memory, positioned at 0 with the limit at the end of the map.
+     * The returned buffer shares memory with this one, so no samples are copied.
+     */
+    public ByteBuffer byteBuffer() {
+        return bytes.duplicate().order(ByteOrder.nativeOrder());
+    }
+
+    /**
+     * A double view of the backing memory, sharing memory with this buffer.
+     */
+    public DoubleBuffer doubleBuffer() {
+        return doubles.duplicate();
+    }
+
+    @Override
+    public double get(long index) {
+        return doubles.get((int) index);
+    }
+
+    @Override
+    public void set(long index, double value) {
+        doubles.put((int) index, value);
+    }
+
+    @Override
+    public void getRow(long index, double[] dst, int offset, int length) {
+        doubles.get((int) index, dst, offset, length);
+    }
+
+    @Override
+    public void setRow(long index, double[] src, int offset, int length) {
+        doubles.put((int) index, src, offset, length);
+    }
+}
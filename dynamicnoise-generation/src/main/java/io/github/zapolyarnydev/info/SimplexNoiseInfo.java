@@ -1,5 +1,12 @@
 package io.github.zapolyarnydev.info;
 
-public record SimplexNoiseInfo(int seed, int scale, int octaves, double lacunarity, double persistence)  {
+/**
+ * @param legacy Whether to generate the improved Perlin noise that earlier versions produced for simplex settings,
+ *               instead of simplex noise.
+ */
+public record SimplexNoiseInfo(int seed, int scale, int octaves, double lacunarity, double persistence, boolean legacy)  {
 
+    public SimplexNoiseInfo(int seed, int scale, int octaves, double lacunarity, double persistence) {
+        this(seed, scale, octaves, lacunarity, persistence, false);
+    }
 }
@@ -1,17 +1,120 @@
 package io.github.zapolyarnydev.thread;
 
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
+/**
+ * Runs every task on a new virtual thread, with an optional limit on the number of tasks running at once.
+ * <p>
+ * Generation is CPU-bound, so running more tasks than there are cores only makes them compete for the carrier threads.
+ * With a limit, tasks beyond it wait in a queue and a thread is only started once a running task finishes,
+ * so a burst of requests does not create a thread per request. {@link #shared()} is limited to the number of cores
+ * and used by the asynchronous methods of the library by default. Tasks of a limited executor should not block
+ * waiting for other tasks of the same executor, which may never get a slot.
+ */
 public class VirtualThreadExecutor implements Executor {
+
     private final ThreadFactory threadFactory;
+    private final int maxConcurrency;
+    private final Queue<Runnable> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger running = new AtomicInteger();
 
+    /**
+     * Creates an executor that starts a virtual thread for every task immediately.
+     */
     public VirtualThreadExecutor() {
-        this.threadFactory = Thread.ofVirtual().factory();
+        this(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Creates an executor that runs at most {@code maxConcurrency} tasks at once.
+     *
+     * @param maxConcurrency The maximum number of tasks running at the same time.
+     * @throws IllegalArgumentException If {@code maxConcurrency} is not positive.
+     */
+    public VirtualThreadExecutor(int maxConcurrency) {
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("Concurrency limit must be positive.");
+        }
+        this.threadFactory = Thread.ofVirtual().name("dynamicnoise-", 0).factory();
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    /**
+     * Returns the executor shared by the asynchronous methods of the library, limited to the number of available cores.
+     *
+     * @return The shared executor.
+     */
+    public static VirtualThreadExecutor shared() {
+        return Shared.INSTANCE;
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    /**
+     * Returns the number of tasks waiting for a running task to finish.
+     *
+     * @return The number of queued tasks.
+     */
+    public int getQueuedTasks() {
+        return queue.size();
     }
 
     @Override
     public void execute(Runnable command) {
-        threadFactory.newThread(command).start();
+        if (command == null) {
+            throw new NullPointerException("Task cannot be null.");
+        }
+        if (maxConcurrency == Integer.MAX_VALUE) {
+            threadFactory.newThread(command).start();
+            return;
+        }
+        queue.offer(command);
+        drain();
+    }
+
+    /**
+     * Starts queued tasks while there are free slots. Called after a task is queued and after a task finishes,
+     * so a queued task is never left waiting while no task runs.
+     */
+    private void drain() {
+        while (!queue.isEmpty()) {
+            int count = running.get();
+            if (count >= maxConcurrency) {
+                return;
+            }
+            if (!running.compareAndSet(count, count + 1)) {
+                continue;
+            }
+            Runnable task = queue.poll();
+            if (task == null) {
+                running.decrementAndGet();
+                continue;
+            }
+            try {
+                threadFactory.newThread(() -> run(task)).start();
+            } catch (RuntimeException | Error e) {
+                running.decrementAndGet();
+                throw e;
+            }
+        }
+    }
+
+    private void run(Runnable task) {
+        try {
+            task.run();
+        } finally {
+            running.decrementAndGet();
+            drain();
+        }
+    }
+
+    private static final class Shared {
+        private static final VirtualThreadExecutor INSTANCE = new VirtualThreadExecutor(Runtime.getRuntime().availableProcessors());
     }
 }
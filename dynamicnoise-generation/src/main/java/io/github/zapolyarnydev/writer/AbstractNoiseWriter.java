@@ -0,0 +1,258 @@
+package io.github.zapolyarnydev.writer;
+
+import io.github.zapolyarnydev.buffer.DoubleNoiseBuffer;
+import io.github.zapolyarnydev.buffer.FloatNoiseBuffer;
+import io.github.zapolyarnydev.buffer.NoiseBuffer;
+
+import java.lang.reflect.Array;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Base class for writers whose samples depend only on their coordinates.
+ * It walks jagged arrays and {@link NoiseBuffer}s row by row and leaves the noise itself to {@link #fillRow}.
+ * <p>
+ * Float targets are filled through a row-sized double scratch array: samples are evaluated in double precision
+ * and rounded once when stored, so every float equals the corresponding double sample rounded to nearest.
+ * <p>
+ * Every write fills its rows with one {@link NoiseScratch}, taken from {@link #takeScratch()}.
+ */
+public abstract class AbstractNoiseWriter implements NoiseWriter {
+
+    /**
+     * The number of samples evaluated at once when a 1D map is filled through a scratch row,
+     * or when a row is filled and scanned for its range or reported to a progress.
+     */
+    private static final int CHUNK_LENGTH = 4096;
+
+    /**
+     * The scratch of the last write that ended, handed to the next one.
+     */
+    private final AtomicReference<NoiseScratch> spare = new AtomicReference<>();
+
+    @Override
+    public void write(Object array) {
+        write(array, 0, array instanceof NoiseBuffer buffer ? buffer.width() : Array.getLength(array));
+    }
+
+    @Override
+    public void write(Object array, int from, int to) {
+        write(array, NoiseWindow.ORIGIN, from, to);
+    }
+
+    @Override
+    public void write(Object array, NoiseWindow window, int from, int to) {
+        write(array, window, from, to, null);
+    }
+
+    @Override
+    public void write(Object array, NoiseWindow window, int from, int to, NoiseRange range) {
+        write(array, window, from, to, range, null);
+    }
+
+    @Override
+    public void write(Object array, NoiseWindow window, int from, int to, NoiseRange range, NoiseProgress progress) {
+        NoiseScratch scratch = takeScratch();
+        try {
+            write(array, window, from, to, range, progress, scratch);
+        } finally {
+            keepScratch(scratch);
+        }
+    }
+
+    /**
+     * Returns the spare scratch of this writer, or a new one if another thread is using it.
+     * Pass it to {@link #keepScratch} once it is no longer used.
+     */
+    protected final NoiseScratch takeScratch() {
+        NoiseScratch scratch = spare.getAndSet(null);
+        return scratch != null ? scratch : new NoiseScratch();
+    }
+
+    /**
+     * Keeps {@code scratch} as the spare for the next {@link #takeScratch()}.
+     */
+    protected final void keepScratch(NoiseScratch scratch) {
+        spare.set(scratch);
+    }
+
+    private void write(Object array, NoiseWindow window, int from, int to, NoiseRange range, NoiseProgress progress, NoiseScratch scratch) {
+        switch (array) {
+            case double[] doubles -> fill(1, window, 0, 0, from, doubles, from, to - from, range, progress, scratch);
+            case double[][] doubles -> {
+                for (int x = from; x < to; x++) {
+                    fill(2, window, x, 0, 0, doubles[x], 0, doubles[x].length, range, progress, scratch);
+                }
+            }
+            case double[][][] doubles -> {
+                for (int x = from; x < to; x++) {
+                    for (int y = 0; y < doubles[x].length; y++) {
+                        fill(3, window, x, y, 0, doubles[x][y], 0, doubles[x][y].length, range, progress, scratch);
+                    }
+                }
+            }
+            case float[] floats -> write1D(floats, window, from, to, range, progress, scratch);
+            case float[][] floats -> {
+                double[] row = new double[0];
+                for (int x = from; x < to; x++) {
+                    row = scratch(row, floats[x].length);
+                    fill(2, window, x, 0, 0, row, 0, floats[x].length, range, progress, scratch);
+                    narrow(row, floats[x], 0, floats[x].length);
+                }
+            }
+            case float[][][] floats -> {
+                double[] row = new double[0];
+                for (int x = from; x < to; x++) {
+                    for (int y = 0; y < floats[x].length; y++) {
+                        row = scratch(row, floats[x][y].length);
+                        fill(3, window, x, y, 0, row, 0, floats[x][y].length, range, progress, scratch);
+                        narrow(row, floats[x][y], 0, floats[x][y].length);
+                    }
+                }
+            }
+            case DoubleNoiseBuffer buffer -> writeBuffer(buffer, window, from, to, range, progress, scratch);
+            case FloatNoiseBuffer buffer -> writeFloatBuffer(buffer, window, from, to, range, progress, scratch);
+            case NoiseBuffer buffer -> writeGenericBuffer(buffer, window, from, to, range, progress, scratch);
+            case null, default ->
+                    throw new IllegalArgumentException("Unsupported array type: " + (array == null ? null : array.getClass().getName()));
+        }
+    }
+
+    private void writeBuffer(DoubleNoiseBuffer buffer, NoiseWindow window, int from, int to, NoiseRange range, NoiseProgress progress, NoiseScratch scratch) {
+        double[] data = buffer.data();
+        switch (buffer.dimension()) {
+            case 1 -> fill(1, window, 0, 0, from, data, from, to - from, range, progress, scratch);
+            case 2 -> {
+                int height = buffer.height();
+                for (int x = from; x < to; x++) {
+                    fill(2, window, x, 0, 0, data, x * height, height, range, progress, scratch);
+                }
+            }
+            default -> {
+                int height = buffer.height();
+                int depth = buffer.depth();
+                for (int x = from; x < to; x++) {
+                    for (int y = 0; y < height; y++) {
+                        fill(3, window, x, y, 0, data, (x * height + y) * depth, depth, range, progress, scratch);
+                    }
+                }
+            }
+        }
+    }
+
+    private void writeFloatBuffer(FloatNoiseBuffer buffer, NoiseWindow window, int from, int to, NoiseRange range, NoiseProgress progress, NoiseScratch scratch) {
+        float[] data = buffer.data();
+        if (buffer.dimension() == 1) {
+            write1D(data, window, from, to, range, progress, scratch);
+            return;
+        }
+        int height = buffer.height();
+        int depth = buffer.depth();
+        int rows = buffer.dimension() == 2 ? 1 : height;
+        double[] row = new double[buffer.rowLength()];
+        for (int x = from; x < to; x++) {
+            for (int y = 0; y < rows; y++) {
+                fill(buffer.dimension(), window, x, y, 0, row, 0, row.length, range, progress, scratch);
+                narrow(row, data, (x * height + y) * depth, row.length);
+            }
+        }
+    }
+
+    private void write1D(float[] out, NoiseWindow window, int from, int to, NoiseRange range, NoiseProgress progress, NoiseScratch scratch) {
+        double[] row = new double[Math.min(CHUNK_LENGTH, Math.max(0, to - from))];
+        for (int start = from; start < to; start += row.length) {
+            int length = Math.min(row.length, to - start);
+            fill(1, window, 0, 0, start, row, 0, length, range, progress, scratch);
+            narrow(row, out, start, length);
+        }
+    }
+
+    /**
+     * Fills a row and includes it in {@code range}, if any, in pieces small enough to still be in cache.
+     * With a progress, every piece is a checkpoint, so even a long 1D row can be stopped part way.
+     */
+    private void fill(int dimension, NoiseWindow window, int x, int y, int start, double[] out, int offset, int length, NoiseRange range, NoiseProgress progress, NoiseScratch scratch) {
+        if (range == null && progress == null) {
+            fillRow(dimension, window, x, y, start, out, offset, length, scratch);
+            return;
+        }
+        for (int done = 0; done < length; done += CHUNK_LENGTH) {
+            int count = Math.min(CHUNK_LENGTH, length - done);
+            if (progress != null) {
+                progress.checkpoint();
+            }
+            fillRow(dimension, window, x, y, start + done, out, offset + done, count, scratch);
+            if (range != null) {
+                range.include(out, offset + done, count);
+            }
+            if (progress != null) {
+                progress.advance(count);
+            }
+        }
+    }
+
+    private static double[] scratch(double[] row, int length) {
+        return row.length >= length ? row : new double[length];
+    }
+
+    private static void narrow(double[] row, float[] out, int offset, int length) {
+        for (int i = 0; i < length; i++) {
+            out[offset + i] = (float) row[i];
+        }
+    }
+
+    private void writeGenericBuffer(NoiseBuffer buffer, NoiseWindow window, int from, int to, NoiseRange range, NoiseProgress progress, NoiseScratch scratch) {
+        int dimension = buffer.dimension();
+        if (dimension == 1) {
+            double[] row = new double[Math.min(CHUNK_LENGTH, Math.max(0, to - from))];
+            for (int start = from; start < to; start += row.length) {
+                int length = Math.min(row.length, to - start);
+                fill(1, window, 0, 0, start, row, 0, length, range, progress, scratch);
+                buffer.setRow(start, row, 0, length);
+            }
+            return;
+        }
+        double[] row = new double[buffer.rowLength()];
+        int rows = dimension == 2 ? 1 : buffer.height();
+        for (int x = from; x < to; x++) {
+            for (int y = 0; y < rows; y++) {
+                fill(dimension, window, x, y, 0, row, 0, row.length, range, progress, scratch);
+                buffer.setRow(buffer.index(x, y, 0), row, 0, row.length);
+            }
+        }
+    }
+
+    /**
+     * The bounds of a fractal sum of {@code octaves} octaves with the amplitudes 1, {@code persistence},
+     * {@code persistence}<sup>2</sup>, ... when every octave lies in {@code [min, max]}.
+     */
+    protected static NoiseRange fractalBounds(double min, double max, int octaves, double persistence) {
+        double lower = 0;
+        double upper = 0;
+        double amplitude = 1;
+        for (int octave = 0; octave < octaves; octave++) {
+            lower += amplitude >= 0 ? amplitude * min : amplitude * max;
+            upper += amplitude >= 0 ? amplitude * max : amplitude * min;
+            amplitude *= persistence;
+        }
+        return NoiseRange.of(lower, upper);
+    }
+
+    /**
+     * Fills {@code length} samples of one row, the run along the last dimension of the map.
+     * For a 1D map the row is the x axis itself; for a 2D map {@code x} is fixed and y varies;
+     * for a 3D map {@code x} and {@code y} are fixed and z varies. Cell indices are converted to
+     * world coordinates with {@code window}, e.g. {@code window.y(start + i)} for the i-th sample of a 2D row.
+     *
+     * @param dimension The dimension of the map (1, 2 or 3).
+     * @param window    The placement of the map in world space.
+     * @param x         The fixed x index (2D and 3D).
+     * @param y         The fixed y index (3D).
+     * @param start     The index of the first sample along the varying axis.
+     * @param out       The destination array.
+     * @param offset    The index in {@code out} of the first sample.
+     * @param length    The number of samples to write.
+     * @param scratch   The working memory of the write, see {@link NoiseScratch}.
+     */
+    protected abstract void fillRow(int dimension, NoiseWindow window, int x, int y, int start, double[] out, int offset, int length,
+                                    NoiseScratch scratch);
+}
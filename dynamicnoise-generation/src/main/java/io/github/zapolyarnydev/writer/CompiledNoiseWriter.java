@@ -0,0 +1,330 @@
+package io.github.zapolyarnydev.writer;
+
+import io.github.zapolyarnydev.writer.NoiseOperation.Abs;
+import io.github.zapolyarnydev.writer.NoiseOperation.Add;
+import io.github.zapolyarnydev.writer.NoiseOperation.Clamp;
+import io.github.zapolyarnydev.writer.NoiseOperation.Constant;
+import io.github.zapolyarnydev.writer.NoiseOperation.Multiply;
+import io.github.zapolyarnydev.writer.NoiseOperation.Remap;
+import io.github.zapolyarnydev.writer.NoiseOperation.Source;
+import io.github.zapolyarnydev.writer.NoiseOperation.Warp;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Writes the result of a program of {@link NoiseOperation}s: the value of its last slot.
+ * <p>
+ * Rows are evaluated in blocks. For each block every slot is computed once, operation by operation, into a
+ * scratch array of the block, so sources are filled row-coherently and a slot used by several operations is
+ * not recomputed. The input of a {@link Warp} is sampled at moved coordinates, point by point, and only
+ * evaluated that way; its displacements are computed with the block.
+ * <p>
+ * {@link #sample} and the inputs of warps are evaluated the same way for a single point: every slot the point needs
+ * is computed once, in slot order, into a scratch array of the point. They return the same values as a map.
+ * A sample borrows the spare {@link NoiseScratch} of the writer, so only samples taken concurrently with it allocate.
+ */
+public final class CompiledNoiseWriter extends AbstractNoiseWriter {
+
+    /**
+     * The number of samples of a row evaluated together.
+     */
+    private static final int BLOCK_LENGTH = 256;
+
+    private final NoiseOperation[] program;
+    private final int root;
+
+    /**
+     * Whether a slot is computed for whole blocks; slots only read by warps are sampled point by point.
+     */
+    private final boolean[] blockSlots;
+
+    /**
+     * The slots computed to evaluate each slot at a single point, in slot order: the slot and its inputs,
+     * except the inputs of warps, which are evaluated at the moved point with a scratch array of their own.
+     */
+    private final int[][] pointSlots;
+
+    /**
+     * The number of scratch arrays a point evaluation of the root needs: one, plus one per level of nested warps.
+     */
+    private final int pointDepth;
+
+    /**
+     * @param program The operations in slot order. The inputs of an operation must be earlier slots.
+     */
+    public CompiledNoiseWriter(List<NoiseOperation> program) {
+        if (program.isEmpty()) {
+            throw new IllegalArgumentException("A noise program needs at least one operation.");
+        }
+        this.program = program.toArray(NoiseOperation[]::new);
+        this.root = this.program.length - 1;
+        for (int slot = 0; slot < this.program.length; slot++) {
+            for (int input : inputs(this.program[slot])) {
+                if (input >= slot || input < -1) {
+                    throw new IllegalArgumentException("Operation " + slot + " reads slot " + input + ", which is not computed before it.");
+                }
+            }
+        }
+        this.blockSlots = new boolean[this.program.length];
+        markBlockSlots(root);
+        this.pointSlots = new int[this.program.length][];
+        int[] depths = new int[this.program.length];
+        for (int slot = 0; slot < this.program.length; slot++) {
+            boolean[] needed = new boolean[slot + 1];
+            markPointSlots(slot, needed);
+            pointSlots[slot] = IntStream.range(0, needed.length).filter(i -> needed[i]).toArray();
+            depths[slot] = 1;
+            for (int needs : pointSlots[slot]) {
+                if (this.program[needs] instanceof Warp warp) {
+                    depths[slot] = Math.max(depths[slot], 1 + depths[warp.input()]);
+                }
+            }
+        }
+        this.pointDepth = depths[root];
+    }
+
+    private void markPointSlots(int slot, boolean[] needed) {
+        if (slot < 0 || needed[slot]) {
+            return;
+        }
+        needed[slot] = true;
+        for (int input : inputs(program[slot])) {
+            if (!(program[slot] instanceof Warp warp) || input != warp.input()) {
+                markPointSlots(input, needed);
+            }
+        }
+    }
+
+    private void markBlockSlots(int slot) {
+        if (slot < 0 || blockSlots[slot]) {
+            return;
+        }
+        blockSlots[slot] = true;
+        if (program[slot] instanceof Warp warp) {
+            markBlockSlots(warp.dx());
+            markBlockSlots(warp.dy());
+            markBlockSlots(warp.dz());
+            return;
+        }
+        for (int input : inputs(program[slot])) {
+            markBlockSlots(input);
+        }
+    }
+
+    private static int[] inputs(NoiseOperation operation) {
+        return switch (operation) {
+            case Source source -> new int[0];
+            case Constant constant -> new int[0];
+            case Add add -> new int[]{add.left(), add.right()};
+            case Multiply multiply -> new int[]{multiply.left(), multiply.right()};
+            case Abs abs -> new int[]{abs.input()};
+            case Clamp clamp -> new int[]{clamp.input()};
+            case Remap remap -> new int[]{remap.input()};
+            case Warp warp -> new int[]{warp.input(), warp.dx(), warp.dy(), warp.dz()};
+        };
+    }
+
+    @Override
+    protected void fillRow(int dimension, NoiseWindow window, int x, int y, int start, double[] out, int offset, int length,
+                           NoiseScratch scratch) {
+        Scratch programScratch = scratch.get(this, Scratch::new);
+        double[][] values = programScratch.blocks;
+        double[][] points = programScratch.points;
+        for (int block = 0; block < length; block += BLOCK_LENGTH) {
+            int count = Math.min(BLOCK_LENGTH, length - block);
+            for (int slot = 0; slot < program.length; slot++) {
+                if (blockSlots[slot]) {
+                    computeBlock(slot, values, points, scratch, dimension, window, x, y, start + block, count);
+                }
+            }
+            System.arraycopy(values[root], 0, out, offset + block, count);
+        }
+    }
+
+    private void computeBlock(int slot, double[][] values, double[][] points, NoiseScratch scratch, int dimension,
+                              NoiseWindow window, int x, int y, int first, int count) {
+        double[] out = values[slot];
+        switch (program[slot]) {
+            case Source source -> source.writer().fillRow(dimension, window, x, y, first, out, 0, count, scratch);
+            case Constant constant -> Arrays.fill(out, 0, count, constant.value());
+            case Add add -> {
+                double[] left = values[add.left()];
+                double[] right = values[add.right()];
+                for (int i = 0; i < count; i++) {
+                    out[i] = left[i] + right[i];
+                }
+            }
+            case Multiply multiply -> {
+                double[] left = values[multiply.left()];
+                double[] right = values[multiply.right()];
+                for (int i = 0; i < count; i++) {
+                    out[i] = left[i] * right[i];
+                }
+            }
+            case Abs abs -> {
+                double[] input = values[abs.input()];
+                for (int i = 0; i < count; i++) {
+                    out[i] = Math.abs(input[i]);
+                }
+            }
+            case Clamp clamp -> {
+                double[] input = values[clamp.input()];
+                for (int i = 0; i < count; i++) {
+                    out[i] = Math.min(clamp.max(), Math.max(clamp.min(), input[i]));
+                }
+            }
+            case Remap remap -> {
+                double[] input = values[remap.input()];
+                for (int i = 0; i < count; i++) {
+                    out[i] = remap.toMin() + (input[i] - remap.fromMin()) * remap.factor();
+                }
+            }
+            case Warp warp -> {
+                double strength = warp.strength();
+                for (int i = 0; i < count; i++) {
+                    double px = dimension == 1 ? window.x(first + i) : window.x(x);
+                    double py = dimension == 1 ? 0 : dimension == 2 ? window.y(first + i) : window.y(y);
+                    double pz = dimension == 3 ? window.z(first + i) : 0;
+                    if (warp.dx() >= 0) {
+                        px += strength * values[warp.dx()][i];
+                    }
+                    if (warp.dy() >= 0) {
+                        py += strength * values[warp.dy()][i];
+                    }
+                    if (warp.dz() >= 0) {
+                        pz += strength * values[warp.dz()][i];
+                    }
+                    out[i] = evaluate(warp.input(), dimension, px, py, pz, points, 0);
+                }
+            }
+        }
+    }
+
+    /**
+     * Evaluates a slot at a single point of a map of the given dimension. Coordinates of unused axes are ignored.
+     * The slots of {@link #pointSlots} are computed into {@code scratch[depth]}, and the input of a warp is
+     * evaluated with {@code scratch[depth + 1]}.
+     */
+    private double evaluate(int slot, int dimension, double x, double y, double z, double[][] scratch, int depth) {
+        double[] values = scratch[depth];
+        for (int needs : pointSlots[slot]) {
+            values[needs] = switch (program[needs]) {
+                case Source source -> switch (dimension) {
+                    case 1 -> source.writer().sample(x);
+                    case 2 -> source.writer().sample(x, y);
+                    default -> source.writer().sample(x, y, z);
+                };
+                case Constant constant -> constant.value();
+                case Add add -> values[add.left()] + values[add.right()];
+                case Multiply multiply -> values[multiply.left()] * values[multiply.right()];
+                case Abs abs -> Math.abs(values[abs.input()]);
+                case Clamp clamp -> Math.min(clamp.max(), Math.max(clamp.min(), values[clamp.input()]));
+                case Remap remap -> remap.toMin() + (values[remap.input()] - remap.fromMin()) * remap.factor();
+                case Warp warp -> {
+                    double px = warp.dx() < 0 ? x : x + warp.strength() * values[warp.dx()];
+                    double py = warp.dy() < 0 ? y : y + warp.strength() * values[warp.dy()];
+                    double pz = warp.dz() < 0 ? z : z + warp.strength() * values[warp.dz()];
+                    yield evaluate(warp.input(), dimension, px, py, pz, scratch, depth + 1);
+                }
+            };
+        }
+        return values[slot];
+    }
+
+    /**
+     * Propagates the bounds of the sources through the operations with interval arithmetic.
+     */
+    @Override
+    public NoiseRange bounds(int dimension) {
+        NoiseRange[] bounds = new NoiseRange[program.length];
+        for (int slot = 0; slot < program.length; slot++) {
+            bounds[slot] = switch (program[slot]) {
+                case Source source -> source.writer().bounds(dimension);
+                case Constant constant -> NoiseRange.of(constant.value(), constant.value());
+                case Add add -> NoiseRange.of(bounds[add.left()].min() + bounds[add.right()].min(),
+                        bounds[add.left()].max() + bounds[add.right()].max());
+                case Multiply multiply -> {
+                    NoiseRange left = bounds[multiply.left()];
+                    NoiseRange right = bounds[multiply.right()];
+                    NoiseRange range = new NoiseRange();
+                    range.include(left.min() * right.min());
+                    range.include(left.min() * right.max());
+                    range.include(left.max() * right.min());
+                    range.include(left.max() * right.max());
+                    yield range;
+                }
+                case Abs abs -> {
+                    NoiseRange input = bounds[abs.input()];
+                    if (input.min() >= 0) {
+                        yield input;
+                    }
+                    yield input.max() <= 0
+                            ? NoiseRange.of(-input.max(), -input.min())
+                            : NoiseRange.of(0, Math.max(-input.min(), input.max()));
+                }
+                case Clamp clamp -> NoiseRange.of(Math.min(clamp.max(), Math.max(clamp.min(), bounds[clamp.input()].min())),
+                        Math.min(clamp.max(), Math.max(clamp.min(), bounds[clamp.input()].max())));
+                case Remap remap -> {
+                    NoiseRange range = new NoiseRange();
+                    range.include(remap.toMin() + (bounds[remap.input()].min() - remap.fromMin()) * remap.factor());
+                    range.include(remap.toMin() + (bounds[remap.input()].max() - remap.fromMin()) * remap.factor());
+                    yield range;
+                }
+                case Warp warp -> bounds[warp.input()];
+            };
+        }
+        return bounds[root];
+    }
+
+    @Override
+    public double sample(double x) {
+        NoiseScratch scratch = takeScratch();
+        try {
+            return evaluate(root, 1, x, 0, 0, scratch.get(this, Scratch::new).points, 0);
+        } finally {
+            keepScratch(scratch);
+        }
+    }
+
+    @Override
+    public double sample(double x, double y) {
+        NoiseScratch scratch = takeScratch();
+        try {
+            return evaluate(root, 2, x, y, 0, scratch.get(this, Scratch::new).points, 0);
+        } finally {
+            keepScratch(scratch);
+        }
+    }
+
+    @Override
+    public double sample(double x, double y, double z) {
+        NoiseScratch scratch = takeScratch();
+        try {
+            return evaluate(root, 3, x, y, z, scratch.get(this, Scratch::new).points, 0);
+        } finally {
+            keepScratch(scratch);
+        }
+    }
+
+    /**
+     * The block arrays of the slots computed for whole blocks, and the {@link #pointDepth} point arrays of one
+     * value per slot. Every slot is computed before it is read, so they are not cleared between uses.
+     */
+    private static final class Scratch {
+
+        final double[][] blocks;
+        final double[][] points;
+
+        Scratch(CompiledNoiseWriter writer) {
+            blocks = new double[writer.program.length][];
+            for (int slot = 0; slot < blocks.length; slot++) {
+                if (writer.blockSlots[slot]) {
+                    blocks[slot] = new double[BLOCK_LENGTH];
+                }
+            }
+            points = new double[writer.pointDepth][writer.program.length];
+        }
+    }
+}
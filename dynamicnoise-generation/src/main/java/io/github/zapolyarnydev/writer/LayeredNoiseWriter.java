@@ -0,0 +1,91 @@
+package io.github.zapolyarnydev.writer;
+
+/**
+ * Writes the weighted sum of several noise layers, {@code weights[0] * layers[0] + weights[1] * layers[1] + ...}.
+ * <p>
+ * All layers are evaluated row by row into the target, through a small scratch block that stays in cache,
+ * so no intermediate map is allocated and the target is written once. The sum is taken in layer order, so
+ * a map equals the first layer scaled by its weight with the other layers added one by one.
+ */
+public final class LayeredNoiseWriter extends AbstractNoiseWriter {
+
+    /**
+     * The number of samples of a row evaluated per layer at once.
+     */
+    private static final int BLOCK_LENGTH = 1024;
+
+    private final AbstractNoiseWriter[] layers;
+    private final double[] weights;
+
+    public LayeredNoiseWriter(AbstractNoiseWriter[] layers, double[] weights) {
+        if (layers.length == 0 || layers.length != weights.length) {
+            throw new IllegalArgumentException("Expected one weight for each of at least one layer.");
+        }
+        this.layers = layers.clone();
+        this.weights = weights.clone();
+    }
+
+    @Override
+    protected void fillRow(int dimension, NoiseWindow window, int x, int y, int start, double[] out, int offset, int length,
+                           NoiseScratch scratch) {
+        double[] block = scratch.get(this, writer -> new double[BLOCK_LENGTH]);
+        for (int done = 0; done < length; done += block.length) {
+            int count = Math.min(block.length, length - done);
+            int first = offset + done;
+            layers[0].fillRow(dimension, window, x, y, start + done, out, first, count, scratch);
+            for (int i = 0; i < count; i++) {
+                out[first + i] *= weights[0];
+            }
+            for (int layer = 1; layer < layers.length; layer++) {
+                layers[layer].fillRow(dimension, window, x, y, start + done, block, 0, count, scratch);
+                double weight = weights[layer];
+                for (int i = 0; i < count; i++) {
+                    out[first + i] += block[i] * weight;
+                }
+            }
+        }
+    }
+
+    /**
+     * The sum of the bounds of the layers, scaled by their weights.
+     */
+    @Override
+    public NoiseRange bounds(int dimension) {
+        double min = 0;
+        double max = 0;
+        for (int layer = 0; layer < layers.length; layer++) {
+            NoiseRange bounds = layers[layer].bounds(dimension);
+            double weight = weights[layer];
+            min += weight >= 0 ? bounds.min() * weight : bounds.max() * weight;
+            max += weight >= 0 ? bounds.max() * weight : bounds.min() * weight;
+        }
+        return NoiseRange.of(min, max);
+    }
+
+    @Override
+    public double sample(double x) {
+        double value = layers[0].sample(x) * weights[0];
+        for (int layer = 1; layer < layers.length; layer++) {
+            value += layers[layer].sample(x) * weights[layer];
+        }
+        return value;
+    }
+
+    @Override
+    public double sample(double x, double y) {
+        double value = layers[0].sample(x, y) * weights[0];
+        for (int layer = 1; layer < layers.length; layer++) {
+            value += layers[layer].sample(x, y) * weights[layer];
+        }
+        return value;
+    }
+
+    @Override
+    public double sample(double x, double y, double z) {
+        double value = layers[0].sample(x, y, z) * weights[0];
+        for (int layer = 1; layer < layers.length; layer++) {
+            value += layers[layer].sample(x, y, z) * weights[layer];
+        }
+        return value;
+    }
+}
@@ -0,0 +1,43 @@
+package io.github.zapolyarnydev.writer;
+
+/**
+ * One step of a program run by {@link CompiledNoiseWriter}. Every operation produces the value of one slot,
+ * the index of the operation in the program, and refers to the slots of its inputs, which come before it.
+ * Operations are records, so equal operations on the same slots compare equal and can be shared.
+ */
+public sealed interface NoiseOperation {
+
+    /**
+     * The noise of a writer.
+     */
+    record Source(AbstractNoiseWriter writer) implements NoiseOperation {
+    }
+
+    record Constant(double value) implements NoiseOperation {
+    }
+
+    record Add(int left, int right) implements NoiseOperation {
+    }
+
+    record Multiply(int left, int right) implements NoiseOperation {
+    }
+
+    record Abs(int input) implements NoiseOperation {
+    }
+
+    record Clamp(int input, double min, double max) implements NoiseOperation {
+    }
+
+    /**
+     * Maps {@code fromMin} to {@code toMin} linearly, with the slope {@code factor}.
+     */
+    record Remap(int input, double fromMin, double toMin, double factor) implements NoiseOperation {
+    }
+
+    /**
+     * Evaluates {@code input} at coordinates moved by {@code strength} times the values of the displacement slots.
+     * A displacement slot of {@code -1} leaves its axis in place.
+     */
+    record Warp(int input, int dx, int dy, int dz, double strength) implements NoiseOperation {
+    }
+}
@@ -0,0 +1,75 @@
+package io.github.zapolyarnydev.writer;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The progress of a running write and a flag to stop it. Writers {@link #advance advance} it after every row,
+ * or every few thousand samples of a 1D map, and stop with a {@link CancellationException} at the next row once
+ * it is {@link #cancel cancelled}, so a large volume does not have to be filled to the end after nobody needs it.
+ * A progress is thread-safe and can be shared by the bands of a parallel write and by the maps of a batch.
+ */
+public final class NoiseProgress {
+
+    private final long total;
+    private final LongAdder completed = new LongAdder();
+    private volatile boolean cancelled;
+
+    /**
+     * @param total The number of samples that will be written.
+     */
+    public NoiseProgress(long total) {
+        if (total < 0) {
+            throw new IllegalArgumentException("Sample count cannot be negative.");
+        }
+        this.total = total;
+    }
+
+    public long total() {
+        return total;
+    }
+
+    /**
+     * The number of samples written so far.
+     */
+    public long completed() {
+        return completed.sum();
+    }
+
+    /**
+     * The fraction of the samples written so far, from 0 to 1. Nothing to write counts as done.
+     */
+    public double fraction() {
+        return total == 0 ? 1 : Math.min(1, (double) completed.sum() / total);
+    }
+
+    /**
+     * Asks the writes using this progress to stop at their next row. Rows already being written are finished,
+     * so the target is left partially written.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Throws if the progress has been cancelled. Called before every row.
+     *
+     * @throws CancellationException If {@link #cancel()} has been called.
+     */
+    public void checkpoint() {
+        if (cancelled) {
+            throw new CancellationException("Noise generation was cancelled.");
+        }
+    }
+
+    /**
+     * Records that {@code samples} more samples have been written.
+     */
+    public void advance(long samples) {
+        completed.add(samples);
+    }
+}
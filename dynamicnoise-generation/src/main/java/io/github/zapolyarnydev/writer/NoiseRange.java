@@ -0,0 +1,71 @@
+package io.github.zapolyarnydev.writer;
+
+/**
+ * The smallest and largest sample written so far. Writers update it while a row is still in cache,
+ * so a map can be normalized without scanning it again. A range is not thread-safe: parallel writes
+ * track one range per band and {@link #include(NoiseRange) merge} them.
+ */
+public final class NoiseRange {
+
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    public static NoiseRange of(double min, double max) {
+        NoiseRange range = new NoiseRange();
+        range.min = min;
+        range.max = max;
+        return range;
+    }
+
+    public double min() {
+        return min;
+    }
+
+    public double max() {
+        return max;
+    }
+
+    /**
+     * Whether no sample has been included yet.
+     */
+    public boolean isEmpty() {
+        return min > max;
+    }
+
+    public void include(double value) {
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    public void include(double[] values, int offset, int length) {
+        double min = this.min;
+        double max = this.max;
+        for (int i = offset; i < offset + length; i++) {
+            min = Math.min(min, values[i]);
+            max = Math.max(max, values[i]);
+        }
+        this.min = min;
+        this.max = max;
+    }
+
+    public void include(float[] values, int offset, int length) {
+        double min = this.min;
+        double max = this.max;
+        for (int i = offset; i < offset + length; i++) {
+            min = Math.min(min, values[i]);
+            max = Math.max(max, values[i]);
+        }
+        this.min = min;
+        this.max = max;
+    }
+
+    public void include(NoiseRange other) {
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    @Override
+    public String toString() {
+        return "NoiseRange[min=" + min + ", max=" + max + "]";
+    }
+}
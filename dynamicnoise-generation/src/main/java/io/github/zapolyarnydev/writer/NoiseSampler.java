@@ -0,0 +1,17 @@
+package io.github.zapolyarnydev.writer;
+
+/**
+ * Evaluates noise at single points, including all fractal octaves.
+ * <p>
+ * Coordinates are in map space: for a generated map of matching dimension, {@code map[x][y]} equals
+ * {@code sample(x, y)}. Non-integer coordinates sample between map cells. Implementations are immutable,
+ * safe to share between threads and do not allocate.
+ */
+public interface NoiseSampler {
+
+    double sample(double x);
+
+    double sample(double x, double y);
+
+    double sample(double x, double y, double z);
+}
@@ -0,0 +1,46 @@
+package io.github.zapolyarnydev.writer;
+
+import java.util.Arrays;
+import java.util.function.Function;
+
+/**
+ * The working memory of one write: the coordinate blocks, lattice terms and kernels that writers reuse from row
+ * to row instead of allocating them for every row.
+ * <p>
+ * {@link AbstractNoiseWriter} passes a single scratch to every {@link AbstractNoiseWriter#fillRow} of a write call,
+ * so a scratch is only used by one thread at a time and writers need no per-thread state. Each writer keeps its
+ * arrays under its own identity, which lets composed writers hand the scratch on to the writers they delegate rows
+ * to. After a write the writer keeps the scratch as a spare for its next one, so consecutive writes, e.g. of chunks
+ * generated one after another on fresh virtual threads, reuse the same arrays; only writes running concurrently on
+ * the same writer allocate a scratch of their own, which is dropped once they end.
+ */
+public final class NoiseScratch {
+
+    private Object[] owners = new Object[4];
+    private Object[] values = new Object[4];
+    private int size;
+
+    /**
+     * Returns the working memory of {@code owner}, created with {@code create} on its first use in this scratch.
+     *
+     * @param owner  The writer the memory belongs to, compared by identity.
+     * @param create Creates the memory for the owner.
+     */
+    @SuppressWarnings("unchecked")
+    public <O, T> T get(O owner, Function<? super O, ? extends T> create) {
+        for (int i = 0; i < size; i++) {
+            if (owners[i] == owner) {
+                return (T) values[i];
+            }
+        }
+        T value = create.apply(owner);
+        if (size == owners.length) {
+            owners = Arrays.copyOf(owners, size * 2);
+            values = Arrays.copyOf(values, size * 2);
+        }
+        owners[size] = owner;
+        values[size] = value;
+        size++;
+        return value;
+    }
+}
@@ -0,0 +1,61 @@
+package io.github.zapolyarnydev.writer;
+
+/**
+ * Places a map in world space: the cell {@code [i][j][k]} of the map is sampled at
+ * {@code (originX + i * step, originY + j * step, originZ + k * step)}.
+ * <p>
+ * Maps generated with windows that continue each other line up without seams, so an infinite world can be
+ * generated chunk by chunk. For a chunk of {@code size} cells at chunk coordinates {@code (cx, cz)}:
+ * <pre>{@code
+ * NoiseWindow window = NoiseWindow.at(cx * size, cz * size);
+ * }</pre>
+ *
+ * @param originX The world x coordinate of the first cell.
+ * @param originY The world y coordinate of the first cell.
+ * @param originZ The world z coordinate of the first cell.
+ * @param step    The world distance between neighbouring cells. Must be positive.
+ */
+public record NoiseWindow(double originX, double originY, double originZ, double step) {
+
+    /**
+     * The window of a map generated without a window: origin at zero and one world unit per cell.
+     */
+    public static final NoiseWindow ORIGIN = new NoiseWindow(0, 0, 0, 1);
+
+    public NoiseWindow {
+        if (!(step > 0) || Double.isInfinite(step)) {
+            throw new IllegalArgumentException("Window step must be positive and finite.");
+        }
+    }
+
+    public static NoiseWindow at(double originX) {
+        return new NoiseWindow(originX, 0, 0, 1);
+    }
+
+    public static NoiseWindow at(double originX, double originY) {
+        return new NoiseWindow(originX, originY, 0, 1);
+    }
+
+    public static NoiseWindow at(double originX, double originY, double originZ) {
+        return new NoiseWindow(originX, originY, originZ, 1);
+    }
+
+    public NoiseWindow withStep(double step) {
+        return new NoiseWindow(originX, originY, originZ, step);
+    }
+
+    /**
+     * The world x coordinate of the cell with the given first index.
+     */
+    public double x(int index) {
+        return originX + index * step;
+    }
+
+    public double y(int index) {
+        return originY + index * step;
+    }
+
+    public double z(int index) {
+        return originZ + index * step;
+    }
+}
@@ -1,6 +1,54 @@
 package io.github.zapolyarnydev.writer;
 
-public interface NoiseWriter {
+import io.github.zapolyarnydev.buffer.NoiseBuffer;
+
+import java.lang.reflect.Array;
+
+public interface NoiseWriter extends NoiseSampler {
 
     void write(Object array);
+
+    /**
+     * Writes only the band {@code [from, to)} of the first array index: entries of a 1D array,
+     * rows of a 2D array or slabs of a 3D array. The result is identical to the same band
+     * produced by {@link #write(Object)}, so disjoint bands may be written concurrently.
+     */
+    void write(Object array, int from, int to);
+
+    /**
+     * Writes the array as the part of the world described by {@code window}.
+     */
+    default void write(Object array, NoiseWindow window) {
+        write(array, window, 0, array instanceof NoiseBuffer buffer ? buffer.width() : Array.getLength(array));
+    }
+
+    /**
+     * Writes the band {@code [from, to)} of the array as the part of the world described by {@code window}.
+     */
+    void write(Object array, NoiseWindow window, int from, int to);
+
+    /**
+     * Writes the band {@code [from, to)} like {@link #write(Object, NoiseWindow, int, int)} and includes every
+     * sample written in {@code range}, so the band does not have to be scanned again to be normalized.
+     */
+    void write(Object array, NoiseWindow window, int from, int to, NoiseRange range);
+
+    /**
+     * Writes the band {@code [from, to)} like {@link #write(Object, NoiseWindow, int, int, NoiseRange)} and reports
+     * every row written to {@code progress}. Before each row the write checks whether the progress was cancelled
+     * and stops if it was, leaving the rest of the band unwritten. Either {@code range} or {@code progress} may be
+     * {@code null}.
+     *
+     * @throws java.util.concurrent.CancellationException If {@code progress} is cancelled before the band is written.
+     */
+    void write(Object array, NoiseWindow window, int from, int to, NoiseRange range, NoiseProgress progress);
+
+    /**
+     * The range that every sample of a map of the given dimension lies in, whatever its seed and coordinates.
+     * It is derived from the output range of the base noise and the amplitudes of the octaves, so it is the same
+     * for every part of the world and real maps rarely reach its ends.
+     *
+     * @param dimension The dimension of the map (1, 2 or 3).
+     */
+    NoiseRange bounds(int dimension);
 }
@@ -0,0 +1,74 @@
+package io.github.zapolyarnydev.writer;
+
+/**
+ * Writes the noise of another writer rescaled from its {@link NoiseWriter#bounds bounds} to
+ * {@code [lowerBound, upperBound]}, as every sample is written.
+ * <p>
+ * Unlike normalizing a map by its own minimum and maximum, the scaling does not depend on the map,
+ * so adjacent windows stay continuous and a map is normalized without a second pass.
+ * Samples are clamped to the target range in case the noise comes closer to its bounds than the rounding allows.
+ */
+public final class NormalizedNoiseWriter extends AbstractNoiseWriter {
+
+    private final AbstractNoiseWriter noise;
+    private final double lowerBound;
+    private final double upperBound;
+
+    /**
+     * The lower bound of the noise and the factor mapping it to the target range, indexed by dimension.
+     */
+    private final double[] noiseMin = new double[4];
+    private final double[] factor = new double[4];
+
+    public NormalizedNoiseWriter(AbstractNoiseWriter noise, double lowerBound, double upperBound) {
+        if (lowerBound > upperBound) {
+            throw new IllegalArgumentException("Lower bound cannot be greater than upper bound.");
+        }
+        this.noise = noise;
+        this.lowerBound = lowerBound;
+        this.upperBound = upperBound;
+        for (int dimension = 1; dimension <= 3; dimension++) {
+            NoiseRange bounds = noise.bounds(dimension);
+            if (!Double.isFinite(bounds.min()) || !Double.isFinite(bounds.max())) {
+                throw new IllegalArgumentException("Noise has no finite bounds: " + bounds);
+            }
+            noiseMin[dimension] = bounds.min();
+            factor[dimension] = bounds.max() > bounds.min() ? (upperBound - lowerBound) / (bounds.max() - bounds.min()) : 0;
+        }
+    }
+
+    @Override
+    protected void fillRow(int dimension, NoiseWindow window, int x, int y, int start, double[] out, int offset, int length,
+                           NoiseScratch scratch) {
+        noise.fillRow(dimension, window, x, y, start, out, offset, length, scratch);
+        double min = noiseMin[dimension];
+        double factor = this.factor[dimension];
+        for (int i = offset; i < offset + length; i++) {
+            out[i] = Math.min(upperBound, Math.max(lowerBound, lowerBound + (out[i] - min) * factor));
+        }
+    }
+
+    @Override
+    public NoiseRange bounds(int dimension) {
+        return NoiseRange.of(lowerBound, upperBound);
+    }
+
+    @Override
+    public double sample(double x) {
+        return rescale(1, noise.sample(x));
+    }
+
+    @Override
+    public double sample(double x, double y) {
+        return rescale(2, noise.sample(x, y));
+    }
+
+    @Override
+    public double sample(double x, double y, double z) {
+        return rescale(3, noise.sample(x, y, z));
+    }
+
+    private double rescale(int dimension, double value) {
+        return Math.min(upperBound, Math.max(lowerBound, lowerBound + (value - noiseMin[dimension]) * factor[dimension]));
+    }
+}
@@ -0,0 +1,311 @@
+package io.github.zapolyarnydev.writer.impl;
+
+import java.util.Arrays;
+import java.util.Random;
+import io.github.zapolyarnydev.algorithm.impl.ImprovedNoiseVectorKernel;
+import io.github.zapolyarnydev.algorithm.impl.PerlinNoiseAlgorithm;
+import io.github.zapolyarnydev.algorithm.impl.VectorSupport;
+import io.github.zapolyarnydev.info.SimplexNoiseInfo;
+import io.github.zapolyarnydev.writer.AbstractNoiseWriter;
+import io.github.zapolyarnydev.writer.NoiseRange;
+import io.github.zapolyarnydev.writer.NoiseScratch;
+import io.github.zapolyarnydev.writer.NoiseWindow;
+
+/**
+ * Writes the noise of {@link SimplexNoiseInfo#legacy()} settings: improved Perlin noise on a cubic lattice,
+ * which {@link SimplexNoiseWriter} produced before it implemented simplex noise.
+ */
+public class LegacySimplexNoiseWriter extends AbstractNoiseWriter {
+
+    /**
+     * The number of samples of a row evaluated together by the vectorized kernel.
+     */
+    private static final int BLOCK_LENGTH = 256;
+
+    private final double lacunarity;
+    private final int octaves;
+    private final double persistence;
+    private final double scale;
+
+    private final int[] perm;
+
+    public LegacySimplexNoiseWriter(SimplexNoiseInfo noiseInfo) {
+        Random random = new Random(noiseInfo.seed());
+        this.lacunarity = noiseInfo.lacunarity();
+        this.octaves = noiseInfo.octaves();
+        this.persistence = noiseInfo.persistence();
+        this.scale = noiseInfo.scale();
+
+        perm = new int[512];
+        int[] p = new int[256];
+
+        for (int i = 0; i < 256; i++) {
+            p[i] = i;
+        }
+
+        for (int i = 0; i < 256; i++) {
+            int j = random.nextInt(256);
+            int temp = p[i];
+            p[i] = p[j];
+            p[j] = temp;
+        }
+
+        for (int i = 0; i < 512; i++) {
+            perm[i] = p[i % 256];
+        }
+    }
+
+    /**
+     * Fills the row octave by octave in blocks. Every octave of a block evaluates the noise along a single axis:
+     * with the vectorized kernel when it is available, and with {@link #accumulateRow} for the points it leaves.
+     * The coordinates and the accumulation order are the same as in {@link #generateNoise}.
+     */
+    @Override
+    protected void fillRow(int dimension, NoiseWindow window, int x, int y, int start, double[] out, int offset, int length,
+                           NoiseScratch scratch) {
+        Scratch rowScratch = scratch.get(this, writer -> new Scratch(writer.perm));
+        double[] coords = rowScratch.coords;
+        double[] xs = rowScratch.xs;
+        double[] ys = rowScratch.ys;
+        double[] zs = rowScratch.zs;
+        double[] varying = dimension == 1 ? xs : dimension == 2 ? ys : zs;
+        ImprovedNoiseVectorKernel kernel = rowScratch.kernel;
+        double nx = dimension >= 2 ? window.x(x) / scale : 0;
+        double ny = dimension == 3 ? window.y(y) / scale : 0;
+        for (int block = 0; block < length; block += coords.length) {
+            int count = Math.min(coords.length, length - block);
+            int first = start + block;
+            for (int i = 0; i < count; i++) {
+                coords[i] = (dimension == 1 ? window.x(first + i) : dimension == 2 ? window.y(first + i) : window.z(first + i)) / scale;
+            }
+            Arrays.fill(out, offset + block, offset + block + count, 0);
+            // The scratch arrays outlive the row, so the axes the map does not use are reset to the plane
+            // of the lower dimensions instead of keeping the coordinates of a deeper map.
+            if (kernel != null && dimension < 3) {
+                Arrays.fill(zs, 0, count, 0);
+                if (dimension == 1) {
+                    Arrays.fill(ys, 0, count, 0);
+                }
+            }
+
+            double frequency = 1;
+            double amplitude = 1;
+            for (int octave = 0; octave < octaves; octave++) {
+                for (int i = 0; i < count; i++) {
+                    varying[i] = coords[i] * frequency;
+                }
+                int done = 0;
+                if (kernel != null) {
+                    if (dimension >= 2) {
+                        Arrays.fill(xs, 0, count, nx * frequency);
+                    }
+                    if (dimension == 3) {
+                        Arrays.fill(ys, 0, count, ny * frequency);
+                    }
+                    done = kernel.accumulate(xs, ys, zs, count, amplitude, out, offset + block);
+                }
+                accumulateRow(dimension, nx * frequency, ny * frequency, varying, done, count, amplitude, rowScratch,
+                        out, offset + block);
+                frequency *= lacunarity;
+                amplitude *= persistence;
+            }
+        }
+    }
+
+    /**
+     * Adds {@code noise * amplitude} to {@code out[offset + i]} for points {@code from <= i < to} that differ only along
+     * the last axis of the map: x in 1D, y in 2D and z in 3D, taken from {@code coords}. The other coordinates are
+     * {@code x}, {@code y} and 0, as in {@link #generateNoise}. Their lattice terms are computed once, and the corner
+     * hashes are reused while consecutive points stay in the same cell.
+     */
+    private void accumulateRow(int dimension, double x, double y, double[] coords, int from, int to, double amplitude,
+                               Scratch scratch, double[] out, int offset) {
+        int X = (int) Math.floor(x) & 255;
+        int Y = (int) Math.floor(y) & 255;
+        int Z = 0;
+        double xf = x - Math.floor(x);
+        double yf = y - Math.floor(y);
+        double zf = 0;
+        double u = fade(xf);
+        double v = fade(yf);
+        double w = fade(zf);
+
+        double[] fractions = scratch.fractions;
+        int[] terms = scratch.terms;
+        double[] signs = scratch.signs;
+        int cell = -1;
+        for (int i = from; i < to; i++) {
+            double c = coords[i];
+            int C = (int) Math.floor(c) & 255;
+            double cf = c - Math.floor(c);
+            switch (dimension) {
+                case 1 -> {
+                    X = C;
+                    xf = cf;
+                    u = fade(cf);
+                }
+                case 2 -> {
+                    Y = C;
+                    yf = cf;
+                    v = fade(cf);
+                }
+                default -> {
+                    Z = C;
+                    zf = cf;
+                    w = fade(cf);
+                }
+            }
+            if (C != cell) {
+                int A = perm[X] + Y;
+                int B = perm[X + 1] + Y;
+                int AA = perm[A] + Z;
+                int AB = perm[A + 1] + Z;
+                int BA = perm[B] + Z;
+                int BB = perm[B + 1] + Z;
+                gradientTerms(perm[AA], 0, terms, signs);
+                gradientTerms(perm[BA], 1, terms, signs);
+                gradientTerms(perm[AB], 2, terms, signs);
+                gradientTerms(perm[BB], 3, terms, signs);
+                gradientTerms(perm[AA + 1], 4, terms, signs);
+                gradientTerms(perm[BA + 1], 5, terms, signs);
+                gradientTerms(perm[AB + 1], 6, terms, signs);
+                gradientTerms(perm[BB + 1], 7, terms, signs);
+                cell = C;
+            }
+            fractions[0] = xf;
+            fractions[1] = xf - 1;
+            fractions[2] = yf;
+            fractions[3] = yf - 1;
+            fractions[4] = zf;
+            fractions[5] = zf - 1;
+            double g0 = signs[0] * fractions[terms[0]] + signs[1] * fractions[terms[1]];
+            double g1 = signs[2] * fractions[terms[2]] + signs[3] * fractions[terms[3]];
+            double g2 = signs[4] * fractions[terms[4]] + signs[5] * fractions[terms[5]];
+            double g3 = signs[6] * fractions[terms[6]] + signs[7] * fractions[terms[7]];
+            double g4 = signs[8] * fractions[terms[8]] + signs[9] * fractions[terms[9]];
+            double g5 = signs[10] * fractions[terms[10]] + signs[11] * fractions[terms[11]];
+            double g6 = signs[12] * fractions[terms[12]] + signs[13] * fractions[terms[13]];
+            double g7 = signs[14] * fractions[terms[14]] + signs[15] * fractions[terms[15]];
+            double noise = lerp(w, lerp(v, lerp(u, g0, g1), lerp(u, g2, g3)), lerp(v, lerp(u, g4, g5), lerp(u, g6, g7)));
+            out[offset + i] += noise * amplitude;
+        }
+    }
+
+    /**
+     * Maps of fewer than three dimensions are the plane z = 0 of the 3D noise, where it equals the improved noise
+     * of {@link PerlinNoiseAlgorithm}.
+     */
+    @Override
+    public NoiseRange bounds(int dimension) {
+        double max = switch (dimension) {
+            case 1 -> PerlinNoiseAlgorithm.MAX_1D;
+            case 2 -> PerlinNoiseAlgorithm.MAX_2D;
+            default -> PerlinNoiseAlgorithm.MAX_3D;
+        };
+        return fractalBounds(-max, max, octaves, persistence);
+    }
+
+    @Override
+    public double sample(double x) {
+        return generateNoise(x / scale, 0, 0);
+    }
+
+    @Override
+    public double sample(double x, double y) {
+        return generateNoise(x / scale, y / scale, 0);
+    }
+
+    @Override
+    public double sample(double x, double y, double z) {
+        return generateNoise(x / scale, y / scale, z / scale);
+    }
+
+    private double generateNoise(double x, double y, double z) {
+        double totalNoise = 0;
+        double frequency = 1;
+        double amplitude = 1;
+
+        for (int i = 0; i < octaves; i++) {
+            totalNoise += noise(x * frequency, y * frequency, z * frequency) * amplitude;
+            frequency *= lacunarity;
+            amplitude *= persistence;
+        }
+
+        return totalNoise;
+    }
+
+    private double noise(double x, double y, double z) {
+        int X = (int) Math.floor(x) & 255;
+        int Y = (int) Math.floor(y) & 255;
+        int Z = (int) Math.floor(z) & 255;
+
+        x -= Math.floor(x);
+        y -= Math.floor(y);
+        z -= Math.floor(z);
+
+        double u = fade(x);
+        double v = fade(y);
+        double w = fade(z);
+
+        int A = perm[X] + Y;
+        int AA = perm[A] + Z;
+        int AB = perm[A + 1] + Z;
+        int B = perm[X + 1] + Y;
+        int BA = perm[B] + Z;
+        int BB = perm[B + 1] + Z;
+
+        return lerp(w, lerp(v, lerp(u, grad(perm[AA], x, y, z), grad(perm[BA], x - 1, y, z)),
+                        lerp(u, grad(perm[AB], x, y - 1, z), grad(perm[BB], x - 1, y - 1, z))),
+                lerp(v, lerp(u, grad(perm[AA + 1], x, y, z - 1), grad(perm[BA + 1], x - 1, y, z - 1)),
+                        lerp(u, grad(perm[AB + 1], x, y - 1, z - 1), grad(perm[BB + 1], x - 1, y - 1, z - 1))));
+    }
+
+    private double fade(double t) {
+        return t * t * t * (t * (t * 6 - 15) + 10);
+    }
+
+    private double lerp(double t, double a, double b) {
+        return a + t * (b - a);
+    }
+
+    /**
+     * Stores which fractions {@link #grad} sums for {@code hash} at the given corner of the cell, and with which signs.
+     * Multiplying by the signs is exact, so the sum equals {@code grad} bit for bit without branching on the hash.
+     */
+    private static void gradientTerms(int hash, int corner, int[] terms, double[] signs) {
+        int h = hash & 15;
+        int x = corner & 1;
+        int y = 2 + (corner >> 1 & 1);
+        int z = 4 + (corner >> 2);
+        terms[2 * corner] = h < 8 ? x : y;
+        terms[2 * corner + 1] = h < 4 ? y : h == 12 || h == 14 ? x : z;
+        signs[2 * corner] = (h & 1) == 0 ? 1 : -1;
+        signs[2 * corner + 1] = (h & 2) == 0 ? 1 : -1;
+    }
+
+    private double grad(int hash, double x, double y, double z) {
+        int h = hash & 15;
+        double u = h < 8 ? x : y;
+        double v = h < 4 ? y : h == 12 || h == 14 ? x : z;
+        return ((h & 1) == 0 ? u : -u) + ((h & 2) == 0 ? v : -v);
+    }
+
+    private static final class Scratch {
+
+        final double[] coords = new double[BLOCK_LENGTH];
+        final double[] xs = new double[BLOCK_LENGTH];
+        final double[] ys = new double[BLOCK_LENGTH];
+        final double[] zs = new double[BLOCK_LENGTH];
+        final ImprovedNoiseVectorKernel kernel;
+
+        // The fractions and their offsets to the far corner, indexed as xf, xf - 1, yf, yf - 1, zf, zf - 1,
+        // and for each of the 8 cell corners the two of them that grad() sums, with their signs.
+        final double[] fractions = new double[6];
+        final int[] terms = new int[16];
+        final double[] signs = new double[16];
+
+        Scratch(int[] perm) {
+            kernel = VectorSupport.ENABLED ? new ImprovedNoiseVectorKernel(perm, BLOCK_LENGTH) : null;
+        }
+    }
+}
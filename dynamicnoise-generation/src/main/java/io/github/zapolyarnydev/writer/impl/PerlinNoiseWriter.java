@@ -2,108 +2,148 @@ package io.github.zapolyarnydev.writer.impl;
 
 import io.github.zapolyarnydev.algorithm.impl.PerlinNoiseAlgorithm;
 import io.github.zapolyarnydev.info.PerlinNoiseInfo;
-import io.github.zapolyarnydev.writer.NoiseWriter;
+import io.github.zapolyarnydev.writer.AbstractNoiseWriter;
+import io.github.zapolyarnydev.writer.NoiseRange;
+import io.github.zapolyarnydev.writer.NoiseScratch;
+import io.github.zapolyarnydev.writer.NoiseWindow;
 
+import java.util.Arrays;
 import java.util.Random;
 
-public class PerlinNoiseWriter implements NoiseWriter {
+public class PerlinNoiseWriter extends AbstractNoiseWriter {
+
+    /**
+     * The number of samples of a row evaluated together, octave by octave.
+     */
+    private static final int BLOCK_LENGTH = 256;
 
     private final PerlinNoiseInfo noiseInfo;
+    private final PerlinNoiseAlgorithm perlinNoise;
+
     public PerlinNoiseWriter(PerlinNoiseInfo noiseInfo){
         this.noiseInfo = noiseInfo;
+        this.perlinNoise = new PerlinNoiseAlgorithm(new Random(noiseInfo.seed()));
     }
 
+    /**
+     * Fills the row octave by octave in blocks. Every octave of a block evaluates the noise along a single axis,
+     * so the lattice terms of the fixed coordinates are computed once; the values are summed in the same order as in {@link #sample}.
+     */
     @Override
-    public void write(Object array) {
-        if(array instanceof double[] doubleArray) write1D(doubleArray);
-        else if (array instanceof double[][] doubleArray) write2D(doubleArray);
-        else if (array instanceof double[][][] doubleArray) write3D(doubleArray);
-    }
+    protected void fillRow(int dimension, NoiseWindow window, int x, int y, int start, double[] out, int offset, int length,
+                           NoiseScratch scratch) {
+        double seed = noiseInfo.seed();
+        Scratch rowScratch = scratch.get(this, writer -> new Scratch());
+        double[] coords = rowScratch.coords;
+        for (int block = 0; block < length; block += coords.length) {
+            int count = Math.min(coords.length, length - block);
+            int first = start + block;
+            Arrays.fill(out, offset + block, offset + block + count, 0);
 
-    private void write1D(double[] array) {
-        int length = array.length;
+            double amplitude = 1.0;
+            double frequency = noiseInfo.scale();
+            for (int octave = 0; octave < noiseInfo.octaves(); octave++) {
+                switch (dimension) {
+                    case 1 -> {
+                        for (int i = 0; i < count; i++) {
+                            coords[i] = (window.x(first + i) + seed) / frequency;
+                        }
+                        perlinNoise.accumulateAlongX(coords, 0, count, amplitude, out, offset + block);
+                    }
+                    case 2 -> {
+                        for (int i = 0; i < count; i++) {
+                            coords[i] = (window.y(first + i) + seed) / frequency;
+                        }
+                        perlinNoise.accumulateAlongY((window.x(x) + seed) / frequency, coords, count, amplitude, out, offset + block);
+                    }
+                    default -> {
+                        for (int i = 0; i < count; i++) {
+                            coords[i] = (window.z(first + i) + seed) / frequency;
+                        }
+                        perlinNoise.accumulateAlongZ((window.x(x) + seed) / frequency, (window.y(y) + seed) / frequency, coords,
+                                count, amplitude, out, offset + block, rowScratch.cellTerms);
+                    }
+                }
+                amplitude *= noiseInfo.persistence();
+                frequency *= noiseInfo.lacunarity();
+            }
+        }
+    }
 
-        Random random = new Random(noiseInfo.seed());
-        PerlinNoiseAlgorithm perlinNoise = new PerlinNoiseAlgorithm(random);
+    @Override
+    public NoiseRange bounds(int dimension) {
+        double max = switch (dimension) {
+            case 1 -> PerlinNoiseAlgorithm.MAX_1D;
+            case 2 -> PerlinNoiseAlgorithm.MAX_2D;
+            default -> PerlinNoiseAlgorithm.MAX_3D;
+        };
+        return fractalBounds(-max, max, noiseInfo.octaves(), noiseInfo.persistence());
+    }
 
+    @Override
+    public double sample(double x) {
         double scale = noiseInfo.scale();
         int octaves = noiseInfo.octaves();
         double lacunarity = noiseInfo.lacunarity();
         double persistence = noiseInfo.persistence();
 
-        for (int x = 0; x < length; x++) {
-            double noiseValue = 0;
-            double amplitude = 1.0;
-            double frequency = scale;
-
-            for (int octave = 0; octave < octaves; octave++) {
-                noiseValue += perlinNoise.noise((x + noiseInfo.seed()) / frequency, 0) * amplitude;
-                amplitude *= persistence;
-                frequency *= lacunarity;
-            }
+        double noiseValue = 0;
+        double amplitude = 1.0;
+        double frequency = scale;
 
-            array[x] = noiseValue;
+        for (int octave = 0; octave < octaves; octave++) {
+            noiseValue += perlinNoise.noise((x + noiseInfo.seed()) / frequency, 0) * amplitude;
+            amplitude *= persistence;
+            frequency *= lacunarity;
         }
-    }
 
-    private void write2D(double[][] array) {
-        int width = array.length;
-        int height = array[0].length;
-
-        Random random = new Random(noiseInfo.seed());
-        PerlinNoiseAlgorithm perlinNoise = new PerlinNoiseAlgorithm(random);
+        return noiseValue;
+    }
 
+    @Override
+    public double sample(double x, double y) {
         double scale = noiseInfo.scale();
         int octaves = noiseInfo.octaves();
         double lacunarity = noiseInfo.lacunarity();
         double persistence = noiseInfo.persistence();
 
-        for (int x = 0; x < width; x++) {
-            for (int y = 0; y < height; y++) {
-                double noiseValue = 0;
-                double amplitude = 1.0;
-                double frequency = scale;
-
-                for (int octave = 0; octave < octaves; octave++) {
-                    noiseValue += perlinNoise.noise((x + noiseInfo.seed()) / frequency, (y + noiseInfo.seed()) / frequency) * amplitude;
-                    amplitude *= persistence;
-                    frequency *= lacunarity;
-                }
+        double noiseValue = 0;
+        double amplitude = 1.0;
+        double frequency = scale;
 
-                array[x][y] = noiseValue;
-            }
+        for (int octave = 0; octave < octaves; octave++) {
+            noiseValue += perlinNoise.noise((x + noiseInfo.seed()) / frequency, (y + noiseInfo.seed()) / frequency) * amplitude;
+            amplitude *= persistence;
+            frequency *= lacunarity;
         }
-    }
 
-    private void write3D(double[][][] array) {
-        int width = array.length;
-        int height = array[0].length;
-        int depth = array[0][0].length;
-
-        Random random = new Random(noiseInfo.seed());
-        PerlinNoiseAlgorithm perlinNoise = new PerlinNoiseAlgorithm(random);
+        return noiseValue;
+    }
 
+    @Override
+    public double sample(double x, double y, double z) {
         double scale = noiseInfo.scale();
         int octaves = noiseInfo.octaves();
         double lacunarity = noiseInfo.lacunarity();
         double persistence = noiseInfo.persistence();
 
-        for (int x = 0; x < width; x++) {
-            for (int y = 0; y < height; y++) {
-                for (int z = 0; z < depth; z++) {
-                    double noiseValue = 0;
-                    double amplitude = 1.0;
-                    double frequency = scale;
-
-                    for (int octave = 0; octave < octaves; octave++) {
-                        noiseValue += perlinNoise.noise((x + noiseInfo.seed()) / frequency, (y + noiseInfo.seed() + z) / frequency) * amplitude;
-                        amplitude *= persistence;
-                        frequency *= lacunarity;
-                    }
+        double noiseValue = 0;
+        double amplitude = 1.0;
+        double frequency = scale;
 
-                    array[x][y][z] = noiseValue;
-                }
-            }
+        for (int octave = 0; octave < octaves; octave++) {
+            noiseValue += perlinNoise.noise((x + noiseInfo.seed()) / frequency, (y + noiseInfo.seed()) / frequency,
+                    (z + noiseInfo.seed()) / frequency) * amplitude;
+            amplitude *= persistence;
+            frequency *= lacunarity;
         }
+
+        return noiseValue;
+    }
+
+    private static final class Scratch {
+
+        final double[] coords = new double[BLOCK_LENGTH];
+        final PerlinNoiseAlgorithm.CellTerms cellTerms = new PerlinNoiseAlgorithm.CellTerms();
     }
 }
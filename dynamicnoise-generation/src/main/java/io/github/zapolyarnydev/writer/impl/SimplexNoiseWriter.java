@@ -1,94 +1,153 @@
 package io.github.zapolyarnydev.writer.impl;
 
-import java.util.Random;
+import io.github.zapolyarnydev.algorithm.impl.SimplexNoiseAlgorithm;
+import io.github.zapolyarnydev.algorithm.impl.SimplexNoiseVectorKernel;
+import io.github.zapolyarnydev.algorithm.impl.VectorSupport;
 import io.github.zapolyarnydev.info.SimplexNoiseInfo;
-import io.github.zapolyarnydev.writer.NoiseWriter;
+import io.github.zapolyarnydev.writer.AbstractNoiseWriter;
+import io.github.zapolyarnydev.writer.NoiseRange;
+import io.github.zapolyarnydev.writer.NoiseScratch;
+import io.github.zapolyarnydev.writer.NoiseWindow;
+
+import java.util.Arrays;
+import java.util.Random;
 
-public class SimplexNoiseWriter implements NoiseWriter {
+/**
+ * Writes simplex noise. 1D maps are the line y = 0 of the 2D noise.
+ * Settings with {@link SimplexNoiseInfo#legacy()} are written by {@link LegacySimplexNoiseWriter}.
+ */
+public class SimplexNoiseWriter extends AbstractNoiseWriter {
+
+    /**
+     * The number of samples of a row evaluated together by the vectorized kernel.
+     */
+    private static final int BLOCK_LENGTH = 256;
 
-    private final Random random;
     private final double lacunarity;
     private final int octaves;
     private final double persistence;
     private final double scale;
 
-    private final int[] perm;
-    private final int[] p;
+    private final SimplexNoiseAlgorithm simplexNoise;
 
     public SimplexNoiseWriter(SimplexNoiseInfo noiseInfo) {
-        this.random = new Random(noiseInfo.seed());
         this.lacunarity = noiseInfo.lacunarity();
         this.octaves = noiseInfo.octaves();
         this.persistence = noiseInfo.persistence();
         this.scale = noiseInfo.scale();
+        this.simplexNoise = new SimplexNoiseAlgorithm(new Random(noiseInfo.seed()));
+    }
 
-        perm = new int[512];
-        p = new int[256];
-
-        for (int i = 0; i < 256; i++) {
-            p[i] = i;
+    @Override
+    protected void fillRow(int dimension, NoiseWindow window, int x, int y, int start, double[] out, int offset, int length,
+                           NoiseScratch scratch) {
+        if (VectorSupport.ENABLED) {
+            fillBlocks(dimension, window, x, y, start, out, offset, length, scratch.get(this, Scratch::new));
+            return;
         }
-
-        for (int i = 0; i < 256; i++) {
-            int j = random.nextInt(256);
-            int temp = p[i];
-            p[i] = p[j];
-            p[j] = temp;
+        switch (dimension) {
+            case 1 -> {
+                for (int i = 0; i < length; i++) {
+                    out[offset + i] = generateNoise(window.x(start + i) / scale, 0);
+                }
+            }
+            case 2 -> {
+                double nx = window.x(x) / scale;
+                for (int i = 0; i < length; i++) {
+                    out[offset + i] = generateNoise(nx, window.y(start + i) / scale);
+                }
+            }
+            default -> {
+                double nx = window.x(x) / scale;
+                double ny = window.y(y) / scale;
+                for (int i = 0; i < length; i++) {
+                    out[offset + i] = generateNoise(nx, ny, window.z(start + i) / scale);
+                }
+            }
         }
+    }
+
+    /**
+     * Fills the row octave by octave in blocks: the vectorized kernel evaluates a prefix of every block, and the scalar
+     * noise the points it leaves. The coordinates and the accumulation order are the same as in {@link #generateNoise}.
+     */
+    private void fillBlocks(int dimension, NoiseWindow window, int x, int y, int start, double[] out, int offset, int length,
+                            Scratch scratch) {
+        double[] coords = scratch.coords;
+        double[] xs = scratch.xs;
+        double[] ys = scratch.ys;
+        double[] zs = scratch.zs;
+        double[] varying = dimension == 1 ? xs : dimension == 2 ? ys : zs;
+        double nx = dimension >= 2 ? window.x(x) / scale : 0;
+        double ny = dimension == 3 ? window.y(y) / scale : 0;
+        for (int block = 0; block < length; block += coords.length) {
+            int count = Math.min(coords.length, length - block);
+            int first = start + block;
+            int blockOffset = offset + block;
+            for (int i = 0; i < count; i++) {
+                coords[i] = (dimension == 1 ? window.x(first + i) : dimension == 2 ? window.y(first + i) : window.z(first + i)) / scale;
+            }
+            Arrays.fill(out, blockOffset, blockOffset + count, 0);
+            if (dimension == 1) {
+                // 1D maps are the line y = 0; the scratch may still hold the y coordinates of a 2D or 3D row.
+                Arrays.fill(ys, 0, count, 0);
+            }
 
-        for (int i = 0; i < 512; i++) {
-            perm[i] = p[i % 256];
+            double frequency = 1;
+            double amplitude = 1;
+            for (int octave = 0; octave < octaves; octave++) {
+                for (int i = 0; i < count; i++) {
+                    varying[i] = coords[i] * frequency;
+                }
+                if (dimension >= 2) {
+                    Arrays.fill(xs, 0, count, nx * frequency);
+                }
+                if (dimension == 3) {
+                    Arrays.fill(ys, 0, count, ny * frequency);
+                    int done = scratch.kernel.accumulate(xs, ys, zs, count, amplitude, out, blockOffset);
+                    for (int i = done; i < count; i++) {
+                        out[blockOffset + i] += simplexNoise.noise(xs[i], ys[i], zs[i]) * amplitude;
+                    }
+                } else {
+                    int done = scratch.kernel.accumulate(xs, ys, count, amplitude, out, blockOffset);
+                    for (int i = done; i < count; i++) {
+                        out[blockOffset + i] += simplexNoise.noise(xs[i], ys[i]) * amplitude;
+                    }
+                }
+                frequency *= lacunarity;
+                amplitude *= persistence;
+            }
         }
     }
 
     @Override
-    public void write(Object array) {
-        switch (array) {
-            case double[] doubleArray -> write1D(doubleArray);
-            case double[][] doubleArray -> write2D(doubleArray);
-            case double[][][] doubleArray -> write3D(doubleArray);
-            case null, default ->
-                    throw new IllegalArgumentException("Unsupported array type: " + array.getClass().getName());
-        }
+    public NoiseRange bounds(int dimension) {
+        double max = dimension == 3 ? SimplexNoiseAlgorithm.MAX_3D : SimplexNoiseAlgorithm.MAX_2D;
+        return fractalBounds(-max, max, octaves, persistence);
     }
 
-    private void write1D(double[] array) {
-        for (int i = 0; i < array.length; i++) {
-            double x = i / scale;
-            array[i] = generateNoise(x, 0, 0);
-        }
+    @Override
+    public double sample(double x) {
+        return generateNoise(x / scale, 0);
     }
 
-    private void write2D(double[][] array) {
-        for (int x = 0; x < array.length; x++) {
-            for (int y = 0; y < array[x].length; y++) {
-                double nx = x / scale;
-                double ny = y / scale;
-                array[x][y] = generateNoise(nx, ny, 0);
-            }
-        }
+    @Override
+    public double sample(double x, double y) {
+        return generateNoise(x / scale, y / scale);
     }
 
-    private void write3D(double[][][] array) {
-        for (int x = 0; x < array.length; x++) {
-            for (int y = 0; y < array[x].length; y++) {
-                for (int z = 0; z < array[x][y].length; z++) {
-                    double nx = x / scale;
-                    double ny = y / scale;
-                    double nz = z / scale;
-                    array[x][y][z] = generateNoise(nx, ny, nz);
-                }
-            }
-        }
+    @Override
+    public double sample(double x, double y, double z) {
+        return generateNoise(x / scale, y / scale, z / scale);
     }
 
-    private double generateNoise(double x, double y, double z) {
+    private double generateNoise(double x, double y) {
         double totalNoise = 0;
         double frequency = 1;
         double amplitude = 1;
 
         for (int i = 0; i < octaves; i++) {
-            totalNoise += noise(x * frequency, y * frequency, z * frequency) * amplitude;
+            totalNoise += simplexNoise.noise(x * frequency, y * frequency) * amplitude;
             frequency *= lacunarity;
             amplitude *= persistence;
         }
@@ -96,44 +155,30 @@ public class SimplexNoiseWriter implements NoiseWriter {
         return totalNoise;
     }
 
-    private double noise(double x, double y, double z) {
-        int X = (int) Math.floor(x) & 255;
-        int Y = (int) Math.floor(y) & 255;
-        int Z = (int) Math.floor(z) & 255;
-
-        x -= Math.floor(x);
-        y -= Math.floor(y);
-        z -= Math.floor(z);
-
-        double u = fade(x);
-        double v = fade(y);
-        double w = fade(z);
-
-        int A = perm[X] + Y;
-        int AA = perm[A] + Z;
-        int AB = perm[A + 1] + Z;
-        int B = perm[X + 1] + Y;
-        int BA = perm[B] + Z;
-        int BB = perm[B + 1] + Z;
-
-        return lerp(w, lerp(v, lerp(u, grad(perm[AA], x, y, z), grad(perm[BA], x - 1, y, z)),
-                        lerp(u, grad(perm[AB], x, y - 1, z), grad(perm[BB], x - 1, y - 1, z))),
-                lerp(v, lerp(u, grad(perm[AA + 1], x, y, z - 1), grad(perm[BA + 1], x - 1, y, z - 1)),
-                        lerp(u, grad(perm[AB + 1], x, y - 1, z - 1), grad(perm[BB + 1], x - 1, y - 1, z - 1))));
-    }
+    private double generateNoise(double x, double y, double z) {
+        double totalNoise = 0;
+        double frequency = 1;
+        double amplitude = 1;
 
-    private double fade(double t) {
-        return t * t * t * (t * (t * 6 - 15) + 10);
-    }
+        for (int i = 0; i < octaves; i++) {
+            totalNoise += simplexNoise.noise(x * frequency, y * frequency, z * frequency) * amplitude;
+            frequency *= lacunarity;
+            amplitude *= persistence;
+        }
 
-    private double lerp(double t, double a, double b) {
-        return a + t * (b - a);
+        return totalNoise;
     }
 
-    private double grad(int hash, double x, double y, double z) {
-        int h = hash & 15;
-        double u = h < 8 ? x : y;
-        double v = h < 4 ? y : h == 12 || h == 14 ? x : z;
-        return ((h & 1) == 0 ? u : -u) + ((h & 2) == 0 ? v : -v);
+    private static final class Scratch {
+
+        final double[] coords = new double[BLOCK_LENGTH];
+        final double[] xs = new double[BLOCK_LENGTH];
+        final double[] ys = new double[BLOCK_LENGTH];
+        final double[] zs = new double[BLOCK_LENGTH];
+        final SimplexNoiseVectorKernel kernel;
+
+        Scratch(SimplexNoiseWriter writer) {
+            kernel = new SimplexNoiseVectorKernel(writer.simplexNoise, BLOCK_LENGTH);
+        }
     }
 }
@@ -1,31 +1,42 @@
 package io.github.zapolyarnydev.writer.impl;
 
 import io.github.zapolyarnydev.info.ValueNoiseInfo;
-import io.github.zapolyarnydev.writer.NoiseWriter;
+import io.github.zapolyarnydev.writer.AbstractNoiseWriter;
+import io.github.zapolyarnydev.writer.NoiseRange;
+import io.github.zapolyarnydev.writer.NoiseScratch;
+import io.github.zapolyarnydev.writer.NoiseWindow;
 
+import java.util.Arrays;
 import java.util.Random;
 
-public class ValueNoiseWriter implements NoiseWriter {
+public class ValueNoiseWriter extends AbstractNoiseWriter {
+
+    /**
+     * The lattice layer used for the axes that lower-dimensional noise does not vary. The interpolation weights
+     * select this single layer, so 1D noise interpolates 4 lattice values and 2D noise 16 instead of 64.
+     * It is the layer the coordinate 0 fell into before {@link #fastFloor} rounded integers correctly, which keeps
+     * the values of 1D and 2D maps; they equal 3D noise at the coordinate -1 of the unused axes.
+     */
+    private static final int ZERO_LAYER = 255;
 
     private final ValueNoiseInfo noiseInfo;
-    private final Random random;
     private final int[] permutationTable;
 
     public ValueNoiseWriter(ValueNoiseInfo info) {
         this.noiseInfo = info;
-        this.random = new Random(noiseInfo.seed());
+        Random random = new Random(noiseInfo.seed());
 
         permutationTable = new int[512];
         int[] p = new int[256];
         for (int i = 0; i < 256; i++) {
             p[i] = i;
         }
-        shufflePermutation(p);
+        shufflePermutation(p, random);
         System.arraycopy(p, 0, permutationTable, 0, 256);
         System.arraycopy(p, 0, permutationTable, 256, 256);
     }
 
-    private void shufflePermutation(int[] p) {
+    private static void shufflePermutation(int[] p, Random random) {
         for (int i = 255; i > 0; i--) {
             int j = random.nextInt(i + 1);
             int tmp = p[i];
@@ -34,53 +45,171 @@ public class ValueNoiseWriter implements NoiseWriter {
         }
     }
 
+    /**
+     * Fills the row octave by octave. Samples of a row that fall into the same lattice cell share its
+     * neighbourhood, so the lattice values are looked up once per cell rather than once per sample.
+     * The values are summed in the same order as in {@link #generateNoise}.
+     */
     @Override
-    public void write(Object array) {
-        if (array instanceof double[] doubleArray) {
-            write1D(doubleArray);
-        } else if (array instanceof double[][] doubleArray) {
-            write2D(doubleArray);
-        } else if (array instanceof double[][][] doubleArray) {
-            write3D(doubleArray);
+    protected void fillRow(int dimension, NoiseWindow window, int x, int y, int start, double[] out, int offset, int length,
+                           NoiseScratch scratch) {
+        Arrays.fill(out, offset, offset + length, 0);
+        // The lattice neighbourhood has room for the 64 values of 3D noise; lower dimensions use a prefix.
+        double[] lattice = scratch.get(this, writer -> new double[64]);
+        double amplitude = 1.0;
+        double frequency = 1.0 / noiseInfo.scale();
+        double maxAmplitude = 0.0;
+
+        for (int octave = 0; octave < noiseInfo.octaves(); octave++) {
+            switch (dimension) {
+                case 1 -> accumulateCurve(window, start, frequency, amplitude, lattice, out, offset, length);
+                case 2 -> accumulateArea(window.x(x) * frequency, window, start, frequency, amplitude,
+                        lattice, out, offset, length);
+                default -> accumulateVolume(window.x(x) * frequency, window.y(y) * frequency, window, start, frequency, amplitude,
+                        lattice, out, offset, length);
+            }
+            maxAmplitude += amplitude;
+
+            amplitude *= noiseInfo.persistence();
+            frequency *= noiseInfo.lacunarity();
+        }
+
+        for (int i = 0; i < length; i++) {
+            out[offset + i] /= maxAmplitude;
         }
     }
 
-    private void write1D(double[] array) {
-        for (int i = 0; i < array.length; i++) {
-            array[i] = generateNoise(i, 0, 0);
+    private void accumulateCurve(NoiseWindow window, int start, double frequency, double amplitude,
+                                 double[] lattice, double[] out, int offset, int length) {
+        int cell = -1;
+        for (int i = 0; i < length; i++) {
+            double sampleX = window.x(start + i) * frequency;
+            int X0 = fastFloor(sampleX) & 255;
+            if (X0 != cell) {
+                for (int dx = 0; dx < 4; dx++) {
+                    lattice[dx] = latticeValue((X0 + dx - 1) & 255, ZERO_LAYER, ZERO_LAYER);
+                }
+                cell = X0;
+            }
+            out[offset + i] += cubicInterpolate(lattice, 0, sampleX - Math.floor(sampleX)) * amplitude;
         }
     }
 
-    private void write2D(double[][] array) {
-        for (int x = 0; x < array.length; x++) {
-            for (int y = 0; y < array[x].length; y++) {
-                array[x][y] = generateNoise(x, y, 0);
+    private void accumulateArea(double sampleX, NoiseWindow window, int start, double frequency, double amplitude,
+                                double[] lattice, double[] out, int offset, int length) {
+        int X0 = fastFloor(sampleX) & 255;
+        double xf = sampleX - Math.floor(sampleX);
+        int cell = -1;
+        for (int i = 0; i < length; i++) {
+            double sampleY = window.y(start + i) * frequency;
+            int Y0 = fastFloor(sampleY) & 255;
+            if (Y0 != cell) {
+                for (int dx = 0; dx < 4; dx++) {
+                    for (int dy = 0; dy < 4; dy++) {
+                        lattice[dx * 4 + dy] = latticeValue((X0 + dx - 1) & 255, (Y0 + dy - 1) & 255, ZERO_LAYER);
+                    }
+                }
+                cell = Y0;
             }
+            double yf = sampleY - Math.floor(sampleY);
+            double noiseValue = cubicInterpolate(
+                    cubicInterpolate(lattice, 0, yf),
+                    cubicInterpolate(lattice, 4, yf),
+                    cubicInterpolate(lattice, 8, yf),
+                    cubicInterpolate(lattice, 12, yf),
+                    xf);
+            out[offset + i] += noiseValue * amplitude;
         }
     }
 
-    private void write3D(double[][][] array) {
-        for (int x = 0; x < array.length; x++) {
-            for (int y = 0; y < array[x].length; y++) {
-                for (int z = 0; z < array[x][y].length; z++) {
-                    array[x][y][z] = generateNoise(x, y, z);
+    private void accumulateVolume(double sampleX, double sampleY, NoiseWindow window, int start, double frequency, double amplitude,
+                                  double[] lattice, double[] out, int offset, int length) {
+        int X0 = fastFloor(sampleX) & 255;
+        int Y0 = fastFloor(sampleY) & 255;
+        double xf = sampleX - Math.floor(sampleX);
+        double yf = sampleY - Math.floor(sampleY);
+        int cell = -1;
+        for (int i = 0; i < length; i++) {
+            double sampleZ = window.z(start + i) * frequency;
+            int Z0 = fastFloor(sampleZ) & 255;
+            if (Z0 != cell) {
+                for (int dx = 0; dx < 4; dx++) {
+                    for (int dy = 0; dy < 4; dy++) {
+                        for (int dz = 0; dz < 4; dz++) {
+                            lattice[(dx * 4 + dy) * 4 + dz] = latticeValue((X0 + dx - 1) & 255, (Y0 + dy - 1) & 255, (Z0 + dz - 1) & 255);
+                        }
+                    }
                 }
+                cell = Z0;
             }
+            double zf = sampleZ - Math.floor(sampleZ);
+            double noiseValue = cubicInterpolate(
+                    interpolatePlane(lattice, 0, yf, zf),
+                    interpolatePlane(lattice, 16, yf, zf),
+                    interpolatePlane(lattice, 32, yf, zf),
+                    interpolatePlane(lattice, 48, yf, zf),
+                    xf);
+            out[offset + i] += noiseValue * amplitude;
         }
     }
 
-    private double generateNoise(int x, int y, int z) {
+    private double interpolatePlane(double[] lattice, int base, double yf, double zf) {
+        return cubicInterpolate(
+                cubicInterpolate(lattice, base, zf),
+                cubicInterpolate(lattice, base + 4, zf),
+                cubicInterpolate(lattice, base + 8, zf),
+                cubicInterpolate(lattice, base + 12, zf),
+                yf);
+    }
+
+    /**
+     * Lattice values lie in [0, 1]. Cubic interpolation of four values overshoots their range by at most
+     * an eighth of it on each side, at the middle of a cell, and this repeats for every interpolated axis.
+     * The octaves are averaged, so their sum is divided by the total amplitude.
+     */
+    @Override
+    public NoiseRange bounds(int dimension) {
+        double min = 0;
+        double max = 1;
+        for (int axis = 0; axis < dimension; axis++) {
+            double overshoot = (max - min) / 8;
+            min -= overshoot;
+            max += overshoot;
+        }
+        NoiseRange range = fractalBounds(min, max, noiseInfo.octaves(), noiseInfo.persistence());
+        double maxAmplitude = fractalBounds(1, 1, noiseInfo.octaves(), noiseInfo.persistence()).max();
+        return maxAmplitude > 0
+                ? NoiseRange.of(range.min() / maxAmplitude, range.max() / maxAmplitude)
+                : NoiseRange.of(range.max() / maxAmplitude, range.min() / maxAmplitude);
+    }
+
+    @Override
+    public double sample(double x) {
+        return generateNoise(1, x, 0, 0);
+    }
+
+    @Override
+    public double sample(double x, double y) {
+        return generateNoise(2, x, y, 0);
+    }
+
+    @Override
+    public double sample(double x, double y, double z) {
+        return generateNoise(3, x, y, z);
+    }
+
+    private double generateNoise(int dimension, double x, double y, double z) {
         double amplitude = 1.0;
         double frequency = 1.0 / noiseInfo.scale();
         double value = 0.0;
         double maxAmplitude = 0.0;
 
         for (int octave = 0; octave < noiseInfo.octaves(); octave++) {
-            double sampleX = x * frequency;
-            double sampleY = y * frequency;
-            double sampleZ = z * frequency;
-
-            double noiseValue = interpolateBicubic(sampleX, sampleY, sampleZ);
+            double noiseValue = switch (dimension) {
+                case 1 -> interpolateCurve(x * frequency);
+                case 2 -> interpolateArea(x * frequency, y * frequency);
+                default -> interpolateVolume(x * frequency, y * frequency, z * frequency);
+            };
             value += noiseValue * amplitude;
             maxAmplitude += amplitude;
 
@@ -91,7 +220,30 @@ public class ValueNoiseWriter implements NoiseWriter {
         return value / maxAmplitude;
     }
 
-    private double interpolateBicubic(double x, double y, double z) {
+    private double interpolateCurve(double x) {
+        int X0 = fastFloor(x) & 255;
+        return cubicInterpolate(
+                latticeValue((X0 - 1) & 255, ZERO_LAYER, ZERO_LAYER),
+                latticeValue(X0, ZERO_LAYER, ZERO_LAYER),
+                latticeValue((X0 + 1) & 255, ZERO_LAYER, ZERO_LAYER),
+                latticeValue((X0 + 2) & 255, ZERO_LAYER, ZERO_LAYER),
+                x - Math.floor(x));
+    }
+
+    private double interpolateArea(double x, double y) {
+        int X0 = fastFloor(x) & 255;
+        int Y0 = fastFloor(y) & 255;
+        double yf = y - Math.floor(y);
+
+        return cubicInterpolate(
+                interpolateY((X0 - 1) & 255, Y0, ZERO_LAYER, yf),
+                interpolateY(X0, Y0, ZERO_LAYER, yf),
+                interpolateY((X0 + 1) & 255, Y0, ZERO_LAYER, yf),
+                interpolateY((X0 + 2) & 255, Y0, ZERO_LAYER, yf),
+                x - Math.floor(x));
+    }
+
+    private double interpolateVolume(double x, double y, double z) {
         int X0 = fastFloor(x) & 255;
         int Y0 = fastFloor(y) & 255;
         int Z0 = fastFloor(z) & 255;
@@ -100,48 +252,59 @@ public class ValueNoiseWriter implements NoiseWriter {
         double yf = y - Math.floor(y);
         double zf = z - Math.floor(z);
 
-        double[] values = new double[4 * 4 * 4];
-        for (int i = -1; i <= 2; i++) {
-            for (int j = -1; j <= 2; j++) {
-                for (int k = -1; k <= 2; k++) {
-                    int X = (X0 + i) & 255;
-                    int Y = (Y0 + j) & 255;
-                    int Z = (Z0 + k) & 255;
-                    values[(i + 1) * 16 + (j + 1) * 4 + (k + 1)] = value(permutationTable[X + permutationTable[Y + permutationTable[Z]]]);
-                }
-            }
-        }
+        return cubicInterpolate(
+                interpolatePlane((X0 - 1) & 255, Y0, Z0, yf, zf),
+                interpolatePlane(X0, Y0, Z0, yf, zf),
+                interpolatePlane((X0 + 1) & 255, Y0, Z0, yf, zf),
+                interpolatePlane((X0 + 2) & 255, Y0, Z0, yf, zf),
+                xf);
+    }
 
-        return tricubicInterpolate(values, xf, yf, zf);
+    private double interpolatePlane(int X, int Y0, int Z0, double yf, double zf) {
+        return cubicInterpolate(
+                interpolateZ(X, (Y0 - 1) & 255, Z0, zf),
+                interpolateZ(X, Y0, Z0, zf),
+                interpolateZ(X, (Y0 + 1) & 255, Z0, zf),
+                interpolateZ(X, (Y0 + 2) & 255, Z0, zf),
+                yf);
+    }
+
+    private double interpolateY(int X, int Y0, int Z, double yf) {
+        return cubicInterpolate(
+                latticeValue(X, (Y0 - 1) & 255, Z),
+                latticeValue(X, Y0, Z),
+                latticeValue(X, (Y0 + 1) & 255, Z),
+                latticeValue(X, (Y0 + 2) & 255, Z),
+                yf);
+    }
+
+    private double interpolateZ(int X, int Y, int Z0, double zf) {
+        return cubicInterpolate(
+                latticeValue(X, Y, (Z0 - 1) & 255),
+                latticeValue(X, Y, Z0),
+                latticeValue(X, Y, (Z0 + 1) & 255),
+                latticeValue(X, Y, (Z0 + 2) & 255),
+                zf);
+    }
+
+    private double latticeValue(int X, int Y, int Z) {
+        return value(permutationTable[X + permutationTable[Y + permutationTable[Z]]]);
     }
 
     private double value(int hash) {
         return (hash & 255) / 255.0;
     }
 
-    private double tricubicInterpolate(double[] values, double x, double y, double z) {
-        double[] arr = new double[4];
-        for (int i = 0; i < 4; i++) {
-            double[] arr2 = new double[4];
-            for (int j = 0; j < 4; j++) {
-                double[] arr3 = new double[4];
-                for (int k = 0; k < 4; k++) {
-                    arr3[k] = values[i * 16 + j * 4 + k];
-                }
-                arr2[j] = cubicInterpolate(arr3, z);
-            }
-            arr[i] = cubicInterpolate(arr2, y);
-        }
-        return cubicInterpolate(arr, x);
+    private double cubicInterpolate(double[] lattice, int base, double t) {
+        return cubicInterpolate(lattice[base], lattice[base + 1], lattice[base + 2], lattice[base + 3], t);
     }
 
-    private double cubicInterpolate(double[] values, double t) {
-        double t2 = t * t;
-        double t3 = t2 * t;
-        return values[1] + 0.5 * t * (values[2] - values[0] + t * (2.0 * values[0] - 5.0 * values[1] + 4.0 * values[2] - values[3] + t * (3.0 * (values[1] - values[2]) + values[3] - values[0])));
+    private double cubicInterpolate(double v0, double v1, double v2, double v3, double t) {
+        return v1 + 0.5 * t * (v2 - v0 + t * (2.0 * v0 - 5.0 * v1 + 4.0 * v2 - v3 + t * (3.0 * (v1 - v2) + v3 - v0)));
     }
 
-    private int fastFloor(double value) {
-        return value > 0 ? (int) value : (int) value - 1;
+    private static int fastFloor(double value) {
+        int truncated = (int) value;
+        return value < truncated ? truncated - 1 : truncated;
     }
-}
\ No newline at end of file
+}
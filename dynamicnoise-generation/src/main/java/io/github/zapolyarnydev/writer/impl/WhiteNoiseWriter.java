@@ -1,53 +1,93 @@
 package io.github.zapolyarnydev.writer.impl;
 
 import io.github.zapolyarnydev.info.WhiteNoiseInfo;
-import io.github.zapolyarnydev.writer.NoiseWriter;
+import io.github.zapolyarnydev.writer.AbstractNoiseWriter;
+import io.github.zapolyarnydev.writer.NoiseRange;
+import io.github.zapolyarnydev.writer.NoiseScratch;
+import io.github.zapolyarnydev.writer.NoiseWindow;
 
-import java.util.Random;
+/**
+ * Writes white noise: independent values uniform in [-1, 1).
+ * <p>
+ * A value is a stateless hash of the seed and the integer cell of its coordinates, so it does not depend on the
+ * shape of the map or on the order in which it is filled. Any region can be generated on any thread, and maps,
+ * windows and single samples agree.
+ */
+public class WhiteNoiseWriter extends AbstractNoiseWriter {
 
-public class WhiteNoiseWriter implements NoiseWriter {
-
-    private final WhiteNoiseInfo noiseInfo;
+    /**
+     * The hash of the seed, the starting state of every coordinate hash.
+     */
+    private final long seedHash;
 
     public WhiteNoiseWriter(WhiteNoiseInfo info) {
-        this.noiseInfo = info;
+        this.seedHash = mix(info.seed() ^ 0x9E3779B97F4A7C15L);
     }
 
+    /**
+     * Hashes the fixed coordinates of the row once, so each sample mixes in only its own coordinates.
+     */
     @Override
-    public void write(Object array) {
-        if (array instanceof double[] doubleArray) {
-            write1D(doubleArray);
-        } else if (array instanceof double[][] doubleArray) {
-            write2D(doubleArray);
-        } else if (array instanceof double[][][] doubleArray) {
-            write3D(doubleArray);
+    protected void fillRow(int dimension, NoiseWindow window, int x, int y, int start, double[] out, int offset, int length,
+                           NoiseScratch scratch) {
+        switch (dimension) {
+            case 1 -> {
+                for (int i = 0; i < length; i++) {
+                    out[offset + i] = value(hash(hash(hash(seedHash, window.x(start + i)), 0), 0));
+                }
+            }
+            case 2 -> {
+                long rowHash = hash(seedHash, window.x(x));
+                for (int i = 0; i < length; i++) {
+                    out[offset + i] = value(hash(hash(rowHash, window.y(start + i)), 0));
+                }
+            }
+            default -> {
+                long rowHash = hash(hash(seedHash, window.x(x)), window.y(y));
+                for (int i = 0; i < length; i++) {
+                    out[offset + i] = value(hash(rowHash, window.z(start + i)));
+                }
+            }
         }
     }
 
-    private void write1D(double[] array) {
-        Random random = new Random(noiseInfo.seed());
-        for (int i = 0; i < array.length; i++) {
-            array[i] = random.nextDouble() * 2 - 1;
-        }
+    @Override
+    public NoiseRange bounds(int dimension) {
+        return NoiseRange.of(-1, 1);
     }
 
-    private void write2D(double[][] array) {
-        Random random = new Random(noiseInfo.seed());
-        for (int x = 0; x < array.length; x++) {
-            for (int y = 0; y < array[x].length; y++) {
-                array[x][y] = random.nextDouble() * 2 - 1;
-            }
-        }
+    @Override
+    public double sample(double x) {
+        return sample(x, 0, 0);
     }
 
-    private void write3D(double[][][] array) {
-        Random random = new Random(noiseInfo.seed());
-        for (int x = 0; x < array.length; x++) {
-            for (int y = 0; y < array[x].length; y++) {
-                for (int z = 0; z < array[x][y].length; z++) {
-                    array[x][y][z] = random.nextDouble() * 2 - 1;
-                }
-            }
-        }
+    @Override
+    public double sample(double x, double y) {
+        return sample(x, y, 0);
+    }
+
+    @Override
+    public double sample(double x, double y, double z) {
+        return value(hash(hash(hash(seedHash, x), y), z));
+    }
+
+    private static long hash(long hash, double coordinate) {
+        return mix(hash ^ (long) Math.floor(coordinate));
+    }
+
+    /**
+     * Maps the top 53 bits of a hash to a double in [-1, 1).
+     */
+    private static double value(long hash) {
+        return (hash >>> 11) * 0x1.0p-53 * 2 - 1;
+    }
+
+    /**
+     * The SplitMix64 finalizer.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
     }
 }
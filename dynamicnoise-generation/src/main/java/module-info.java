@@ -1,5 +1,8 @@
 module DynamicNoise.dynamicnoise.generation {
+    requires static jdk.incubator.vector;
+
     exports io.github.zapolyarnydev.info;
+    exports io.github.zapolyarnydev.buffer;
     exports io.github.zapolyarnydev.writer;
     exports io.github.zapolyarnydev.thread;
     exports io.github.zapolyarnydev.writer.impl;
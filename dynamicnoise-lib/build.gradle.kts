@@ -11,6 +11,19 @@ version = "1.1.0"
 
 tasks.test {
     useJUnitPlatform()
+    jvmArgs("--add-modules", "jdk.incubator.vector")
+}
+
+// Runs the tests again with the scalar loops of the writers, which tasks.test replaces by the vector kernels.
+val scalarTest by tasks.registering(Test::class) {
+    useJUnitPlatform()
+    testClassesDirs = sourceSets.test.get().output.classesDirs
+    classpath = sourceSets.test.get().runtimeClasspath
+    systemProperty("dynamicnoise.vector", "false")
+}
+
+tasks.check {
+    dependsOn(scalarTest)
 }
 
 repositories {
@@ -21,6 +34,10 @@ dependencies {
     compileOnly("org.jetbrains:annotations:16.0.1")
     annotationProcessor("org.jetbrains:annotations:16.0.1")
     implementation(files("../dynamicnoise-generation/build/libs/dynamicnoise-generation-1.1.0.jar"))
+
+    testImplementation(platform("org.junit:junit-bom:5.10.0"))
+    testImplementation("org.junit.jupiter:junit-jupiter")
+    testRuntimeOnly("org.junit.platform:junit-platform-launcher")
 }
 
 tasks.compileJava{
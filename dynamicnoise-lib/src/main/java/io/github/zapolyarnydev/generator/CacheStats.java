@@ -0,0 +1,22 @@
+package io.github.zapolyarnydev.generator;
+
+/**
+ * A snapshot of the counters of a cache.
+ *
+ * @param hits      The number of lookups answered from the cache.
+ * @param misses    The number of lookups that had to create a new entry.
+ * @param evictions The number of entries removed to respect the cache bound.
+ * @param size      The number of entries currently cached.
+ */
+public record CacheStats(long hits, long misses, long evictions, long size) {
+
+    /**
+     * Returns the fraction of lookups answered from the cache, or {@code 0} if there were no lookups.
+     *
+     * @return The hit rate between 0 and 1.
+     */
+    public double hitRate() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+}
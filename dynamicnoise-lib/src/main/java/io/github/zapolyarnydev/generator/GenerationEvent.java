@@ -0,0 +1,57 @@
+package io.github.zapolyarnydev.generator;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * A JFR event committed for every generated map and chunk. The duration of the event spans the whole generation,
+ * and its thread is the one that filled the map.
+ * <p>
+ * The event is recorded by any running recording, for example one started with
+ * {@code -XX:StartFlightRecording:filename=noise.jfr}, and shows up under <i>DynamicNoise</i> in JDK Mission Control.
+ * Noise type, seed, scale and octaves identify the parameter set of the generation.
+ */
+@Name("io.github.zapolyarnydev.Generation")
+@Label("Noise Generation")
+@Category("DynamicNoise")
+@Description("Generation of a noise map or chunk")
+@StackTrace(false)
+final class GenerationEvent extends jdk.jfr.Event {
+
+    @Label("Noise Type")
+    String noiseType;
+
+    @Label("Seed")
+    int seed;
+
+    @Label("Scale")
+    int scale;
+
+    @Label("Octaves")
+    int octaves;
+
+    @Label("Dimension")
+    int dimension;
+
+    @Label("Samples")
+    long samples;
+
+    @Label("Writer Setup")
+    @Description("Time spent creating or looking up the noise writer")
+    @Timespan
+    long writerSetup;
+
+    @Label("Fill")
+    @Description("Time spent writing the samples")
+    @Timespan
+    long fill;
+
+    @Label("Normalize")
+    @Description("Time spent rescaling the samples to the bounds after they were written")
+    @Timespan
+    long normalize;
+}
@@ -0,0 +1,50 @@
+package io.github.zapolyarnydev.generator;
+
+import io.github.zapolyarnydev.writer.NoiseProgress;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The result of an asynchronous generation, which can report how far the generation has got and stop it.
+ * <p>
+ * Cancelling a plain {@link CompletableFuture} only completes the future: the task behind it keeps filling the map
+ * to the end. Cancelling this future also cancels its {@link NoiseProgress}, so the writers stop at the next row
+ * and the executor is free for other work almost at once. The map is then left partially written.
+ * <pre>{@code
+ * GenerationFuture future = generator.generateForMapAsync(volume, noise, 0, 1);
+ * progressBar.setValue(future.getProgress().fraction());
+ * future.cancel(false); // the player left the area
+ * }</pre>
+ * Futures derived from this one, e.g. by {@link #thenRun}, are plain {@link CompletableFuture}s; cancelling them
+ * does not stop the generation.
+ */
+public final class GenerationFuture extends CompletableFuture<Void> {
+
+    private final NoiseProgress progress;
+
+    GenerationFuture(NoiseProgress progress) {
+        this.progress = progress;
+    }
+
+    /**
+     * Returns the progress of the generation, counted in samples written.
+     * Normalizing a map after it is filled is not counted, so the fraction can reach 1 shortly before completion.
+     *
+     * @return The progress shared by every map of the generation.
+     */
+    public NoiseProgress getProgress() {
+        return progress;
+    }
+
+    /**
+     * Cancels the future and stops the generation at the next row.
+     *
+     * @param mayInterruptIfRunning Ignored: the generation is stopped cooperatively rather than interrupted.
+     * @return {@code true} if the future is now cancelled.
+     */
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        progress.cancel();
+        return super.cancel(mayInterruptIfRunning);
+    }
+}
@@ -0,0 +1,21 @@
+package io.github.zapolyarnydev.generator;
+
+/**
+ * Receives the {@link GenerationMetrics} of every map a {@link NoiseGenerator} or {@link NoiseChunkCache}
+ * generates, for example to feed a metrics registry:
+ * <pre>{@code
+ * generator.setListener(metrics -> fillTimer.record(metrics.fillNanos(), TimeUnit.NANOSECONDS));
+ * }</pre>
+ * The listener is called on the thread that generated the map, right after it is filled, so it should return quickly.
+ * Generations are only timed while a listener is set or a JFR recording is running.
+ */
+@FunctionalInterface
+public interface GenerationListener {
+
+    /**
+     * Called after a map has been generated.
+     *
+     * @param metrics The parameters and phase timings of the generation.
+     */
+    void onGeneration(GenerationMetrics metrics);
+}
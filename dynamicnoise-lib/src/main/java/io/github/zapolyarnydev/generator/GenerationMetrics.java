@@ -0,0 +1,30 @@
+package io.github.zapolyarnydev.generator;
+
+/**
+ * The parameters and phase timings of one generation, reported to a {@link GenerationListener}.
+ * Layers and graphs combine several noises; they are reported with a seed, scale and octave count of {@code 0}.
+ *
+ * @param noiseType        The simple class name of the noise, or {@code Layers} or {@code Graph}.
+ * @param seed             The seed of the noise.
+ * @param scale            The scale of the noise.
+ * @param octaves          The number of octaves of the noise.
+ * @param dimension        The dimension of the generated map.
+ * @param samples          The number of generated samples.
+ * @param writerSetupNanos The time spent creating or looking up the noise writer, in nanoseconds.
+ * @param fillNanos        The time spent writing the samples, in nanoseconds.
+ * @param normalizeNanos   The time spent rescaling the samples after they were written, in nanoseconds,
+ *                         or {@code 0} if the map was not normalized or was normalized while it was written.
+ * @param thread           The thread that filled the map. Parallel generation also uses the threads of the pool.
+ */
+public record GenerationMetrics(String noiseType, int seed, int scale, int octaves, int dimension, long samples,
+                                long writerSetupNanos, long fillNanos, long normalizeNanos, Thread thread) {
+
+    /**
+     * Returns the time spent in all phases of the generation.
+     *
+     * @return The total time in nanoseconds.
+     */
+    public long totalNanos() {
+        return writerSetupNanos + fillNanos + normalizeNanos;
+    }
+}
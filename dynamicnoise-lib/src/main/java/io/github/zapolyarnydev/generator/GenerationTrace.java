@@ -0,0 +1,146 @@
+package io.github.zapolyarnydev.generator;
+
+import io.github.zapolyarnydev.noise.Noise;
+
+/**
+ * Times the phases of one generation and reports them as a {@link GenerationEvent} and to a {@link GenerationListener}.
+ * <p>
+ * A generation is only timed if a recording of the event is running or a listener is set. Otherwise
+ * {@link #DISABLED} is used, whose methods return immediately, so untraced generations do not read the clock.
+ * Phases are marked in order: the writer setup ends, the fill starts (by default when the setup ends) and ends,
+ * and the normalization, if any, ends.
+ */
+final class GenerationTrace {
+
+    static final GenerationTrace DISABLED = new GenerationTrace(null, null, null, 0, 0, 0);
+
+    private final GenerationEvent event;
+    private final GenerationListener listener;
+    private final String noiseType;
+    private final int seed;
+    private final int scale;
+    private final int octaves;
+
+    private final long start;
+    private long setupEnd;
+    private long fillStart;
+    private long fillEnd;
+    private long normalizeEnd;
+
+    private GenerationTrace(GenerationEvent event, GenerationListener listener, String noiseType, int seed, int scale, int octaves) {
+        this.event = event;
+        this.listener = listener;
+        this.noiseType = noiseType;
+        this.seed = seed;
+        this.scale = scale;
+        this.octaves = octaves;
+        this.start = noiseType == null ? 0 : System.nanoTime();
+    }
+
+    /**
+     * Starts tracing the generation of a single noise.
+     */
+    static GenerationTrace start(Noise noise, GenerationListener listener) {
+        return start(noise, noise.getSeed(), listener);
+    }
+
+    /**
+     * Starts tracing the generation of a single noise with another seed than its own.
+     */
+    static GenerationTrace start(Noise noise, int seed, GenerationListener listener) {
+        GenerationEvent event = new GenerationEvent();
+        if (!event.isEnabled()) {
+            if (listener == null) {
+                return DISABLED;
+            }
+            event = null;
+        }
+        return begin(new GenerationTrace(event, listener, noise.getClass().getSimpleName(),
+                seed, noise.getScale(), noise.getOctaves()));
+    }
+
+    /**
+     * Starts tracing the generation of a combination of noises, such as layers or a graph.
+     */
+    static GenerationTrace start(String noiseType, GenerationListener listener) {
+        GenerationEvent event = new GenerationEvent();
+        if (!event.isEnabled()) {
+            if (listener == null) {
+                return DISABLED;
+            }
+            event = null;
+        }
+        return begin(new GenerationTrace(event, listener, noiseType, 0, 0, 0));
+    }
+
+    private static GenerationTrace begin(GenerationTrace trace) {
+        if (trace.event != null) {
+            trace.event.begin();
+        }
+        return trace;
+    }
+
+    void setupDone() {
+        if (this == DISABLED) {
+            return;
+        }
+        setupEnd = System.nanoTime();
+        fillStart = setupEnd;
+    }
+
+    /**
+     * Marks the start of the fill when it does not follow the setup directly, e.g. after waiting for an executor.
+     */
+    void fillStarted() {
+        if (this == DISABLED) {
+            return;
+        }
+        fillStart = System.nanoTime();
+    }
+
+    void fillDone() {
+        if (this == DISABLED) {
+            return;
+        }
+        fillEnd = System.nanoTime();
+        normalizeEnd = fillEnd;
+    }
+
+    void normalizeDone() {
+        if (this == DISABLED) {
+            return;
+        }
+        normalizeEnd = System.nanoTime();
+    }
+
+    /**
+     * Completes the trace of a map of the given shape, committing the event and notifying the listener.
+     */
+    void end(int dimension, long samples) {
+        if (this == DISABLED) {
+            return;
+        }
+        long writerSetup = setupEnd - start;
+        long fill = fillEnd - fillStart;
+        long normalize = normalizeEnd - fillEnd;
+        if (event != null) {
+            event.end();
+            if (event.shouldCommit()) {
+                event.noiseType = noiseType;
+                event.seed = seed;
+                event.scale = scale;
+                event.octaves = octaves;
+                event.dimension = dimension;
+                event.samples = samples;
+                event.writerSetup = writerSetup;
+                event.fill = fill;
+                event.normalize = normalize;
+                event.commit();
+            }
+        }
+        if (listener != null) {
+            listener.onGeneration(new GenerationMetrics(noiseType, seed, scale, octaves, dimension, samples,
+                    writerSetup, fill, normalize, Thread.currentThread()));
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package io.github.zapolyarnydev.generator;
+
+import io.github.zapolyarnydev.writer.AbstractNoiseWriter;
+import io.github.zapolyarnydev.writer.CompiledNoiseWriter;
+import io.github.zapolyarnydev.writer.NoiseOperation;
+import io.github.zapolyarnydev.writer.NoiseWriter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compiles a {@link NoiseGraph} into the program of a {@link CompiledNoiseWriter}.
+ * <p>
+ * Nodes are visited depth-first, so the inputs of an operation always get lower slots. Before a slot is added,
+ * the operation is looked up among the existing ones: operation records compare by their input slots, so equal
+ * subgraphs collapse into one slot bottom-up. Sources compare by the info record of their noise, so two noise
+ * objects with the same type and parameters share a source. A node object reached along several paths is
+ * compiled only once, so graphs that reuse nodes, such as {@code g.add(g)} chains, compile in linear time.
+ */
+class GraphCompiler {
+
+    private final List<NoiseOperation> program = new ArrayList<>();
+    private final Map<Object, Integer> slots = new HashMap<>();
+    private final Map<NoiseGraph, Integer> compiled = new IdentityHashMap<>();
+
+    private GraphCompiler() {
+    }
+
+    /**
+     * Compiles the graph, capturing the current parameters of its sources.
+     *
+     * @param graph The graph to compile.
+     * @return A writer evaluating the graph.
+     * @throws IllegalArgumentException If {@code graph} is null or contains a noise that cannot be generated.
+     */
+    static CompiledNoiseWriter compile(NoiseGraph graph) {
+        if (graph == null) {
+            throw new IllegalArgumentException("Noise graph cannot be null.");
+        }
+        GraphCompiler compiler = new GraphCompiler();
+        // A node cannot equal one of its own descendants, so the root always gets the last slot.
+        compiler.slot(graph);
+        return new CompiledNoiseWriter(compiler.program);
+    }
+
+    private int slot(NoiseGraph node) {
+        Integer slot = compiled.get(node);
+        if (slot == null) {
+            slot = visit(node);
+            compiled.put(node, slot);
+        }
+        return slot;
+    }
+
+    private int visit(NoiseGraph node) {
+        return switch (node) {
+            case NoiseGraph.Source source -> {
+                Object info = WriterManager.getInfo(source.noise());
+                NoiseWriter writer = info == null ? null : WriterManager.getWriter(source.noise());
+                if (!(writer instanceof AbstractNoiseWriter noiseWriter)) {
+                    throw new IllegalArgumentException("Unsupported noise type: " + source.noise().getClass().getName());
+                }
+                yield slot(info, new NoiseOperation.Source(noiseWriter));
+            }
+            case NoiseGraph.Constant constant -> add(new NoiseOperation.Constant(constant.value()));
+            case NoiseGraph.Add add -> add(new NoiseOperation.Add(slot(add.left()), slot(add.right())));
+            case NoiseGraph.Multiply multiply -> add(new NoiseOperation.Multiply(slot(multiply.left()), slot(multiply.right())));
+            case NoiseGraph.Abs abs -> add(new NoiseOperation.Abs(slot(abs.input())));
+            case NoiseGraph.Clamp clamp -> add(new NoiseOperation.Clamp(slot(clamp.input()), clamp.min(), clamp.max()));
+            case NoiseGraph.Remap remap -> add(new NoiseOperation.Remap(slot(remap.input()), remap.fromMin(), remap.toMin(),
+                    (remap.toMax() - remap.toMin()) / (remap.fromMax() - remap.fromMin())));
+            case NoiseGraph.Warp warp -> add(new NoiseOperation.Warp(slot(warp.input()),
+                    warp.dx() == null ? -1 : slot(warp.dx()),
+                    warp.dy() == null ? -1 : slot(warp.dy()),
+                    warp.dz() == null ? -1 : slot(warp.dz()),
+                    warp.strength()));
+        };
+    }
+
+    private int add(NoiseOperation operation) {
+        return slot(operation, operation);
+    }
+
+    private int slot(Object key, NoiseOperation operation) {
+        Integer slot = slots.get(key);
+        if (slot == null) {
+            slot = program.size();
+            program.add(operation);
+            slots.put(key, slot);
+        }
+        return slot;
+    }
+}
@@ -0,0 +1,343 @@
+package io.github.zapolyarnydev.generator;
+
+import io.github.zapolyarnydev.buffer.DoubleNoiseBuffer;
+import io.github.zapolyarnydev.noise.Noise;
+import io.github.zapolyarnydev.writer.NoiseWindow;
+import io.github.zapolyarnydev.writer.NoiseWriter;
+
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A noise map of a fixed size whose samples are generated only when they are read.
+ * <p>
+ * The map is divided into square (2D) or cubic (3D) tiles. The first read of a tile generates the whole tile and
+ * keeps it, so the cost of the map grows with the area that is actually read rather than with its declared size:
+ * <pre>{@code
+ * LazyNoiseMap world = new LazyNoiseMap(noise, 1 << 20, 1 << 20);
+ * double height = world.get(playerX, playerZ);
+ * }</pre>
+ * Sample {@code (x, y)} equals cell {@code [x][y]} of a map generated with
+ * {@link NoiseGenerator#generateForMap(io.github.zapolyarnydev.map.NoiseMap)}, before normalization.
+ * <p>
+ * The map is safe for concurrent readers. Reading a generated tile does not lock, and if several threads read the
+ * same missing tile at the same time it is generated only once, on the first of them, while the others wait.
+ * <p>
+ * With a memory limit, tiles beyond it are evicted and generated again when they are next read. Eviction follows the
+ * clock algorithm: tiles read since the last sweep get a second chance, so frequently read tiles stay in memory
+ * without the bookkeeping of an exact least recently used order on every read.
+ */
+public class LazyNoiseMap {
+
+    /**
+     * The default number of cells along each side of a tile, per dimension: 32 KB of samples per tile.
+     */
+    private static final int[] DEFAULT_TILE_SIZE = {0, 4096, 64, 16};
+
+    private final NoiseWriter writer;
+    private final int dimension;
+    private final int width;
+    private final int height;
+    private final int depth;
+
+    private final int tileWidth;
+    private final int tileHeight;
+    private final int tileDepth;
+    private final int tilesY;
+    private final int tilesZ;
+
+    private final AtomicReferenceArray<DoubleNoiseBuffer> tiles;
+    private final ConcurrentHashMap<Integer, CompletableFuture<DoubleNoiseBuffer>> loading = new ConcurrentHashMap<>();
+
+    /**
+     * The tiles currently in memory, for the clock sweep, or {@code null} if the limit allows every tile.
+     */
+    private final int[] residents;
+    private final AtomicIntegerArray referenced;
+    private int residentCount;
+    private int clockHand;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Creates a lazy map of the given noise that keeps every generated tile.
+     *
+     * @param noise The noise to generate. Its current parameters are captured.
+     * @param size  The size of the map along each dimension: 1 to 3 values.
+     * @throws IllegalArgumentException If {@code noise} is null or of an unknown type, or the size is invalid.
+     */
+    public LazyNoiseMap(Noise noise, int... size) {
+        this(writer(noise), 0, Long.MAX_VALUE, size);
+    }
+
+    /**
+     * Creates a lazy map of a noise graph with the given tile size and memory limit.
+     *
+     * @param graph    The graph to generate, see {@link NoiseGraph}. The parameters of its sources are captured.
+     * @param tileSize The number of cells along each side of a tile, or 0 for the default of the dimension.
+     * @param maxBytes The maximum amount of tile data kept in memory, in bytes. At least one tile is always kept.
+     * @param size     The size of the map along each dimension: 1 to 3 values.
+     * @throws IllegalArgumentException If {@code graph} is null or uses an unsupported noise type,
+     *                                  or the size, tile size or memory limit is invalid.
+     */
+    public LazyNoiseMap(NoiseGraph graph, int tileSize, long maxBytes, int... size) {
+        this(GraphCompiler.compile(graph), tileSize, maxBytes, size);
+    }
+
+    private LazyNoiseMap(NoiseWriter writer, int tileSize, long maxBytes, int[] size) {
+        if (size == null || size.length < 1 || size.length > 3) {
+            throw new IllegalArgumentException("Map must have 1 to 3 dimensions.");
+        }
+        for (int length : size) {
+            if (length <= 0) {
+                throw new IllegalArgumentException("Map dimensions must be positive.");
+            }
+        }
+        if (tileSize < 0) {
+            throw new IllegalArgumentException("Tile size cannot be negative.");
+        }
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("Memory limit must be positive.");
+        }
+        this.writer = writer;
+        this.dimension = size.length;
+        this.width = size[0];
+        this.height = dimension > 1 ? size[1] : 1;
+        this.depth = dimension > 2 ? size[2] : 1;
+
+        int side = tileSize == 0 ? DEFAULT_TILE_SIZE[dimension] : tileSize;
+        this.tileWidth = Math.min(side, width);
+        this.tileHeight = dimension > 1 ? Math.min(side, height) : 1;
+        this.tileDepth = dimension > 2 ? Math.min(side, depth) : 1;
+        long tilesX = ceilDiv(width, tileWidth);
+        this.tilesY = (int) ceilDiv(height, tileHeight);
+        this.tilesZ = (int) ceilDiv(depth, tileDepth);
+        long tileCount = tilesX * tilesY * tilesZ;
+        if (tileCount > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Map of " + tileCount + " tiles is too large; use larger tiles.");
+        }
+        this.tiles = new AtomicReferenceArray<>((int) tileCount);
+
+        long tileBytes = (long) tileWidth * tileHeight * tileDepth * Double.BYTES;
+        long maxTiles = Math.max(1, maxBytes / tileBytes);
+        this.residents = maxTiles < tileCount ? new int[(int) maxTiles] : null;
+        this.referenced = residents == null ? null : new AtomicIntegerArray((int) tileCount);
+    }
+
+    private static NoiseWriter writer(Noise noise) {
+        if (noise == null) {
+            throw new IllegalArgumentException("Noise generator cannot be null.");
+        }
+        NoiseWriter writer = WriterManager.getWriter(noise);
+        if (writer == null) {
+            throw new IllegalArgumentException("Unsupported noise type: " + noise.getClass().getName());
+        }
+        return writer;
+    }
+
+    public int getDimensionSize() {
+        return dimension;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * Returns the sample at the given index of a 1D map, generating its tile if needed.
+     *
+     * @param x The index of the sample.
+     * @return The noise value.
+     * @throws IndexOutOfBoundsException If the index lies outside the map.
+     */
+    public double get(int x) {
+        return get(x, 0, 0);
+    }
+
+    /**
+     * Returns the sample at the given cell of a 2D map, generating its tile if needed.
+     *
+     * @param x The x index of the cell.
+     * @param y The y index of the cell.
+     * @return The noise value.
+     * @throws IndexOutOfBoundsException If the cell lies outside the map.
+     */
+    public double get(int x, int y) {
+        return get(x, y, 0);
+    }
+
+    /**
+     * Returns the sample at the given cell of a 3D map, generating its tile if needed.
+     *
+     * @param x The x index of the cell.
+     * @param y The y index of the cell.
+     * @param z The z index of the cell.
+     * @return The noise value.
+     * @throws IndexOutOfBoundsException If the cell lies outside the map.
+     */
+    public double get(int x, int y, int z) {
+        Objects.checkIndex(x, width);
+        Objects.checkIndex(y, height);
+        Objects.checkIndex(z, depth);
+        int tileX = x / tileWidth;
+        int tileY = y / tileHeight;
+        int tileZ = z / tileDepth;
+        DoubleNoiseBuffer tile = tile((tileX * tilesY + tileY) * tilesZ + tileZ);
+        return tile.get(x - tileX * tileWidth, y - tileY * tileHeight, z - tileZ * tileDepth);
+    }
+
+    /**
+     * Returns the counters of the tiles: reads of generated tiles, tile generations, evictions and
+     * the number of tiles in memory.
+     *
+     * @return A snapshot of the tile counters.
+     */
+    public CacheStats stats() {
+        int size = 0;
+        for (int index = 0; index < tiles.length(); index++) {
+            if (tiles.get(index) != null) {
+                size++;
+            }
+        }
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), size);
+    }
+
+    /**
+     * Drops every generated tile. Tiles are generated again when they are next read; tiles being generated
+     * during the call may stay in memory.
+     */
+    public void clear() {
+        if (residents == null) {
+            for (int index = 0; index < tiles.length(); index++) {
+                tiles.set(index, null);
+            }
+            return;
+        }
+        synchronized (residents) {
+            for (int i = 0; i < residentCount; i++) {
+                tiles.set(residents[i], null);
+            }
+            residentCount = 0;
+            clockHand = 0;
+        }
+    }
+
+    private DoubleNoiseBuffer tile(int index) {
+        DoubleNoiseBuffer tile = tiles.get(index);
+        if (tile != null) {
+            if (referenced != null) {
+                referenced.setPlain(index, 1);
+            }
+            hits.increment();
+            return tile;
+        }
+        return load(index);
+    }
+
+    /**
+     * Generates a missing tile on the calling thread, or waits for the thread already generating it.
+     */
+    private DoubleNoiseBuffer load(int index) {
+        CompletableFuture<DoubleNoiseBuffer> created = new CompletableFuture<>();
+        CompletableFuture<DoubleNoiseBuffer> pending = loading.putIfAbsent(index, created);
+        if (pending != null) {
+            hits.increment();
+            return join(pending);
+        }
+        try {
+            // The tile may have been stored after the first check and before this thread registered.
+            DoubleNoiseBuffer tile = tiles.get(index);
+            if (tile == null) {
+                misses.increment();
+                tile = generate(index);
+                store(index, tile);
+            } else {
+                hits.increment();
+            }
+            created.complete(tile);
+            return tile;
+        } catch (Throwable e) {
+            created.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(index, created);
+        }
+    }
+
+    private DoubleNoiseBuffer generate(int index) {
+        int tileX = index / (tilesY * tilesZ);
+        int tileY = index / tilesZ % tilesY;
+        int tileZ = index % tilesZ;
+        int originX = tileX * tileWidth;
+        int originY = tileY * tileHeight;
+        int originZ = tileZ * tileDepth;
+        int tileWidth = Math.min(this.tileWidth, width - originX);
+        DoubleNoiseBuffer tile = switch (dimension) {
+            case 1 -> new DoubleNoiseBuffer(tileWidth);
+            case 2 -> new DoubleNoiseBuffer(tileWidth, Math.min(tileHeight, height - originY));
+            default -> new DoubleNoiseBuffer(tileWidth, Math.min(tileHeight, height - originY), Math.min(tileDepth, depth - originZ));
+        };
+        writer.write(tile, NoiseWindow.at(originX, originY, originZ));
+        return tile;
+    }
+
+    /**
+     * Publishes a generated tile and, if the memory limit is reached, evicts the first resident tile the clock hand
+     * finds that has not been read since the hand last passed it.
+     */
+    private void store(int index, DoubleNoiseBuffer tile) {
+        if (residents == null) {
+            tiles.set(index, tile);
+            return;
+        }
+        synchronized (residents) {
+            if (residentCount < residents.length) {
+                residents[residentCount++] = index;
+            } else {
+                while (referenced.get(residents[clockHand]) != 0) {
+                    referenced.set(residents[clockHand], 0);
+                    clockHand = (clockHand + 1) % residents.length;
+                }
+                tiles.set(residents[clockHand], null);
+                evictions.increment();
+                residents[clockHand] = index;
+                clockHand = (clockHand + 1) % residents.length;
+            }
+            referenced.set(index, 0);
+            tiles.set(index, tile);
+        }
+    }
+
+    private static long ceilDiv(long a, long b) {
+        return (a + b - 1) / b;
+    }
+
+    private static DoubleNoiseBuffer join(CompletableFuture<DoubleNoiseBuffer> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,290 @@
+package io.github.zapolyarnydev.generator;
+
+import io.github.zapolyarnydev.buffer.DoubleNoiseBuffer;
+import io.github.zapolyarnydev.noise.Noise;
+import io.github.zapolyarnydev.writer.NoiseWindow;
+import io.github.zapolyarnydev.writer.NoiseWriter;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A thread-safe cache of noise chunks: square (2D) or cubic (3D) tiles of an unbounded world,
+ * generated on demand with {@link NoiseGenerator#generateForMap(io.github.zapolyarnydev.map.NoiseMap, Noise, NoiseWindow)}.
+ * <p>
+ * A chunk is identified by its chunk coordinates together with the noise type and parameters, so the same cache
+ * can serve several noises. If several threads request the same missing chunk at the same time, it is generated
+ * only once and every caller receives the same result. Chunks are generated on the executor of the cache,
+ * and {@link #getChunkAsync} never blocks the calling thread.
+ * <p>
+ * The cache holds at most {@code maxBytes} of chunk data and evicts the least recently used chunks beyond that.
+ * <pre>{@code
+ * NoiseChunkCache chunks = new NoiseChunkCache(32, 64L << 20);
+ * DoubleNoiseBuffer chunk = chunks.getChunk(noise, chunkX, chunkZ);
+ * double height = chunk.get(localX, localZ);
+ * }</pre>
+ * Chunks are shared between all callers and must not be modified. They hold the raw noise values, without normalization,
+ * so that neighbouring chunks stitch seamlessly.
+ */
+public class NoiseChunkCache {
+
+    private final int chunkSize;
+    private final long maxBytes;
+    private final Executor executor;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private final LinkedHashMap<ChunkKey, CompletableFuture<DoubleNoiseBuffer>> chunks = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+
+    private volatile GenerationListener listener;
+
+    /**
+     * Creates a chunk cache that generates chunks on the common fork-join pool.
+     *
+     * @param chunkSize The number of cells along each side of a chunk.
+     * @param maxBytes  The maximum amount of chunk data kept in the cache, in bytes.
+     * @throws IllegalArgumentException If {@code chunkSize} or {@code maxBytes} is not positive.
+     */
+    public NoiseChunkCache(int chunkSize, long maxBytes) {
+        this(chunkSize, maxBytes, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a chunk cache that generates chunks on the given executor.
+     *
+     * @param chunkSize The number of cells along each side of a chunk.
+     * @param maxBytes  The maximum amount of chunk data kept in the cache, in bytes.
+     * @param executor  The executor on which missing chunks are generated.
+     * @throws IllegalArgumentException If {@code chunkSize} or {@code maxBytes} is not positive, or {@code executor} is null.
+     */
+    public NoiseChunkCache(int chunkSize, long maxBytes, Executor executor) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive.");
+        }
+        if (maxBytes <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive.");
+        }
+        if (executor == null) {
+            throw new IllegalArgumentException("Executor cannot be null.");
+        }
+        this.chunkSize = chunkSize;
+        this.maxBytes = maxBytes;
+        this.executor = executor;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    public GenerationListener getListener() {
+        return listener;
+    }
+
+    /**
+     * Sets the listener that receives the parameters and phase timings of every chunk the cache generates.
+     * Chunks served from the cache are not reported.
+     *
+     * @param listener The listener, or {@code null} to stop reporting.
+     */
+    public void setListener(GenerationListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Returns the 2D chunk at the given chunk coordinates, generating it if it is not cached.
+     * Cell {@code (x, y)} of the chunk holds the noise at world coordinates
+     * {@code (chunkX * chunkSize + x, chunkY * chunkSize + y)}.
+     *
+     * @param noise  The noise to generate.
+     * @param chunkX The x coordinate of the chunk.
+     * @param chunkY The y coordinate of the chunk.
+     * @return The chunk, a {@code chunkSize x chunkSize} buffer.
+     * @throws IllegalArgumentException If {@code noise} is null or of an unknown type.
+     */
+    public DoubleNoiseBuffer getChunk(Noise noise, int chunkX, int chunkY) {
+        return join(getChunkAsync(noise, chunkX, chunkY));
+    }
+
+    /**
+     * Returns the 3D chunk at the given chunk coordinates, generating it if it is not cached.
+     *
+     * @param noise  The noise to generate.
+     * @param chunkX The x coordinate of the chunk.
+     * @param chunkY The y coordinate of the chunk.
+     * @param chunkZ The z coordinate of the chunk.
+     * @return The chunk, a {@code chunkSize x chunkSize x chunkSize} buffer.
+     * @throws IllegalArgumentException If {@code noise} is null or of an unknown type.
+     */
+    public DoubleNoiseBuffer getChunk(Noise noise, int chunkX, int chunkY, int chunkZ) {
+        return join(getChunkAsync(noise, chunkX, chunkY, chunkZ));
+    }
+
+    /**
+     * Asynchronously returns the 2D chunk at the given chunk coordinates.
+     * The returned future is already complete if the chunk is cached.
+     *
+     * @param noise  The noise to generate.
+     * @param chunkX The x coordinate of the chunk.
+     * @param chunkY The y coordinate of the chunk.
+     * @return A {@link CompletableFuture} that completes with the chunk.
+     * @throws IllegalArgumentException If {@code noise} is null or of an unknown type.
+     */
+    public CompletableFuture<DoubleNoiseBuffer> getChunkAsync(Noise noise, int chunkX, int chunkY) {
+        return lookup(noise, 2, chunkX, chunkY, 0);
+    }
+
+    /**
+     * Asynchronously returns the 3D chunk at the given chunk coordinates.
+     * The returned future is already complete if the chunk is cached.
+     *
+     * @param noise  The noise to generate.
+     * @param chunkX The x coordinate of the chunk.
+     * @param chunkY The y coordinate of the chunk.
+     * @param chunkZ The z coordinate of the chunk.
+     * @return A {@link CompletableFuture} that completes with the chunk.
+     * @throws IllegalArgumentException If {@code noise} is null or of an unknown type.
+     */
+    public CompletableFuture<DoubleNoiseBuffer> getChunkAsync(Noise noise, int chunkX, int chunkY, int chunkZ) {
+        return lookup(noise, 3, chunkX, chunkY, chunkZ);
+    }
+
+    /**
+     * Returns the counters of the cache. Chunks still being generated count towards the size.
+     *
+     * @return A snapshot of the cache counters.
+     */
+    public CacheStats stats() {
+        int size;
+        synchronized (chunks) {
+            size = chunks.size();
+        }
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), size);
+    }
+
+    /**
+     * Removes all chunks. Chunks still being generated complete for the callers already waiting on them.
+     * The counters are kept.
+     */
+    public void clear() {
+        synchronized (chunks) {
+            chunks.clear();
+            bytes = 0;
+        }
+    }
+
+    private CompletableFuture<DoubleNoiseBuffer> lookup(Noise noise, int dimension, int chunkX, int chunkY, int chunkZ) {
+        if (noise == null) {
+            throw new IllegalArgumentException("Noise generator cannot be null.");
+        }
+        Object info = WriterManager.getInfo(noise);
+        if (info == null) {
+            throw new IllegalArgumentException("Unsupported noise type: " + noise.getClass().getName());
+        }
+        ChunkKey key = new ChunkKey(info, dimension, chunkX, chunkY, chunkZ);
+
+        CompletableFuture<DoubleNoiseBuffer> future;
+        synchronized (chunks) {
+            future = chunks.get(key);
+            if (future != null) {
+                hits.increment();
+                return future;
+            }
+            future = new CompletableFuture<>();
+            chunks.put(key, future);
+            bytes += chunkBytes(dimension);
+            evict();
+        }
+
+        misses.increment();
+        CompletableFuture<DoubleNoiseBuffer> loading = future;
+        GenerationTrace trace = GenerationTrace.start(noise, listener);
+        NoiseWriter writer = WriterManager.getWriter(noise);
+        trace.setupDone();
+        try {
+            executor.execute(() -> generate(key, writer, loading, trace));
+        } catch (RuntimeException e) {
+            fail(key, loading, e);
+        }
+        return loading;
+    }
+
+    private void generate(ChunkKey key, NoiseWriter writer, CompletableFuture<DoubleNoiseBuffer> future, GenerationTrace trace) {
+        try {
+            trace.fillStarted();
+            DoubleNoiseBuffer chunk = key.dimension() == 2
+                    ? new DoubleNoiseBuffer(chunkSize, chunkSize)
+                    : new DoubleNoiseBuffer(chunkSize, chunkSize, chunkSize);
+            writer.write(chunk, NoiseWindow.at((double) key.chunkX() * chunkSize, (double) key.chunkY() * chunkSize,
+                    (double) key.chunkZ() * chunkSize));
+            trace.fillDone();
+            trace.end(key.dimension(), chunk.size());
+            future.complete(chunk);
+        } catch (Throwable e) {
+            fail(key, future, e);
+        }
+    }
+
+    /**
+     * Removes a chunk whose generation failed, so that the next request retries it.
+     */
+    private void fail(ChunkKey key, CompletableFuture<DoubleNoiseBuffer> future, Throwable cause) {
+        synchronized (chunks) {
+            if (chunks.remove(key, future)) {
+                bytes -= chunkBytes(key.dimension());
+            }
+        }
+        future.completeExceptionally(cause);
+    }
+
+    /**
+     * Removes the least recently used chunks until the cache fits in {@link #maxBytes}.
+     * The most recently used chunk is always kept. Must be called while holding the lock on {@link #chunks}.
+     */
+    private void evict() {
+        Iterator<Map.Entry<ChunkKey, CompletableFuture<DoubleNoiseBuffer>>> iterator = chunks.entrySet().iterator();
+        while (bytes > maxBytes && chunks.size() > 1) {
+            ChunkKey eldest = iterator.next().getKey();
+            iterator.remove();
+            bytes -= chunkBytes(eldest.dimension());
+            evictions.increment();
+        }
+    }
+
+    private long chunkBytes(int dimension) {
+        long cells = (long) chunkSize * chunkSize;
+        if (dimension == 3) {
+            cells *= chunkSize;
+        }
+        return cells * Double.BYTES;
+    }
+
+    private static DoubleNoiseBuffer join(CompletableFuture<DoubleNoiseBuffer> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private record ChunkKey(Object info, int dimension, int chunkX, int chunkY, int chunkZ) {
+    }
+}
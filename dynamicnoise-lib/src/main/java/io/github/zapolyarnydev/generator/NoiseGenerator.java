@@ -4,10 +4,26 @@ import lombok.Data;
 import io.github.zapolyarnydev.map.NoiseMap;
 import io.github.zapolyarnydev.noise.Noise;
 import io.github.zapolyarnydev.thread.VirtualThreadExecutor;
+import io.github.zapolyarnydev.writer.AbstractNoiseWriter;
+import io.github.zapolyarnydev.writer.LayeredNoiseWriter;
+import io.github.zapolyarnydev.writer.NoiseProgress;
+import io.github.zapolyarnydev.writer.NoiseRange;
+import io.github.zapolyarnydev.writer.NoiseSampler;
+import io.github.zapolyarnydev.writer.NoiseWindow;
 import io.github.zapolyarnydev.writer.NoiseWriter;
+import io.github.zapolyarnydev.writer.NormalizedNoiseWriter;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.ObjIntConsumer;
 
 /**
  * This class is responsible for generating noise and populating it into a noise map
@@ -36,6 +52,36 @@ public class NoiseGenerator {
      */
     private double upperBound = 128;
 
+    /**
+     * Whether maps are filled in parallel. When enabled, {@code generateForMap} splits the map into
+     * row bands (2D) or slabs (3D) and fills them on {@link #pool}, which also runs the normalization.
+     * The result is identical to serial generation.
+     */
+    private boolean parallel = false;
+
+    /**
+     * The fork-join pool used for parallel generation. Defaults to the common pool.
+     */
+    private ForkJoinPool pool = ForkJoinPool.commonPool();
+
+    /**
+     * How {@link #generateForMap(NoiseMap, Noise, double, double)} maps the noise to the bounds.
+     * Defaults to {@link Normalization#MAP_RANGE}.
+     */
+    private Normalization normalization = Normalization.MAP_RANGE;
+
+    /**
+     * Receives the parameters and phase timings of every map this generator fills, or {@code null}.
+     * The same data is emitted as a JFR event when a recording enables it, see {@link GenerationListener}.
+     */
+    private GenerationListener listener;
+
+    /**
+     * The executor running the asynchronous methods. Defaults to {@link VirtualThreadExecutor#shared()}, which runs
+     * at most one generation per core at a time and queues the rest.
+     */
+    private Executor executor = VirtualThreadExecutor.shared();
+
     /**
      * Constructs a noise generator with the specified default noise.
      *
@@ -67,17 +113,25 @@ public class NoiseGenerator {
      * @throws IllegalArgumentException If {@code defaultNoise} is not set.
      */
     public void generateForMap(NoiseMap map) {
+        generateForMap(map, (NoiseProgress) null);
+    }
+
+    private void generateForMap(NoiseMap map, NoiseProgress progress) {
         if (defaultNoise == null) {
             throw new IllegalArgumentException("Default noise generator is not set.");
         }
+        GenerationTrace trace = GenerationTrace.start(defaultNoise, listener);
         NoiseWriter writer = WriterManager.getWriter(defaultNoise);
-        writer.write(map.getDoubleArray());
-
+        trace.setupDone();
+        write(writer, map, trace, progress);
     }
 
 
     /**
      * Generates noise for the specified noise map using custom noise and range bounds.
+     * The smallest and largest samples are tracked while the map is written, so normalizing it
+     * takes a single pass over the map. With {@link Normalization#NOISE_BOUNDS} the samples are instead
+     * rescaled from the bounds of the noise as they are written.
      *
      * @param map        The {@link NoiseMap} to populate with noise.
      * @param noise      The noise generator to use.
@@ -86,69 +140,698 @@ public class NoiseGenerator {
      * @throws IllegalArgumentException If the bounds are invalid (e.g., {@code lowerBound > upperBound}).
      */
     public void generateForMap(NoiseMap map, Noise noise, double lowerBound, double upperBound) {
+        generateForMap(map, noise, lowerBound, upperBound, null);
+    }
+
+    private void generateForMap(NoiseMap map, Noise noise, double lowerBound, double upperBound, NoiseProgress progress) {
         if (noise == null) {
             throw new IllegalArgumentException("Noise generator cannot be null.");
         }
         if (lowerBound > upperBound) {
             throw new IllegalArgumentException("Lower bound cannot be greater than upper bound.");
         }
+        GenerationTrace trace = GenerationTrace.start(noise, listener);
+        NoiseWriter writer = WriterManager.getWriter(noise);
+        trace.setupDone();
+        generate(writer, map, lowerBound, upperBound, trace, progress);
+    }
+
+    /**
+     * Generates the weighted sum of several noise layers into the specified noise map, without normalization.
+     * Every sample evaluates all layers, so no map is allocated per layer: the result equals generating each layer
+     * into a map of its own and adding them with {@link NoiseMap#combine}, but the target is written only once.
+     * <pre>{@code
+     * generator.generateForMap(terrain, List.of(
+     *         new NoiseLayer(continents, 1),
+     *         new NoiseLayer(hills, 0.25),
+     *         new NoiseLayer(detail, 0.05)));
+     * }</pre>
+     * Like single noises, layered maps are filled in parallel when {@link #parallel} is enabled.
+     *
+     * @param map    The {@link NoiseMap} to populate with noise.
+     * @param layers The layers to sum, in order.
+     * @throws IllegalArgumentException If {@code layers} is null or empty.
+     */
+    public void generateForMap(NoiseMap map, List<NoiseLayer> layers) {
+        GenerationTrace trace = GenerationTrace.start("Layers", listener);
+        NoiseWriter writer = layered(layers);
+        trace.setupDone();
+        write(writer, map, trace, null);
+    }
+
+    /**
+     * Generates the weighted sum of several noise layers into the specified noise map and normalizes it
+     * to the range bounds, following {@link #normalization}.
+     *
+     * @param map        The {@link NoiseMap} to populate with noise.
+     * @param layers     The layers to sum, in order.
+     * @param lowerBound The lower bound for noise values.
+     * @param upperBound The upper bound for noise values.
+     * @throws IllegalArgumentException If {@code layers} is null or empty, or {@code lowerBound > upperBound}.
+     * @see #generateForMap(NoiseMap, List)
+     */
+    public void generateForMap(NoiseMap map, List<NoiseLayer> layers, double lowerBound, double upperBound) {
+        if (lowerBound > upperBound) {
+            throw new IllegalArgumentException("Lower bound cannot be greater than upper bound.");
+        }
+        GenerationTrace trace = GenerationTrace.start("Layers", listener);
+        NoiseWriter writer = layered(layers);
+        trace.setupDone();
+        generate(writer, map, lowerBound, upperBound, trace, null);
+    }
+
+    /**
+     * Generates a noise graph into the specified noise map, without normalization.
+     * The graph is compiled first: equal subgraphs are evaluated once per sample, and the whole recipe is computed
+     * in a single pass over the map, in parallel bands when {@link #parallel} is enabled.
+     *
+     * @param map   The {@link NoiseMap} to populate with noise.
+     * @param graph The graph to evaluate.
+     * @throws IllegalArgumentException If {@code graph} is null or uses an unsupported noise type.
+     * @see NoiseGraph
+     */
+    public void generateForMap(NoiseMap map, NoiseGraph graph) {
+        GenerationTrace trace = GenerationTrace.start("Graph", listener);
+        NoiseWriter writer = GraphCompiler.compile(graph);
+        trace.setupDone();
+        write(writer, map, trace, null);
+    }
+
+    /**
+     * Generates a noise graph into the specified noise map and normalizes it to the range bounds,
+     * following {@link #normalization}. With {@link Normalization#NOISE_BOUNDS} the bounds of the sources are
+     * propagated through the operators of the graph.
+     *
+     * @param map        The {@link NoiseMap} to populate with noise.
+     * @param graph      The graph to evaluate.
+     * @param lowerBound The lower bound for noise values.
+     * @param upperBound The upper bound for noise values.
+     * @throws IllegalArgumentException If {@code graph} is null or uses an unsupported noise type,
+     *                                  or {@code lowerBound > upperBound}.
+     * @see #generateForMap(NoiseMap, NoiseGraph)
+     */
+    public void generateForMap(NoiseMap map, NoiseGraph graph, double lowerBound, double upperBound) {
+        if (lowerBound > upperBound) {
+            throw new IllegalArgumentException("Lower bound cannot be greater than upper bound.");
+        }
+        GenerationTrace trace = GenerationTrace.start("Graph", listener);
+        NoiseWriter writer = GraphCompiler.compile(graph);
+        trace.setupDone();
+        generate(writer, map, lowerBound, upperBound, trace, null);
+    }
+
+    /**
+     * Generates the part of the world described by {@code window} from a noise graph, without normalization.
+     * Windows that continue each other stitch seamlessly, including warped graphs.
+     *
+     * @param map    The {@link NoiseMap} to populate with noise.
+     * @param graph  The graph to evaluate.
+     * @param window The world-space origin and step of the map.
+     * @throws IllegalArgumentException If {@code graph} or {@code window} is null.
+     */
+    public void generateForMap(NoiseMap map, NoiseGraph graph, NoiseWindow window) {
+        if (window == null) {
+            throw new IllegalArgumentException("Noise window cannot be null.");
+        }
+        GenerationTrace trace = GenerationTrace.start("Graph", listener);
+        NoiseWriter writer = GraphCompiler.compile(graph);
+        trace.setupDone();
+        write(writer, map, window, trace, null);
+    }
+
+    private void generate(NoiseWriter writer, NoiseMap map, double lowerBound, double upperBound, GenerationTrace trace,
+                          NoiseProgress progress) {
+        if (normalization == Normalization.NOISE_BOUNDS) {
+            write(normalized(writer, lowerBound, upperBound), map, trace, progress);
+            return;
+        }
+        NoiseRange range = writeTracked(writer, map, progress);
+        trace.fillDone();
+        if (progress != null) {
+            progress.checkpoint();
+        }
+        if (parallel) {
+            pool.invoke(ForkJoinTask.adapt(() -> map.normalize(lowerBound, upperBound, range.min(), range.max())));
+        } else {
+            map.normalize(lowerBound, upperBound, range.min(), range.max());
+        }
+        trace.normalizeDone();
+        end(trace, map);
+    }
+
+    /**
+     * Generates the part of the world described by {@code window} into the specified noise map using the default noise.
+     *
+     * @param map    The {@link NoiseMap} to populate with noise.
+     * @param window The world-space origin and step of the map.
+     * @throws IllegalArgumentException If {@code defaultNoise} is not set.
+     * @see #generateForMap(NoiseMap, Noise, NoiseWindow)
+     */
+    public void generateForMap(NoiseMap map, NoiseWindow window) {
+        generateForMap(map, window, null);
+    }
+
+    private void generateForMap(NoiseMap map, NoiseWindow window, NoiseProgress progress) {
+        if (defaultNoise == null) {
+            throw new IllegalArgumentException("Default noise generator is not set.");
+        }
+        generateForMap(map, defaultNoise, window, progress);
+    }
+
+    /**
+     * Generates the part of the world described by {@code window} into the specified noise map.
+     * Cell {@code [i][j]} of a 2D map receives the noise at world coordinates {@code (window.x(i), window.y(j))},
+     * so maps generated for adjacent windows with the same step stitch seamlessly. This allows an unbounded world
+     * to be generated chunk by chunk, only where it is needed:
+     * <pre>{@code
+     * NoiseMap chunk = new NoiseMap(new double[32][32]);
+     * generator.generateForMap(chunk, noise, NoiseWindow.at(chunkX * 32, chunkZ * 32));
+     * }</pre>
+     * The values are written as the noise produces them, without normalization: rescaling each chunk by its own
+     * minimum and maximum would break the continuity between chunks. With {@link NoiseWindow#ORIGIN} the result
+     * equals {@link #generateForMap(NoiseMap)} before normalization.
+     *
+     * @param map    The {@link NoiseMap} to populate with noise.
+     * @param noise  The noise generator to use.
+     * @param window The world-space origin and step of the map.
+     * @throws IllegalArgumentException If {@code noise} or {@code window} is null.
+     */
+    public void generateForMap(NoiseMap map, Noise noise, NoiseWindow window) {
+        generateForMap(map, noise, window, null);
+    }
+
+    private void generateForMap(NoiseMap map, Noise noise, NoiseWindow window, NoiseProgress progress) {
+        if (noise == null) {
+            throw new IllegalArgumentException("Noise generator cannot be null.");
+        }
+        if (window == null) {
+            throw new IllegalArgumentException("Noise window cannot be null.");
+        }
+        GenerationTrace trace = GenerationTrace.start(noise, listener);
         NoiseWriter writer = WriterManager.getWriter(noise);
-        writer.write(map.getDoubleArray());
-        map.normalize(lowerBound, upperBound);
+        trace.setupDone();
+        write(writer, map, window, trace, progress);
+    }
+
+    /**
+     * Generates the part of the world described by {@code window} into the specified noise map, rescaled from
+     * the bounds of the noise to {@code [lowerBound, upperBound]} as in {@link Normalization#NOISE_BOUNDS}.
+     * The scaling is the same for every window, so normalized chunks still stitch seamlessly.
+     *
+     * @param map        The {@link NoiseMap} to populate with noise.
+     * @param noise      The noise generator to use.
+     * @param window     The world-space origin and step of the map.
+     * @param lowerBound The lower bound for noise values.
+     * @param upperBound The upper bound for noise values.
+     * @throws IllegalArgumentException If {@code noise} or {@code window} is null, or {@code lowerBound > upperBound}.
+     * @see NoiseWriter#bounds(int)
+     */
+    public void generateForMap(NoiseMap map, Noise noise, NoiseWindow window, double lowerBound, double upperBound) {
+        if (noise == null) {
+            throw new IllegalArgumentException("Noise generator cannot be null.");
+        }
+        if (window == null) {
+            throw new IllegalArgumentException("Noise window cannot be null.");
+        }
+        if (lowerBound > upperBound) {
+            throw new IllegalArgumentException("Lower bound cannot be greater than upper bound.");
+        }
+        GenerationTrace trace = GenerationTrace.start(noise, listener);
+        NoiseWriter writer = normalized(WriterManager.getWriter(noise), lowerBound, upperBound);
+        trace.setupDone();
+        write(writer, map, window, trace, null);
+    }
+
+    /**
+     * Generates the same noise with several seeds, one map per seed, without normalization. Map {@code i} receives
+     * what {@link #generateForMap(NoiseMap, Noise, NoiseWindow)} writes at the origin for {@code noise} with
+     * {@code seeds[i]}, but {@code noise} is not modified.
+     * <p>
+     * The parameters of the noise are read once, and the maps are generated concurrently on {@link #pool}, one task
+     * per seed, which makes seed sweeps for world previews scale with the number of cores. When {@link #parallel}
+     * is enabled, each map is additionally split into bands. The writers of the seeds are not added to the
+     * writer cache, so a sweep does not evict the writers of the noises in regular use.
+     * <pre>{@code
+     * List<NoiseMap> previews = IntStream.range(0, 16).mapToObj(i -> new NoiseMap(new double[256][256])).toList();
+     * generator.generateForSeeds(previews, noise, 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16);
+     * }</pre>
+     *
+     * @param maps  The maps to populate with noise, one per seed.
+     * @param noise The noise generator to use. Its seed is ignored.
+     * @param seeds The seeds to generate.
+     * @throws IllegalArgumentException If an argument is null, the number of maps and seeds differ,
+     *                                  or the noise type is not supported.
+     */
+    public void generateForSeeds(List<NoiseMap> maps, Noise noise, int... seeds) {
+        forSeeds(maps, noise, seeds, (writer, map, trace) -> write(writer, map, trace, null));
+    }
+
+    /**
+     * Generates the same noise with several seeds, one map per seed, each normalized to the range bounds like
+     * {@link #generateForMap(NoiseMap, Noise, double, double)}, following {@link #normalization}.
+     * The maps are generated as in {@link #generateForSeeds(List, Noise, int...)}.
+     *
+     * @param maps       The maps to populate with noise, one per seed.
+     * @param noise      The noise generator to use. Its seed is ignored.
+     * @param seeds      The seeds to generate.
+     * @param lowerBound The lower bound for noise values.
+     * @param upperBound The upper bound for noise values.
+     * @throws IllegalArgumentException If an argument is null, the number of maps and seeds differ,
+     *                                  the noise type is not supported, or {@code lowerBound > upperBound}.
+     */
+    public void generateForSeeds(List<NoiseMap> maps, Noise noise, int[] seeds, double lowerBound, double upperBound) {
+        if (lowerBound > upperBound) {
+            throw new IllegalArgumentException("Lower bound cannot be greater than upper bound.");
+        }
+        forSeeds(maps, noise, seeds, (writer, map, trace) -> generate(writer, map, lowerBound, upperBound, trace, null));
+    }
+
+    /**
+     * Fills one map of a seed sweep with its writer.
+     */
+    @FunctionalInterface
+    private interface SeedFill {
+        void fill(NoiseWriter writer, NoiseMap map, GenerationTrace trace);
+    }
+
+    private void forSeeds(List<NoiseMap> maps, Noise noise, int[] seeds, SeedFill fill) {
+        if (noise == null) {
+            throw new IllegalArgumentException("Noise generator cannot be null.");
+        }
+        if (maps == null || seeds == null || maps.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("Noise maps and seeds cannot be null.");
+        }
+        if (maps.size() != seeds.length) {
+            throw new IllegalArgumentException("Expected one map per seed, got " + maps.size() + " maps for " + seeds.length + " seeds.");
+        }
+        Object[] infos = new Object[seeds.length];
+        for (int i = 0; i < seeds.length; i++) {
+            infos[i] = WriterManager.getInfo(noise, seeds[i]);
+            if (infos[i] == null) {
+                throw new IllegalArgumentException("Unsupported noise type: " + noise.getClass().getName());
+            }
+        }
+        List<ForkJoinTask<?>> tasks = new ArrayList<>(seeds.length);
+        for (int i = 0; i < seeds.length; i++) {
+            int index = i;
+            tasks.add(ForkJoinTask.adapt(() -> {
+                GenerationTrace trace = GenerationTrace.start(noise, seeds[index], listener);
+                NoiseWriter writer = WriterManager.createWriter(infos[index]);
+                trace.setupDone();
+                fill.fill(writer, maps.get(index), trace);
+            }));
+        }
+        pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(tasks)));
+    }
+
+    /**
+     * Creates a sampler that evaluates the default noise at single points.
+     *
+     * @return A thread-safe sampler bound to the current parameters of {@code defaultNoise}.
+     * @throws IllegalArgumentException If {@code defaultNoise} is not set.
+     * @see #createSampler(Noise)
+     */
+    public NoiseSampler createSampler() {
+        if (defaultNoise == null) {
+            throw new IllegalArgumentException("Default noise generator is not set.");
+        }
+        return createSampler(defaultNoise);
+    }
+
+    /**
+     * Creates a sampler that evaluates the given noise at single points, including all octaves,
+     * without building a map. For integer coordinates {@code sampler.sample(x, y)} equals the value a 2D map
+     * generated with {@link #generateForMap(NoiseMap)} holds at {@code [x][y]}, before normalization.
+     * <p>
+     * The sampler captures the noise parameters at the time of the call; later changes to {@code noise}
+     * are not reflected. It is immutable, thread-safe and does not allocate, so it can be kept and queried
+     * from any thread.
+     * <pre>{@code
+     * NoiseSampler sampler = generator.createSampler(noise);
+     * double height = sampler.sample(entityX, entityZ);
+     * }</pre>
+     *
+     * @param noise The noise to sample.
+     * @return A sampler for the given noise.
+     * @throws IllegalArgumentException If {@code noise} is null.
+     */
+    public NoiseSampler createSampler(Noise noise) {
+        if (noise == null) {
+            throw new IllegalArgumentException("Noise generator cannot be null.");
+        }
+        return WriterManager.getWriter(noise);
+    }
+
+    /**
+     * Creates a sampler that evaluates the weighted sum of several noise layers, as
+     * {@link #generateForMap(NoiseMap, List)} writes it.
+     *
+     * @param layers The layers to sum, in order.
+     * @return A sampler for the composed noise.
+     * @throws IllegalArgumentException If {@code layers} is null or empty.
+     */
+    public NoiseSampler createSampler(List<NoiseLayer> layers) {
+        return layered(layers);
+    }
+
+    /**
+     * Compiles a noise graph into a sampler. It returns the values {@link #generateForMap(NoiseMap, NoiseGraph)}
+     * writes, and captures the parameters of the sources at the time of the call.
+     *
+     * @param graph The graph to evaluate.
+     * @return A thread-safe sampler for the graph.
+     * @throws IllegalArgumentException If {@code graph} is null or uses an unsupported noise type.
+     */
+    public NoiseSampler createSampler(NoiseGraph graph) {
+        return GraphCompiler.compile(graph);
+    }
+
+    /**
+     * Creates a sampler that evaluates the given noise rescaled from its bounds to {@code [lowerBound, upperBound]},
+     * as maps generated with {@link Normalization#NOISE_BOUNDS} hold it.
+     *
+     * @param noise      The noise to sample.
+     * @param lowerBound The lower bound for noise values.
+     * @param upperBound The upper bound for noise values.
+     * @return A sampler for the given noise.
+     * @throws IllegalArgumentException If {@code noise} is null or {@code lowerBound > upperBound}.
+     */
+    public NoiseSampler createSampler(Noise noise, double lowerBound, double upperBound) {
+        if (noise == null) {
+            throw new IllegalArgumentException("Noise generator cannot be null.");
+        }
+        if (lowerBound > upperBound) {
+            throw new IllegalArgumentException("Lower bound cannot be greater than upper bound.");
+        }
+        return normalized(WriterManager.getWriter(noise), lowerBound, upperBound);
+    }
+
+    /**
+     * Returns the counters of the cache of noise writers shared by all generators.
+     * Writers are cached per noise type and parameter set, so repeated generations with the same settings
+     * skip the setup of permutation tables.
+     *
+     * @return A snapshot of the writer cache counters.
+     */
+    public static CacheStats getWriterCacheStats() {
+        return WriterManager.stats();
+    }
+
+    /**
+     * Removes all cached noise writers. The counters are kept.
+     */
+    public static void clearWriterCache() {
+        WriterManager.clear();
+    }
+
+    private void write(NoiseWriter writer, NoiseMap map, GenerationTrace trace, NoiseProgress progress) {
+        Object array = map.getDoubleArray();
+        if (parallel) {
+            pool.invoke(ParallelWriteTask.of(writer, array, null, pool.getParallelism(), progress));
+        } else if (progress != null) {
+            writer.write(array, NoiseWindow.ORIGIN, 0, map.getMapSize(), null, progress);
+        } else {
+            writer.write(array);
+        }
+        trace.fillDone();
+        end(trace, map);
+    }
+
+    private void write(NoiseWriter writer, NoiseMap map, NoiseWindow window, GenerationTrace trace, NoiseProgress progress) {
+        Object array = map.getDoubleArray();
+        if (parallel) {
+            pool.invoke(ParallelWriteTask.of(writer, array, window, pool.getParallelism(), progress));
+        } else if (progress != null) {
+            writer.write(array, window, 0, map.getMapSize(), null, progress);
+        } else {
+            writer.write(array, window);
+        }
+        trace.fillDone();
+        end(trace, map);
+    }
+
+    private static void end(GenerationTrace trace, NoiseMap map) {
+        if (trace != GenerationTrace.DISABLED) {
+            trace.end(map.getDimensionSize(), map.getSampleCount());
+        }
+    }
+
+    private static NoiseWriter normalized(NoiseWriter writer, double lowerBound, double upperBound) {
+        if (!(writer instanceof AbstractNoiseWriter noise)) {
+            throw new IllegalArgumentException("Noise cannot be normalized by its bounds: " + writer);
+        }
+        return new NormalizedNoiseWriter(noise, lowerBound, upperBound);
+    }
+
+    private static NoiseWriter layered(List<NoiseLayer> layers) {
+        if (layers == null || layers.isEmpty()) {
+            throw new IllegalArgumentException("At least one noise layer is required.");
+        }
+        AbstractNoiseWriter[] writers = new AbstractNoiseWriter[layers.size()];
+        double[] weights = new double[layers.size()];
+        for (int i = 0; i < writers.length; i++) {
+            NoiseWriter writer = WriterManager.getWriter(layers.get(i).noise());
+            if (!(writer instanceof AbstractNoiseWriter layer)) {
+                throw new IllegalArgumentException("Noise cannot be layered: " + layers.get(i).noise());
+            }
+            writers[i] = layer;
+            weights[i] = layers.get(i).weight();
+        }
+        return new LayeredNoiseWriter(writers, weights);
+    }
+
+    /**
+     * Writes the map like {@link #write} and returns the range of the written samples.
+     */
+    private NoiseRange writeTracked(NoiseWriter writer, NoiseMap map, NoiseProgress progress) {
+        Object array = map.getDoubleArray();
+        if (parallel) {
+            return pool.invoke(ParallelWriteTask.tracking(writer, array, pool.getParallelism(), progress));
+        }
+        NoiseRange range = new NoiseRange();
+        writer.write(array, NoiseWindow.ORIGIN, 0, map.getMapSize(), range, progress);
+        return range;
     }
 
     /**
      * Asynchronously generates noise for the specified noise map using default settings.
-     * This method utilizes virtual threads for lightweight and scalable asynchronous execution.
+     * The work runs on {@link #executor}. Cancelling the returned future stops the generation at the next row.
      *
      * @param map The {@link NoiseMap} to populate with noise.
-     * @return A {@link CompletableFuture} that completes when the noise generation is finished.
-     * @throws IllegalArgumentException If {@code defaultNoise} is not set.
+     * @return A {@link GenerationFuture} that completes when the noise generation is finished.
+     * @throws IllegalArgumentException If {@code map} is null.
      */
-    public CompletableFuture<Void> generateForMapAsync(NoiseMap map) {
-        Executor executor = new VirtualThreadExecutor();;
-        return CompletableFuture.runAsync(() -> generateForMap(map), executor);
+    public GenerationFuture generateForMapAsync(NoiseMap map) {
+        return submit(map, progress -> generateForMap(map, progress));
     }
 
     /**
      * Asynchronously generates noise for the specified noise map using custom noise and range bounds.
-     * This method utilizes virtual threads for lightweight and scalable asynchronous execution.
+     * The work runs on {@link #executor}. Cancelling the returned future stops the generation at the next row,
+     * or before the normalization if the map is already filled.
      *
      * @param map        The {@link NoiseMap} to populate with noise.
      * @param noise      The noise generator to use.
      * @param lowerBound The lower bound for noise values.
      * @param upperBound The upper bound for noise values.
-     * @return A {@link CompletableFuture} that completes when the noise generation is finished.
-     * @throws IllegalArgumentException If the bounds are invalid (e.g., {@code lowerBound > upperBound}).
+     * @return A {@link GenerationFuture} that completes when the noise generation is finished.
+     * @throws IllegalArgumentException If {@code map} is null.
+     */
+    public GenerationFuture generateForMapAsync(NoiseMap map, Noise noise, double lowerBound, double upperBound) {
+        return submit(map, progress -> generateForMap(map, noise, lowerBound, upperBound, progress));
+    }
+
+    /**
+     * Asynchronously generates the part of the world described by {@code window} into the specified noise map
+     * using the default noise. Cancelling the returned future stops the generation at the next row.
+     *
+     * @param map    The {@link NoiseMap} to populate with noise.
+     * @param window The world-space origin and step of the map.
+     * @return A {@link GenerationFuture} that completes when the noise generation is finished.
+     * @throws IllegalArgumentException If {@code map} is null.
+     * @see #generateForMap(NoiseMap, NoiseWindow)
+     */
+    public GenerationFuture generateForMapAsync(NoiseMap map, NoiseWindow window) {
+        return submit(map, progress -> generateForMap(map, window, progress));
+    }
+
+    /**
+     * Asynchronously generates the part of the world described by {@code window} into the specified noise map.
+     * Cancelling the returned future stops the generation at the next row.
+     *
+     * @param map    The {@link NoiseMap} to populate with noise.
+     * @param noise  The noise generator to use.
+     * @param window The world-space origin and step of the map.
+     * @return A {@link GenerationFuture} that completes when the noise generation is finished.
+     * @throws IllegalArgumentException If {@code map} is null.
+     * @see #generateForMap(NoiseMap, Noise, NoiseWindow)
+     */
+    public GenerationFuture generateForMapAsync(NoiseMap map, Noise noise, NoiseWindow window) {
+        return submit(map, progress -> generateForMap(map, noise, window, progress));
+    }
+
+    /**
+     * Runs one generation on {@link #executor}. The future is completed by the task, so a task that has not
+     * started yet when the future is cancelled does nothing, and a running one stops at its next checkpoint.
+     * If the executor rejects the task, the future completes with that exception, as a batch does.
+     */
+    private GenerationFuture submit(NoiseMap map, Consumer<NoiseProgress> generation) {
+        if (map == null) {
+            throw new IllegalArgumentException("Noise map cannot be null.");
+        }
+        GenerationFuture result = new GenerationFuture(new NoiseProgress(map.getSampleCount()));
+        try {
+            executor.execute(() -> {
+                if (result.isDone()) {
+                    return;
+                }
+                try {
+                    generation.accept(result.getProgress());
+                    result.complete(null);
+                } catch (Throwable e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        } catch (RuntimeException e) {
+            result.completeExceptionally(e);
+        }
+        return result;
+    }
+
+    /**
+     * Asynchronously generates a batch of jobs, each like {@link #generateForMap(NoiseMap, Noise, NoiseWindow)}.
+     * The batch is scheduled as one unit: it occupies at most one task of {@link #executor} per core, and no more
+     * than the executor runs at once. These tasks take the jobs in order, so a large batch neither floods the
+     * executor nor delays other work beyond that share.
+     * <pre>{@code
+     * List<NoiseJob> jobs = requested.stream()
+     *         .map(chunk -> new NoiseJob(chunk.map(), noise, NoiseWindow.at(chunk.x() * 32, chunk.z() * 32)))
+     *         .toList();
+     * generator.generateForMapsAsync(jobs).thenRun(this::sendChunks);
+     * }</pre>
+     * The future completes when every job is done, and its progress counts the samples of all maps. If a job fails,
+     * the jobs not yet started are skipped and the future completes with its exception; cancelling the future skips
+     * them as well and stops the running jobs at their next row.
+     *
+     * @param jobs The maps to generate.
+     * @return A {@link GenerationFuture} that completes when the whole batch is finished.
+     * @throws IllegalArgumentException If {@code jobs} is null or contains null.
      */
-    public CompletableFuture<Void> generateForMapAsync(NoiseMap map, Noise noise, double lowerBound, double upperBound) {
-        Executor executor = new VirtualThreadExecutor();
-        return CompletableFuture.runAsync(() -> generateForMap(map, noise, lowerBound, upperBound), executor);
+    public GenerationFuture generateForMapsAsync(List<NoiseJob> jobs) {
+        if (jobs == null || jobs.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("Noise jobs cannot be null.");
+        }
+        long samples = jobs.stream().mapToLong(job -> job.map().getSampleCount()).sum();
+        return batch(jobs.size(), samples, (progress, index) -> {
+            NoiseJob job = jobs.get(index);
+            generateForMap(job.map(), job.noise(), job.window(), progress);
+        });
     }
 
     /**
-     * Generates noise directly into the specified array using default settings.
-     * The array must be of type {@code double[]}, {@code double[][]}, or {@code double[][][]}.
+     * Asynchronously generates the same noise into several maps, each normalized to the range bounds like
+     * {@link #generateForMap(NoiseMap, Noise, double, double)}. The batch is scheduled and cancelled as in
+     * {@link #generateForMapsAsync(List)}.
+     *
+     * @param maps       The maps to populate with noise.
+     * @param noise      The noise generator to use.
+     * @param lowerBound The lower bound for noise values.
+     * @param upperBound The upper bound for noise values.
+     * @return A {@link GenerationFuture} that completes when every map is generated.
+     * @throws IllegalArgumentException If {@code maps} or {@code noise} is null, or {@code lowerBound > upperBound}.
+     */
+    public GenerationFuture generateForMapsAsync(List<NoiseMap> maps, Noise noise, double lowerBound, double upperBound) {
+        if (maps == null || maps.stream().anyMatch(Objects::isNull)) {
+            throw new IllegalArgumentException("Noise maps cannot be null.");
+        }
+        if (noise == null) {
+            throw new IllegalArgumentException("Noise generator cannot be null.");
+        }
+        if (lowerBound > upperBound) {
+            throw new IllegalArgumentException("Lower bound cannot be greater than upper bound.");
+        }
+        long samples = maps.stream().mapToLong(NoiseMap::getSampleCount).sum();
+        return batch(maps.size(), samples, (progress, index) -> generateForMap(maps.get(index), noise, lowerBound, upperBound, progress));
+    }
+
+    /**
+     * The number of tasks a batch runs on: one per core, but no more than {@link #executor} runs at once,
+     * so a batch does not queue tasks that could only start after its own.
+     */
+    private int batchTasks() {
+        int cores = Runtime.getRuntime().availableProcessors();
+        int limit = switch (executor) {
+            case VirtualThreadExecutor virtual -> virtual.getMaxConcurrency();
+            case ForkJoinPool forkJoin -> forkJoin.getParallelism();
+            case ThreadPoolExecutor threads -> threads.getMaximumPoolSize();
+            default -> cores;
+        };
+        return Math.max(1, Math.min(cores, limit));
+    }
+
+    /**
+     * Runs {@code count} jobs on at most {@link #batchTasks()} tasks of {@link #executor}. Each task takes the next job
+     * until none is left or the batch has completed, normally, exceptionally or by cancellation.
+     * All jobs share the progress of the batch, so cancelling it also stops the jobs already running.
+     */
+    private GenerationFuture batch(int count, long samples, ObjIntConsumer<NoiseProgress> job) {
+        GenerationFuture result = new GenerationFuture(new NoiseProgress(samples));
+        if (count == 0) {
+            result.complete(null);
+            return result;
+        }
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger remaining = new AtomicInteger(count);
+        int tasks = Math.min(count, batchTasks());
+        for (int task = 0; task < tasks; task++) {
+            try {
+                executor.execute(() -> {
+                    for (int index; !result.isDone() && (index = next.getAndIncrement()) < count; ) {
+                        try {
+                            job.accept(result.getProgress(), index);
+                        } catch (Throwable e) {
+                            result.completeExceptionally(e);
+                            return;
+                        }
+                        if (remaining.decrementAndGet() == 0) {
+                            result.complete(null);
+                        }
+                    }
+                });
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+                break;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Generates noise directly into the specified array using the default noise, normalized to
+     * {@link #lowerBound} and {@link #upperBound}. The array is wrapped in a {@link NoiseMap}, so it can be of any
+     * type a map accepts: a {@code double} or {@code float} array of 1 to 3 dimensions, or a
+     * {@link io.github.zapolyarnydev.buffer.NoiseBuffer}.
      *
      * @param array The array to populate with noise.
-     * @throws IllegalArgumentException If {@code defaultNoise} is not set or the array type is unsupported.
+     * @throws IllegalArgumentException If {@code defaultNoise} is not set or the array is not accepted by {@link NoiseMap}.
      */
     public void generateForArray(Object array) {
         if (defaultNoise == null) {
             throw new IllegalArgumentException("Default noise generator is not set.");
         }
-
+        generateForMap(new NoiseMap(array), defaultNoise, lowerBound, upperBound);
     }
 
     /**
-     * Generates noise directly into the specified array using custom noise and range bounds.
-     * The array must be of type {@code double[]}, {@code double[][]}, or {@code double[][][]}.
+     * Generates noise directly into the specified array using custom noise and range bounds,
+     * like {@link #generateForMap(NoiseMap, Noise, double, double)} for the array wrapped in a {@link NoiseMap}.
      *
      * @param array      The array to populate with noise.
      * @param noise      The noise generator to use.
      * @param lowerBound The lower bound for noise values.
      * @param upperBound The upper bound for noise values.
-     * @throws IllegalArgumentException If the bounds are invalid (e.g., {@code lowerBound > upperBound}) or the array type is unsupported.
+     * @throws IllegalArgumentException If the bounds are invalid (e.g., {@code lowerBound > upperBound}) or the array
+     *                                  is not accepted by {@link NoiseMap}.
      */
     public void generateForArray(Object array, Noise noise, double lowerBound, double upperBound) {
         if (noise == null) {
@@ -157,35 +840,42 @@ public class NoiseGenerator {
         if (lowerBound > upperBound) {
             throw new IllegalArgumentException("Lower bound cannot be greater than upper bound.");
         }
-
+        generateForMap(new NoiseMap(array), noise, lowerBound, upperBound);
     }
 
     /**
-     * Asynchronously generates noise directly into the specified array using default settings.
-     * This method utilizes virtual threads for lightweight and scalable asynchronous execution.
+     * Asynchronously generates noise directly into the specified array using default settings, like
+     * {@link #generateForArray(Object)}. The work runs on {@link #executor}, and cancelling the returned future
+     * stops the generation at the next row.
      *
      * @param array The array to populate with noise.
-     * @return A {@link CompletableFuture} that completes when the noise generation is finished.
-     * @throws IllegalArgumentException If {@code defaultNoise} is not set or the array type is unsupported.
+     * @return A {@link GenerationFuture} that completes when the noise generation is finished.
+     * @throws IllegalArgumentException If the array is not accepted by {@link NoiseMap}.
      */
-    public CompletableFuture<Void> generateForArrayAsync(Object array) {
-        Executor executor = new VirtualThreadExecutor();
-        return CompletableFuture.runAsync(() -> generateForArray(array), executor);
+    public GenerationFuture generateForArrayAsync(Object array) {
+        NoiseMap map = new NoiseMap(array);
+        return submit(map, progress -> {
+            if (defaultNoise == null) {
+                throw new IllegalArgumentException("Default noise generator is not set.");
+            }
+            generateForMap(map, defaultNoise, lowerBound, upperBound, progress);
+        });
     }
 
     /**
-     * Asynchronously generates noise directly into the specified array using custom noise and range bounds.
-     * This method utilizes virtual threads for lightweight and scalable asynchronous execution.
+     * Asynchronously generates noise directly into the specified array using custom noise and range bounds, like
+     * {@link #generateForArray(Object, Noise, double, double)}. The work runs on {@link #executor}, and cancelling
+     * the returned future stops the generation at the next row.
      *
      * @param array      The array to populate with noise.
      * @param noise      The noise generator to use.
      * @param lowerBound The lower bound for noise values.
      * @param upperBound The upper bound for noise values.
-     * @return A {@link CompletableFuture} that completes when the noise generation is finished.
-     * @throws IllegalArgumentException If the bounds are invalid (e.g., {@code lowerBound > upperBound}) or the array type is unsupported.
+     * @return A {@link GenerationFuture} that completes when the noise generation is finished.
+     * @throws IllegalArgumentException If the array is not accepted by {@link NoiseMap}.
      */
-    public CompletableFuture<Void> generateForArrayAsync(Object array, Noise noise, double lowerBound, double upperBound) {
-        Executor executor = new VirtualThreadExecutor();
-        return CompletableFuture.runAsync(() -> generateForArray(array, noise, lowerBound, upperBound), executor);
+    public GenerationFuture generateForArrayAsync(Object array, Noise noise, double lowerBound, double upperBound) {
+        NoiseMap map = new NoiseMap(array);
+        return submit(map, progress -> generateForMap(map, noise, lowerBound, upperBound, progress));
     }
 }
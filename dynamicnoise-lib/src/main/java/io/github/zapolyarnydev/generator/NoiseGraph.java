@@ -0,0 +1,208 @@
+package io.github.zapolyarnydev.generator;
+
+import io.github.zapolyarnydev.noise.Noise;
+
+/**
+ * A declarative recipe that combines noises with arithmetic operators and domain warping.
+ * <p>
+ * Graphs are immutable trees of nodes built from {@link #source sources} and {@link #constant constants}:
+ * <pre>{@code
+ * NoiseGraph continents = NoiseGraph.source(continentNoise);
+ * NoiseGraph ridges = NoiseGraph.source(ridgeNoise).abs().multiply(-1).add(1);
+ * NoiseGraph terrain = continents.add(ridges.multiply(continents.clamp(0, 1)))
+ *         .warp(NoiseGraph.source(warpNoise), 8)
+ *         .remap(-2, 2, 0, 1);
+ * generator.generateForMap(map, terrain);
+ * }</pre>
+ * {@link NoiseGenerator} compiles a graph before it is generated. Equal subgraphs, such as {@code continents} above,
+ * or sources with the same noise type and parameters are evaluated only once per sample, and every sample is
+ * computed in one pass over the map, without intermediate maps. Sources capture the parameters their noise has
+ * when the graph is compiled.
+ */
+public sealed interface NoiseGraph {
+
+    /**
+     * Creates a graph that evaluates the given noise, without normalization.
+     *
+     * @param noise The noise to evaluate.
+     * @return The source node.
+     * @throws IllegalArgumentException If {@code noise} is null.
+     */
+    static NoiseGraph source(Noise noise) {
+        return new Source(noise);
+    }
+
+    /**
+     * Creates a graph with the same value everywhere.
+     *
+     * @param value The value of the graph.
+     * @return The constant node.
+     */
+    static NoiseGraph constant(double value) {
+        return new Constant(value);
+    }
+
+    /**
+     * Adds the values of another graph to the values of this graph.
+     *
+     * @param other The graph to add.
+     * @return The sum of both graphs.
+     */
+    default NoiseGraph add(NoiseGraph other) {
+        return new Add(this, other);
+    }
+
+    /**
+     * Adds a constant to the values of this graph.
+     *
+     * @param value The value to add.
+     * @return The shifted graph.
+     */
+    default NoiseGraph add(double value) {
+        return add(constant(value));
+    }
+
+    /**
+     * Multiplies the values of this graph by the values of another graph.
+     *
+     * @param other The graph to multiply by.
+     * @return The product of both graphs.
+     */
+    default NoiseGraph multiply(NoiseGraph other) {
+        return new Multiply(this, other);
+    }
+
+    /**
+     * Multiplies the values of this graph by a constant.
+     *
+     * @param factor The factor to multiply by. Can be negative or positive.
+     * @return The scaled graph.
+     */
+    default NoiseGraph multiply(double factor) {
+        return multiply(constant(factor));
+    }
+
+    /**
+     * Takes the absolute value of this graph, which turns smooth noise into ridges and valleys.
+     *
+     * @return The absolute value of the graph.
+     */
+    default NoiseGraph abs() {
+        return new Abs(this);
+    }
+
+    /**
+     * Limits the values of this graph to {@code [min, max]}.
+     *
+     * @param min The smallest value to keep.
+     * @param max The largest value to keep.
+     * @return The clamped graph.
+     * @throws IllegalArgumentException If {@code min > max}.
+     */
+    default NoiseGraph clamp(double min, double max) {
+        return new Clamp(this, min, max);
+    }
+
+    /**
+     * Maps the values of this graph linearly from {@code [fromMin, fromMax]} to {@code [toMin, toMax]}.
+     * Values outside the source range are extrapolated, not clamped.
+     *
+     * @param fromMin The value mapped to {@code toMin}.
+     * @param fromMax The value mapped to {@code toMax}.
+     * @param toMin   The new value of {@code fromMin}.
+     * @param toMax   The new value of {@code fromMax}.
+     * @return The remapped graph.
+     * @throws IllegalArgumentException If {@code fromMin == fromMax}.
+     */
+    default NoiseGraph remap(double fromMin, double fromMax, double toMin, double toMax) {
+        return new Remap(this, fromMin, fromMax, toMin, toMax);
+    }
+
+    /**
+     * Warps the domain of this graph: every sample is taken at coordinates moved along all axes
+     * by {@code strength} times the value of {@code displacement}.
+     *
+     * @param displacement The graph giving the displacement of every sample.
+     * @param strength     The distance in map cells a displacement of 1 moves the coordinates.
+     * @return The warped graph.
+     * @see #warp(NoiseGraph, NoiseGraph, NoiseGraph, double)
+     */
+    default NoiseGraph warp(NoiseGraph displacement, double strength) {
+        return new Warp(this, displacement, displacement, displacement, strength);
+    }
+
+    /**
+     * Warps the domain of this graph with a separate displacement per axis. Axes that a map does not have are
+     * ignored, so {@code dz} only applies to 3D maps.
+     *
+     * @param dx       The displacement along x, or {@code null} to keep x.
+     * @param dy       The displacement along y, or {@code null} to keep y.
+     * @param dz       The displacement along z, or {@code null} to keep z.
+     * @param strength The distance in map cells a displacement of 1 moves the coordinates.
+     * @return The warped graph.
+     */
+    default NoiseGraph warp(NoiseGraph dx, NoiseGraph dy, NoiseGraph dz, double strength) {
+        return new Warp(this, dx, dy, dz, strength);
+    }
+
+    record Source(Noise noise) implements NoiseGraph {
+        public Source {
+            if (noise == null) {
+                throw new IllegalArgumentException("Noise generator cannot be null.");
+            }
+        }
+    }
+
+    record Constant(double value) implements NoiseGraph {
+    }
+
+    record Add(NoiseGraph left, NoiseGraph right) implements NoiseGraph {
+        public Add {
+            requireNodes(left, right);
+        }
+    }
+
+    record Multiply(NoiseGraph left, NoiseGraph right) implements NoiseGraph {
+        public Multiply {
+            requireNodes(left, right);
+        }
+    }
+
+    record Abs(NoiseGraph input) implements NoiseGraph {
+        public Abs {
+            requireNodes(input);
+        }
+    }
+
+    record Clamp(NoiseGraph input, double min, double max) implements NoiseGraph {
+        public Clamp {
+            requireNodes(input);
+            if (min > max) {
+                throw new IllegalArgumentException("Clamp minimum cannot be greater than maximum.");
+            }
+        }
+    }
+
+    record Remap(NoiseGraph input, double fromMin, double fromMax, double toMin, double toMax) implements NoiseGraph {
+        public Remap {
+            requireNodes(input);
+            if (fromMin == fromMax) {
+                throw new IllegalArgumentException("Cannot remap from an empty range.");
+            }
+        }
+    }
+
+    record Warp(NoiseGraph input, NoiseGraph dx, NoiseGraph dy, NoiseGraph dz, double strength) implements NoiseGraph {
+        public Warp {
+            requireNodes(input);
+        }
+    }
+
+    private static void requireNodes(NoiseGraph... nodes) {
+        for (NoiseGraph node : nodes) {
+            if (node == null) {
+                throw new IllegalArgumentException("Noise graph node cannot be null.");
+            }
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package io.github.zapolyarnydev.generator;
+
+import io.github.zapolyarnydev.map.NoiseMap;
+import io.github.zapolyarnydev.noise.Noise;
+import io.github.zapolyarnydev.writer.NoiseWindow;
+
+/**
+ * One map of a batch generated with {@link NoiseGenerator#generateForMapsAsync(java.util.List)}: the part of the
+ * world described by {@code window}, written into {@code map} without normalization.
+ *
+ * @param map    The {@link NoiseMap} to populate with noise.
+ * @param noise  The noise generator to use.
+ * @param window The world-space origin and step of the map.
+ */
+public record NoiseJob(NoiseMap map, Noise noise, NoiseWindow window) {
+
+    public NoiseJob {
+        if (map == null) {
+            throw new IllegalArgumentException("Noise map cannot be null.");
+        }
+        if (noise == null) {
+            throw new IllegalArgumentException("Noise generator cannot be null.");
+        }
+        if (window == null) {
+            throw new IllegalArgumentException("Noise window cannot be null.");
+        }
+    }
+
+    /**
+     * Creates a job for a whole map, starting at the origin of the world.
+     *
+     * @param map   The {@link NoiseMap} to populate with noise.
+     * @param noise The noise generator to use.
+     */
+    public NoiseJob(NoiseMap map, Noise noise) {
+        this(map, noise, NoiseWindow.ORIGIN);
+    }
+}
@@ -0,0 +1,20 @@
+package io.github.zapolyarnydev.generator;
+
+import io.github.zapolyarnydev.noise.Noise;
+
+/**
+ * One layer of a composed noise: a noise and the weight its values are multiplied by before they are summed
+ * with the other layers.
+ *
+ * @param noise  The noise of the layer.
+ * @param weight The weight factor of the layer. Can be negative or positive.
+ * @see NoiseGenerator#generateForMap(io.github.zapolyarnydev.map.NoiseMap, java.util.List)
+ */
+public record NoiseLayer(Noise noise, double weight) {
+
+    public NoiseLayer {
+        if (noise == null) {
+            throw new IllegalArgumentException("Noise generator cannot be null.");
+        }
+    }
+}
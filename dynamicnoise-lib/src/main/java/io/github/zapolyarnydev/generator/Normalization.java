@@ -0,0 +1,23 @@
+package io.github.zapolyarnydev.generator;
+
+import io.github.zapolyarnydev.map.NoiseMap;
+import io.github.zapolyarnydev.writer.NoiseWriter;
+
+/**
+ * How {@link NoiseGenerator} maps noise values to the requested bounds.
+ */
+public enum Normalization {
+
+    /**
+     * Rescales the map so that its own smallest and largest samples become the bounds, see {@link NoiseMap#normalize}.
+     * The whole range is always used, but maps generated separately are scaled differently.
+     */
+    MAP_RANGE,
+
+    /**
+     * Rescales every sample from the theoretical range of the noise, see {@link NoiseWriter#bounds}, as it is written.
+     * The scaling depends only on the noise settings, so chunks of a world fit together, and no second pass is needed.
+     * Maps usually do not reach the bounds.
+     */
+    NOISE_BOUNDS
+}
@@ -0,0 +1,129 @@
+package io.github.zapolyarnydev.generator;
+
+import io.github.zapolyarnydev.buffer.NoiseBuffer;
+import io.github.zapolyarnydev.writer.NoiseProgress;
+import io.github.zapolyarnydev.writer.NoiseRange;
+import io.github.zapolyarnydev.writer.NoiseWindow;
+import io.github.zapolyarnydev.writer.NoiseWriter;
+
+import java.lang.reflect.Array;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Fork-join task that fills an array with noise by recursively splitting it into bands along the first index
+ * (entries of a 1D array, rows of a 2D array, slabs of a 3D array) and writing each band independently.
+ * <p>
+ * Every band is produced by {@link NoiseWriter#write(Object, int, int)}, so the result is identical
+ * to a single serial {@link NoiseWriter#write(Object)} call. With a window, bands are written with
+ * {@link NoiseWriter#write(Object, NoiseWindow, int, int)} instead.
+ * <p>
+ * A task created by {@link #tracking} also tracks the range of the samples: each band is written with
+ * {@link NoiseWriter#write(Object, NoiseWindow, int, int, NoiseRange)} and the ranges of the bands are merged
+ * as the tasks join. Other tasks return {@code null}.
+ * <p>
+ * With a {@link NoiseProgress}, every band reports its rows to it and stops once it is cancelled. The first band
+ * to stop fails its task with a {@link java.util.concurrent.CancellationException}, which the root task rethrows.
+ */
+class ParallelWriteTask extends RecursiveTask<NoiseRange> {
+
+    /**
+     * The minimum number of samples worth handing to a separate task.
+     */
+    private static final int MIN_SAMPLES_PER_TASK = 8192;
+
+    private final NoiseWriter writer;
+    private final Object array;
+    private final NoiseWindow window;
+    private final int from;
+    private final int to;
+    private final int minBand;
+    private final boolean trackRange;
+    private final NoiseProgress progress;
+
+    private ParallelWriteTask(NoiseWriter writer, Object array, NoiseWindow window, int from, int to, int minBand,
+                              boolean trackRange, NoiseProgress progress) {
+        this.writer = writer;
+        this.array = array;
+        this.window = window;
+        this.from = from;
+        this.to = to;
+        this.minBand = minBand;
+        this.trackRange = trackRange;
+        this.progress = progress;
+    }
+
+    /**
+     * Creates a task covering the whole array, split into roughly four bands per worker of the given parallelism.
+     *
+     * @param writer      The writer used to fill each band.
+     * @param array       The array to fill (a jagged {@code double} or {@code float} array or a {@link NoiseBuffer}).
+     * @param window      The placement of the array in world space, or {@code null} for a plain write.
+     * @param parallelism The parallelism of the pool that will run the task.
+     * @param progress    The progress to report to, or {@code null}.
+     * @return The root task.
+     */
+    static ParallelWriteTask of(NoiseWriter writer, Object array, NoiseWindow window, int parallelism, NoiseProgress progress) {
+        return create(writer, array, window, parallelism, false, progress);
+    }
+
+    /**
+     * Creates a task that writes the whole array without a window and returns the range of the written samples.
+     *
+     * @param writer      The writer used to fill each band.
+     * @param array       The array to fill.
+     * @param parallelism The parallelism of the pool that will run the task.
+     * @param progress    The progress to report to, or {@code null}.
+     * @return The root task.
+     */
+    static ParallelWriteTask tracking(NoiseWriter writer, Object array, int parallelism, NoiseProgress progress) {
+        return create(writer, array, NoiseWindow.ORIGIN, parallelism, true, progress);
+    }
+
+    private static ParallelWriteTask create(NoiseWriter writer, Object array, NoiseWindow window, int parallelism,
+                                            boolean trackRange, NoiseProgress progress) {
+        int length = array instanceof NoiseBuffer buffer ? buffer.width() : Array.getLength(array);
+        int samplesPerIndex = Math.max(1, samplesPerIndex(array));
+        int minBand = Math.max(1, length / (Math.max(1, parallelism) * 4));
+        minBand = Math.max(minBand, (MIN_SAMPLES_PER_TASK + samplesPerIndex - 1) / samplesPerIndex);
+        return new ParallelWriteTask(writer, array, window, 0, length, minBand, trackRange, progress);
+    }
+
+    private static int samplesPerIndex(Object array) {
+        if (array instanceof NoiseBuffer buffer) {
+            return buffer.dimension() == 1 ? 1 : buffer.height() * buffer.depth();
+        }
+        int samples = 1;
+        Object element = array;
+        while (element.getClass().getComponentType().isArray() && Array.getLength(element) > 0) {
+            element = Array.get(element, 0);
+            samples *= Array.getLength(element);
+        }
+        return samples;
+    }
+
+    @Override
+    protected NoiseRange compute() {
+        if (to - from <= minBand) {
+            if (trackRange || progress != null) {
+                NoiseRange range = trackRange ? new NoiseRange() : null;
+                writer.write(array, window == null ? NoiseWindow.ORIGIN : window, from, to, range, progress);
+                return range;
+            }
+            if (window == null) {
+                writer.write(array, from, to);
+            } else {
+                writer.write(array, window, from, to);
+            }
+            return null;
+        }
+        int middle = (from + to) >>> 1;
+        ParallelWriteTask left = new ParallelWriteTask(writer, array, window, from, middle, minBand, trackRange, progress);
+        left.fork();
+        NoiseRange range = new ParallelWriteTask(writer, array, window, middle, to, minBand, trackRange, progress).compute();
+        NoiseRange leftRange = left.join();
+        if (range != null) {
+            range.include(leftRange);
+        }
+        return range;
+    }
+}
@@ -9,69 +9,118 @@ import io.github.zapolyarnydev.noise.white.WhiteNoise;
 import io.github.zapolyarnydev.writer.NoiseWriter;
 import io.github.zapolyarnydev.writer.impl.*;
 
-import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationTargetException;
 import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 
+/**
+ * Creates writers for noise settings and caches them.
+ * <p>
+ * Writers are immutable once constructed, so a single instance is shared by every generation with the same
+ * noise type and parameters. The cache is keyed by the noise info record, which captures both, and keeps
+ * the {@link #CACHE_CAPACITY} most recently used writers.
+ */
 class WriterManager {
 
-    private static final Map<Class<? extends Noise>, Class<? extends NoiseWriter>> registeredWriters = Map.of(
-            PerlinNoise.class, PerlinNoiseWriter.class,
-            SimplexNoise.class, SimplexNoiseWriter.class,
-            ValueNoise.class, ValueNoiseWriter.class,
-            WhiteNoise.class, WhiteNoiseWriter.class
+    /**
+     * The maximum number of writers kept in the cache.
+     */
+    static final int CACHE_CAPACITY = 64;
+
+    private static final Map<Class<? extends Noise>, BiFunction<Noise, Integer, Object>> infoFactories = Map.of(
+            PerlinNoise.class, (noise, seed) -> new PerlinNoiseInfo(seed, noise.getScale(), noise.getOctaves(), noise.getLacunarity(), noise.getPersistence()),
+            SimplexNoise.class, (noise, seed) -> new SimplexNoiseInfo(seed, noise.getScale(), noise.getOctaves(), noise.getLacunarity(), noise.getPersistence(),
+                    ((SimplexNoise) noise).isLegacy()),
+            ValueNoise.class, (noise, seed) -> new ValueNoiseInfo(seed, noise.getScale(), noise.getOctaves(), noise.getLacunarity(), noise.getPersistence()),
+            WhiteNoise.class, (noise, seed) -> new WhiteNoiseInfo(seed, noise.getScale(), noise.getOctaves(), noise.getLacunarity(), noise.getPersistence())
     );
 
-    private static final Map<Class<? extends Noise>, Class<?>> noiseInfoMap = Map.of(
-            PerlinNoise.class, PerlinNoiseInfo.class,
-            SimplexNoise.class, SimplexNoiseInfo.class,
-            ValueNoise.class, ValueNoiseInfo.class,
-            WhiteNoise.class, WhiteNoiseInfo.class
+    private static final Map<Class<?>, Function<Object, NoiseWriter>> writerFactories = Map.of(
+            PerlinNoiseInfo.class, info -> new PerlinNoiseWriter((PerlinNoiseInfo) info),
+            SimplexNoiseInfo.class, info -> ((SimplexNoiseInfo) info).legacy()
+                    ? new LegacySimplexNoiseWriter((SimplexNoiseInfo) info)
+                    : new SimplexNoiseWriter((SimplexNoiseInfo) info),
+            ValueNoiseInfo.class, info -> new ValueNoiseWriter((ValueNoiseInfo) info),
+            WhiteNoiseInfo.class, info -> new WhiteNoiseWriter((WhiteNoiseInfo) info)
     );
 
-    public static NoiseWriter getWriter(Noise noise) {
-        Class<? extends NoiseWriter> writerClass = registeredWriters.get(noise.getClass());
-        Class<?> infoClass = noiseInfoMap.get(noise.getClass());
+    private static final LongAdder hits = new LongAdder();
+    private static final LongAdder misses = new LongAdder();
+    private static final LongAdder evictions = new LongAdder();
 
-        if (writerClass == null || infoClass == null) {
+    private static final Map<Object, NoiseWriter> cache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Object, NoiseWriter> eldest) {
+            if (size() > CACHE_CAPACITY) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        }
+    };
+
+    public static NoiseWriter getWriter(Noise noise) {
+        Object info = getInfo(noise);
+        if (info == null) {
             return null;
         }
 
-        Object info = createNoiseInfo(noise, infoClass);
-        return instantiateWriter(writerClass, info);
+        NoiseWriter writer;
+        synchronized (cache) {
+            writer = cache.get(info);
+        }
+        if (writer != null) {
+            hits.increment();
+            return writer;
+        }
+
+        misses.increment();
+        NoiseWriter created = createWriter(info);
+        synchronized (cache) {
+            writer = cache.putIfAbsent(info, created);
+        }
+        return writer != null ? writer : created;
     }
 
-    private static Object createNoiseInfo(Noise noise, Class<?> infoClass) {
-        Map<String, Object> params = new LinkedHashMap<>();
-        params.put("seed", noise.getSeed());
-        params.put("scale", noise.getScale());
-        params.put("octaves", noise.getOctaves());
-        params.put("lacunarity", noise.getLacunarity());
-        params.put("persistence", noise.getPersistence());
+    /**
+     * Returns the info record of the noise: an immutable value identifying its type and current parameters,
+     * or {@code null} for an unknown noise type.
+     */
+    static Object getInfo(Noise noise) {
+        return getInfo(noise, noise.getSeed());
+    }
 
+    /**
+     * Returns the info record of the noise with its seed replaced by {@code seed}, or {@code null} for an unknown
+     * noise type. The noise itself is not modified.
+     */
+    static Object getInfo(Noise noise, int seed) {
+        BiFunction<Noise, Integer, Object> infoFactory = infoFactories.get(noise.getClass());
+        return infoFactory == null ? null : infoFactory.apply(noise, seed);
+    }
 
-        return instantiateInfo(infoClass, params);
+    /**
+     * Creates a new writer for an info record returned by {@link #getInfo}, bypassing the cache.
+     * Used for writers that are not expected to be requested again, such as the seeds of a seed sweep,
+     * which would otherwise evict the writers that are.
+     */
+    static NoiseWriter createWriter(Object info) {
+        return writerFactories.get(info.getClass()).apply(info);
     }
 
-    private static Object instantiateInfo(Class<?> infoClass, Map<String, Object> params) {
-        try {
-            for (Constructor<?> constructor : infoClass.getConstructors()) {
-                if (constructor.getParameterCount() == params.size()) {
-                    return constructor.newInstance(params.values().toArray());
-                }
-            }
-            throw new RuntimeException("No matching constructor found for " + infoClass.getSimpleName());
-        } catch (InstantiationException | IllegalAccessException | InvocationTargetException e) {
-            throw new RuntimeException("Failed to create noise info instance", e);
+    static CacheStats stats() {
+        int size;
+        synchronized (cache) {
+            size = cache.size();
         }
+        return new CacheStats(hits.sum(), misses.sum(), evictions.sum(), size);
     }
 
-    private static NoiseWriter instantiateWriter(Class<? extends NoiseWriter> writerClass, Object info) {
-        try {
-            return writerClass.getConstructor(info.getClass()).newInstance(info);
-        } catch (InstantiationException | IllegalAccessException | InvocationTargetException | NoSuchMethodException e) {
-            throw new RuntimeException("Failed to create noise writer instance", e);
+    static void clear() {
+        synchronized (cache) {
+            cache.clear();
         }
     }
 }
@@ -1,17 +1,57 @@
 package io.github.zapolyarnydev.map;
 
 import lombok.Getter;
+import io.github.zapolyarnydev.buffer.DoubleNoiseBuffer;
+import io.github.zapolyarnydev.buffer.FloatNoiseBuffer;
+import io.github.zapolyarnydev.buffer.NoiseBuffer;
 import io.github.zapolyarnydev.thread.VirtualThreadExecutor;
+import io.github.zapolyarnydev.writer.NoiseRange;
 
+import java.lang.reflect.Array;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
+import java.util.stream.Stream;
 
 /**
  * This class represents a noise map with support for 1D, 2D, and 3D arrays.
+ * <p>
+ * Besides jagged {@code double} arrays, a map can be backed by a {@link NoiseBuffer} such as
+ * {@link DoubleNoiseBuffer}, which stores the whole map in one contiguous array:
+ * <pre>{@code
+ * NoiseMap map = new NoiseMap(new DoubleNoiseBuffer(256, 256, 256));
+ * }</pre>
+ * <p>
+ * Maps can also be stored in single precision, using {@code float[]}, {@code float[][]}, {@code float[][][]}
+ * or a {@link FloatNoiseBuffer}. This halves the memory footprint. Noise is still evaluated in double precision
+ * and rounded once per sample, so a generated float sample differs from the double one by at most
+ * half a float ulp (relative error 2<sup>-24</sup>). {@link #normalize} rescales in double precision and rounds once more,
+ * so a normalized float map stays within a few float ulps of the double map; for the built-in noise types
+ * the difference is below {@code 2e-7 * (upperBound - lowerBound)}.
+ * <p>
+ * Maps that should stay off the Java heap can use an {@link io.github.zapolyarnydev.buffer.OffHeapNoiseBuffer},
+ * and maps larger than the heap a file-backed {@link io.github.zapolyarnydev.buffer.MappedNoiseBuffer}.
+ * Both are filled, normalized and combined in place, streaming over the samples in small chunks.
  */
 public class NoiseMap {
 
+    /**
+     * The number of samples copied at once when a map stored outside a Java array is processed.
+     */
+    private static final int CHUNK_LENGTH = 4096;
+
+    /**
+     * The number of samples normalized by one task.
+     */
+    private static final int SEGMENT_LENGTH = 1 << 16;
+
+    /**
+     * The number of samples from which a map is normalized in parallel.
+     */
+    private static final long PARALLEL_THRESHOLD = 1 << 17;
+
     private final Object map;
 
     /**
@@ -32,10 +72,11 @@ public class NoiseMap {
 
     /**
      * Creates a new noise map from a given array.
-     * The array must be one of the following types: double[], double[][], or double[][][].
+     * The array must be one of the following types: double[], double[][], double[][][], float[], float[][], float[][][]
+     * or {@link NoiseBuffer}.
      *
      * @param map The array to initialize the noise map with.
-     * @throws IllegalArgumentException If the array is not of type double[], double[][], or double[][][].
+     * @throws IllegalArgumentException If the array is not one of the supported types.
      */
     public NoiseMap(Object map) throws IllegalArgumentException {
         switch (map) {
@@ -54,8 +95,28 @@ public class NoiseMap {
                 this.dimensionSize = 3;
                 this.mapSize = doubles.length;
             }
+            case float[] floats -> {
+                this.map = map;
+                this.dimensionSize = 1;
+                this.mapSize = floats.length;
+            }
+            case float[][] floats -> {
+                this.map = map;
+                this.dimensionSize = 2;
+                this.mapSize = floats.length;
+            }
+            case float[][][] floats -> {
+                this.map = map;
+                this.dimensionSize = 3;
+                this.mapSize = floats.length;
+            }
+            case NoiseBuffer buffer -> {
+                this.map = map;
+                this.dimensionSize = buffer.dimension();
+                this.mapSize = buffer.width();
+            }
             case null, default ->
-                    throw new IllegalArgumentException("Invalid map type. Map must be of type double[], double[][], or double[][][]");
+                    throw new IllegalArgumentException("Invalid map type. Map must be of type double[], double[][], double[][][], float[], float[][], float[][][] or NoiseBuffer");
         }
 
         if (mapSize < 32) {
@@ -66,7 +127,7 @@ public class NoiseMap {
     /**
      * Retrieves the noise map based on the dimension size.
      *
-     * @param <T> The type of the returned map (either double[], double[][], or double[][][]).
+     * @param <T> The type of the returned map (either double[], double[][], double[][][] or the {@link NoiseBuffer} the map was created with).
      * @return The noise map array of the appropriate dimension.
      */
     @SuppressWarnings("unchecked")
@@ -74,8 +135,23 @@ public class NoiseMap {
         return (T) map;
     }
 
+    /**
+     * Retrieves the single-precision noise map based on the dimension size.
+     *
+     * @param <T> The type of the returned map (either float[], float[][], float[][][] or the {@link NoiseBuffer} the map was created with).
+     * @return The noise map array of the appropriate dimension.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T getFloatArray() {
+        return (T) map;
+    }
+
     /**
      * Normalizes the values in the map to the specified range.
+     * <p>
+     * The smallest and largest samples are found first, see {@link #range()}, and the map is then rescaled
+     * in a single pass. Large maps are processed in parallel, on the fork-join pool of the calling thread
+     * or on the common pool.
      *
      * @param lowerBound The lower bound of the normalization range.
      * @param upperBound The upper bound of the normalization range.
@@ -85,110 +161,258 @@ public class NoiseMap {
         if (lowerBound > upperBound) {
             throw new IllegalArgumentException("Lower bound must be less than upper bound.");
         }
+        Object rows = rows();
+        List<Segment> segments = segments(rows);
+        NoiseRange range = range(rows, segments);
+        rescale(rows, segments, lowerBound, upperBound, range.min(), range.max());
+    }
 
-        if (map instanceof double[]) {
-            normalize1D(lowerBound, upperBound);
-        } else if (map instanceof double[][]) {
-            normalize2D(lowerBound, upperBound);
-        } else if (map instanceof double[][][]) {
-            normalize3D(lowerBound, upperBound);
+    /**
+     * Normalizes the values in the map to the specified range, given the smallest and largest sample of the map.
+     * This skips the search for them, so the map is only read and written once. {@code NoiseGenerator} uses it
+     * with the range tracked while the map was written.
+     * <p>
+     * The result equals {@link #normalize(double, double)} if {@code min} and {@code max} are the actual extremes
+     * of the map. Samples outside {@code [min, max]} are mapped outside {@code [lowerBound, upperBound]}.
+     *
+     * @param lowerBound The lower bound of the normalization range.
+     * @param upperBound The upper bound of the normalization range.
+     * @param min        The smallest sample of the map.
+     * @param max        The largest sample of the map.
+     * @throws IllegalArgumentException If the lowerBound is greater than the upperBound.
+     */
+    public void normalize(double lowerBound, double upperBound, double min, double max) {
+        if (lowerBound > upperBound) {
+            throw new IllegalArgumentException("Lower bound must be less than upper bound.");
         }
+        Object rows = rows();
+        rescale(rows, segments(rows), lowerBound, upperBound, min, max);
     }
 
-    private void normalize1D(double lowerBound, double upperBound) {
-        double[] map1D = (double[]) map;
-        if (map1D.length == 0) return;
-
-        double min = Arrays.stream(map1D).min().orElse(Double.MAX_VALUE);
-        double max = Arrays.stream(map1D).max().orElse(Double.MIN_VALUE);
+    /**
+     * Finds the smallest and largest sample of the map. Large maps are scanned in parallel.
+     *
+     * @return The range of the samples; empty if the map holds no samples.
+     */
+    public NoiseRange range() {
+        Object rows = rows();
+        return range(rows, segments(rows));
+    }
 
-        if (min == max) {
-            Arrays.fill(map1D, lowerBound);
-            return;
-        }
+    /**
+     * Counts the samples of the map over all dimensions, walking the rows in place.
+     *
+     * @return The number of samples.
+     */
+    public long getSampleCount() {
+        return switch (map) {
+            case double[] doubles -> doubles.length;
+            case double[][] doubles -> {
+                long count = 0;
+                for (double[] row : doubles) {
+                    count += row.length;
+                }
+                yield count;
+            }
+            case double[][][] doubles -> {
+                long count = 0;
+                for (double[][] slab : doubles) {
+                    for (double[] row : slab) {
+                        count += row.length;
+                    }
+                }
+                yield count;
+            }
+            case float[] floats -> floats.length;
+            case float[][] floats -> {
+                long count = 0;
+                for (float[] row : floats) {
+                    count += row.length;
+                }
+                yield count;
+            }
+            case float[][][] floats -> {
+                long count = 0;
+                for (float[][] slab : floats) {
+                    for (float[] row : slab) {
+                        count += row.length;
+                    }
+                }
+                yield count;
+            }
+            case NoiseBuffer buffer -> buffer.size();
+            default -> throw new IllegalStateException("Unexpected map type: " + map.getClass().getName());
+        };
+    }
 
-        for (int i = 0; i < map1D.length; i++) {
-            map1D[i] = lowerBound + (map1D[i] - min) / (max - min) * (upperBound - lowerBound);
-        }
+    private static NoiseRange range(Object rows, List<Segment> segments) {
+        return stream(segments).collect(NoiseRange::new,
+                (range, segment) -> include(range, rows, segment), NoiseRange::include);
     }
 
-    private void normalize2D(double lowerBound, double upperBound) {
-        double[][] map2D = (double[][]) map;
-        if (map2D.length == 0) return;
+    /**
+     * A run of samples {@code [from, to)} of one row, the unit of work of a parallel normalization.
+     * Maps stored outside a Java array are a single row of {@link NoiseBuffer#size()} samples.
+     */
+    private record Segment(int row, long from, long to) {
+    }
 
-        double min = Double.MAX_VALUE;
-        double max = Double.MIN_VALUE;
+    /**
+     * Collects the rows of the map: a {@code double[][]} or {@code float[][]} for maps stored in Java arrays,
+     * or the {@link NoiseBuffer} itself.
+     */
+    private Object rows() {
+        return switch (map) {
+            case double[] doubles -> new double[][]{doubles};
+            case double[][] doubles -> doubles;
+            case double[][][] doubles -> Arrays.stream(doubles).flatMap(Arrays::stream).toArray(double[][]::new);
+            case DoubleNoiseBuffer buffer -> new double[][]{buffer.data()};
+            case FloatNoiseBuffer buffer -> floatRows(buffer);
+            case NoiseBuffer buffer -> buffer;
+            default -> floatRows(map);
+        };
+    }
 
-        for (double[] row : map2D) {
-            for (double value : row) {
-                min = Math.min(min, value);
-                max = Math.max(max, value);
+    private static List<Segment> segments(Object rows) {
+        List<Segment> segments = new ArrayList<>();
+        switch (rows) {
+            case double[][] doubles -> {
+                for (int row = 0; row < doubles.length; row++) {
+                    split(segments, row, doubles[row].length);
+                }
             }
-        }
-
-        if (min == max) {
-            for (double[] row : map2D) {
-                Arrays.fill(row, lowerBound);
+            case float[][] floats -> {
+                for (int row = 0; row < floats.length; row++) {
+                    split(segments, row, floats[row].length);
+                }
             }
-            return;
+            default -> split(segments, 0, ((NoiseBuffer) rows).size());
         }
+        return segments;
+    }
 
-        for (int i = 0; i < map2D.length; i++) {
-            for (int j = 0; j < map2D[i].length; j++) {
-                map2D[i][j] = lowerBound + (map2D[i][j] - min) / (max - min) * (upperBound - lowerBound);
-            }
+    private static void split(List<Segment> segments, int row, long length) {
+        for (long from = 0; from < length; from += SEGMENT_LENGTH) {
+            segments.add(new Segment(row, from, Math.min(length, from + SEGMENT_LENGTH)));
         }
     }
 
-    private void normalize3D(double lowerBound, double upperBound) {
-        double[][][] map3D = (double[][][]) map;
-        if (map3D.length == 0) return;
-
-        double min = Double.MAX_VALUE;
-        double max = Double.MIN_VALUE;
+    private static Stream<Segment> stream(List<Segment> segments) {
+        long samples = 0;
+        for (Segment segment : segments) {
+            samples += segment.to() - segment.from();
+        }
+        return samples >= PARALLEL_THRESHOLD ? segments.parallelStream() : segments.stream();
+    }
 
-        for (double[][] slice : map3D) {
-            for (double[] row : slice) {
-                for (double value : row) {
-                    min = Math.min(min, value);
-                    max = Math.max(max, value);
+    private static void include(NoiseRange range, Object rows, Segment segment) {
+        int from = (int) segment.from();
+        int length = (int) (segment.to() - segment.from());
+        switch (rows) {
+            case double[][] doubles -> range.include(doubles[segment.row()], from, length);
+            case float[][] floats -> range.include(floats[segment.row()], from, length);
+            default -> {
+                NoiseBuffer buffer = (NoiseBuffer) rows;
+                double[] chunk = new double[Math.min(length, CHUNK_LENGTH)];
+                for (long index = segment.from(); index < segment.to(); index += chunk.length) {
+                    int count = (int) Math.min(chunk.length, segment.to() - index);
+                    buffer.getRow(index, chunk, 0, count);
+                    range.include(chunk, 0, count);
                 }
             }
         }
+    }
 
-        if (min == max) {
-            for (double[][] slice : map3D) {
-                for (double[] row : slice) {
-                    Arrays.fill(row, lowerBound);
-                }
+    private static void rescale(Object rows, List<Segment> segments, double lowerBound, double upperBound, double min, double max) {
+        stream(segments).forEach(segment -> {
+            switch (rows) {
+                case double[][] doubles -> rescale(doubles[segment.row()], (int) segment.from(), (int) segment.to(),
+                        lowerBound, upperBound, min, max);
+                case float[][] floats -> rescale(floats[segment.row()], (int) segment.from(), (int) segment.to(),
+                        lowerBound, upperBound, (float) min, (float) max);
+                default -> rescale((NoiseBuffer) rows, segment.from(), segment.to(), lowerBound, upperBound, min, max);
             }
+        });
+    }
+
+    private static void rescale(double[] row, int from, int to, double lowerBound, double upperBound, double min, double max) {
+        if (min == max) {
+            Arrays.fill(row, from, to, lowerBound);
             return;
         }
+        for (int i = from; i < to; i++) {
+            row[i] = lowerBound + (row[i] - min) / (max - min) * (upperBound - lowerBound);
+        }
+    }
 
-        for (int i = 0; i < map3D.length; i++) {
-            for (int j = 0; j < map3D[i].length; j++) {
-                for (int k = 0; k < map3D[i][j].length; k++) {
-                    map3D[i][j][k] = lowerBound + (map3D[i][j][k] - min) / (max - min) * (upperBound - lowerBound);
-                }
+    private static void rescale(float[] row, int from, int to, double lowerBound, double upperBound, float min, float max) {
+        if (min == max) {
+            Arrays.fill(row, from, to, (float) lowerBound);
+            return;
+        }
+        for (int i = from; i < to; i++) {
+            row[i] = (float) (lowerBound + (row[i] - (double) min) / ((double) max - min) * (upperBound - lowerBound));
+        }
+    }
+
+    private static void rescale(NoiseBuffer buffer, long from, long to, double lowerBound, double upperBound, double min, double max) {
+        double[] chunk = new double[(int) Math.min(to - from, CHUNK_LENGTH)];
+        for (long index = from; index < to; index += chunk.length) {
+            int length = (int) Math.min(chunk.length, to - index);
+            if (min != max) {
+                buffer.getRow(index, chunk, 0, length);
             }
+            rescale(chunk, 0, length, lowerBound, upperBound, min, max);
+            buffer.setRow(index, chunk, 0, length);
         }
     }
 
+    private boolean isFloatArray() {
+        return map instanceof float[] || map instanceof float[][] || map instanceof float[][][];
+    }
+
     /**
-     * Asynchronously normalizes the noise map using a virtual stream.
+     * Collects the rows of a jagged float array so that all dimensions can be processed by the same loops.
+     */
+    private static float[][] floatRows(Object array) {
+        return switch (array) {
+            case float[] floats -> new float[][]{floats};
+            case float[][] floats -> floats;
+            case float[][][] floats -> Arrays.stream(floats).flatMap(Arrays::stream).toArray(float[][]::new);
+            case FloatNoiseBuffer buffer -> new float[][]{buffer.data()};
+            default -> throw new IllegalArgumentException("Not a float map: " + array.getClass().getName());
+        };
+    }
+
+    /**
+     * Asynchronously normalizes the noise map on {@link VirtualThreadExecutor#shared()}.
      *
      * @param lowerBound The lower bound of the normalization range.
      * @param upperBound The upper bound of the normalization range.
      * @return A CompletableFuture that completes when normalization is done.
      */
     public CompletableFuture<Void> normalizeAsync(double lowerBound, double upperBound) {
-        Executor executor = new VirtualThreadExecutor();
+        return normalizeAsync(lowerBound, upperBound, VirtualThreadExecutor.shared());
+    }
+
+    /**
+     * Asynchronously normalizes the noise map on the given executor.
+     *
+     * @param lowerBound The lower bound of the normalization range.
+     * @param upperBound The upper bound of the normalization range.
+     * @param executor   The executor to run the normalization on.
+     * @return A CompletableFuture that completes when normalization is done.
+     */
+    public CompletableFuture<Void> normalizeAsync(double lowerBound, double upperBound, Executor executor) {
         return CompletableFuture.runAsync(() -> normalize(lowerBound, upperBound), executor);
     }
 
     /**
      * Combines this noise map with another noise map using a specified weight.
-     * The other noise map must have the same dimensions and size.
+     * The other noise map must have the same dimensions and size. It may use another storage, e.g. a
+     * {@link DoubleNoiseBuffer} can be combined with a {@code double[][]}; such maps must not be jagged.
+     * Single and double precision maps can be mixed as well: every sum is computed in double precision and,
+     * if this map stores floats, rounded once when stored.
      *
      * @param other  The noise map to combine with.
      * @param weight The weight factor for combining. Can be negative or positive.
@@ -199,6 +423,16 @@ public class NoiseMap {
             throw new IllegalArgumentException("Noise maps must have the same dimensions and size to combine.");
         }
 
+        if (map instanceof NoiseBuffer buffer && other.map instanceof NoiseBuffer otherBuffer) {
+            combineBuffers(buffer, otherBuffer, weight);
+            return;
+        }
+
+        if (isFloatArray() && other.isFloatArray()) {
+            combineFloat(floatRows(map), floatRows(other.map), weight);
+            return;
+        }
+
         if (map instanceof double[] map1D && other.map instanceof double[] other1D) {
             for (int i = 0; i < map1D.length; i++) {
                 map1D[i] += other1D[i] * weight;
@@ -217,19 +451,184 @@ public class NoiseMap {
                     }
                 }
             }
+        } else {
+            combineSamples(other, weight);
+        }
+    }
+
+    /**
+     * Combines maps of the same shape stored differently, row by row in chunks of {@link #CHUNK_LENGTH} samples.
+     */
+    private void combineSamples(NoiseMap other, double weight) {
+        int[] shape = shape();
+        if (!Arrays.equals(shape, other.shape())) {
+            throw new IllegalArgumentException("Noise maps must have the same dimensions and size to combine.");
+        }
+        int rowLength = shape[dimensionSize - 1];
+        long size = (long) shape[0] * shape[1] * shape[2];
+        if (size == 0) {
+            return;
+        }
+        Object rows = rows();
+        Object otherRows = other.rows();
+        double[] chunk = new double[Math.min(rowLength, CHUNK_LENGTH)];
+        double[] otherChunk = new double[chunk.length];
+        for (long row = 0; row < size; row += rowLength) {
+            for (int done = 0; done < rowLength; done += chunk.length) {
+                int length = Math.min(chunk.length, rowLength - done);
+                read(rows, row + done, chunk, length);
+                read(otherRows, row + done, otherChunk, length);
+                for (int i = 0; i < length; i++) {
+                    chunk[i] += otherChunk[i] * weight;
+                }
+                write(rows, row + done, chunk, length);
+            }
         }
     }
 
     /**
-     * Asynchronously combines this noise map with another noise map using a specified weight.
-     * The other noise map must have the same dimensions and size.
+     * The width, height and depth of the map, as for a {@link NoiseBuffer}; unused axes have length 1.
+     *
+     * @throws IllegalArgumentException If the map is a jagged array whose rows differ in length.
+     */
+    private int[] shape() {
+        if (map instanceof NoiseBuffer buffer) {
+            return new int[]{buffer.width(), buffer.height(), buffer.depth()};
+        }
+        int[] shape = {-1, 1, 1};
+        for (int axis = 1; axis < dimensionSize; axis++) {
+            shape[axis] = -1;
+        }
+        measure(map, 0, shape);
+        return shape;
+    }
+
+    private void measure(Object array, int axis, int[] shape) {
+        int length = Array.getLength(array);
+        if (shape[axis] < 0) {
+            shape[axis] = length;
+        } else if (shape[axis] != length) {
+            throw new IllegalArgumentException("Jagged noise maps can only be combined with maps of the same storage.");
+        }
+        if (axis + 1 < dimensionSize) {
+            for (int i = 0; i < length; i++) {
+                measure(Array.get(array, i), axis + 1, shape);
+            }
+        }
+    }
+
+    /**
+     * Reads {@code length} samples from {@code index} of the map in row-major order, where {@code rows} are
+     * the rows of a map that is not jagged, see {@link #rows()}. The samples must lie in one row.
+     */
+    private static void read(Object rows, long index, double[] out, int length) {
+        switch (rows) {
+            case double[][] doubles -> {
+                int rowLength = doubles[0].length;
+                System.arraycopy(doubles[(int) (index / rowLength)], (int) (index % rowLength), out, 0, length);
+            }
+            case float[][] floats -> {
+                int rowLength = floats[0].length;
+                float[] row = floats[(int) (index / rowLength)];
+                int offset = (int) (index % rowLength);
+                for (int i = 0; i < length; i++) {
+                    out[i] = row[offset + i];
+                }
+            }
+            default -> ((NoiseBuffer) rows).getRow(index, out, 0, length);
+        }
+    }
+
+    /**
+     * Writes {@code length} samples at {@code index} of the map, the counterpart of {@link #read}.
+     * Float maps round every sample once.
+     */
+    private static void write(Object rows, long index, double[] in, int length) {
+        switch (rows) {
+            case double[][] doubles -> {
+                int rowLength = doubles[0].length;
+                System.arraycopy(in, 0, doubles[(int) (index / rowLength)], (int) (index % rowLength), length);
+            }
+            case float[][] floats -> {
+                int rowLength = floats[0].length;
+                float[] row = floats[(int) (index / rowLength)];
+                int offset = (int) (index % rowLength);
+                for (int i = 0; i < length; i++) {
+                    row[offset + i] = (float) in[i];
+                }
+            }
+            default -> ((NoiseBuffer) rows).setRow(index, in, 0, length);
+        }
+    }
+
+    private void combineBuffers(NoiseBuffer buffer, NoiseBuffer other, double weight) {
+        if (buffer.height() != other.height() || buffer.depth() != other.depth()) {
+            throw new IllegalArgumentException("Noise maps must have the same dimensions and size to combine.");
+        }
+
+        if (buffer instanceof DoubleNoiseBuffer flat && other instanceof DoubleNoiseBuffer otherFlat) {
+            double[] data = flat.data();
+            double[] otherData = otherFlat.data();
+            for (int i = 0; i < data.length; i++) {
+                data[i] += otherData[i] * weight;
+            }
+            return;
+        }
+
+        if (buffer instanceof FloatNoiseBuffer flat && other instanceof FloatNoiseBuffer otherFlat) {
+            combineFloat(floatRows(flat), floatRows(otherFlat), weight);
+            return;
+        }
+
+        long size = buffer.size();
+        int chunkLength = (int) Math.min(size, CHUNK_LENGTH);
+        double[] chunk = new double[chunkLength];
+        double[] otherChunk = new double[chunkLength];
+        for (long index = 0; index < size; index += chunkLength) {
+            int length = (int) Math.min(chunkLength, size - index);
+            buffer.getRow(index, chunk, 0, length);
+            other.getRow(index, otherChunk, 0, length);
+            for (int i = 0; i < length; i++) {
+                chunk[i] += otherChunk[i] * weight;
+            }
+            buffer.setRow(index, chunk, 0, length);
+        }
+    }
+
+    private void combineFloat(float[][] rows, float[][] otherRows, double weight) {
+        if (rows.length != otherRows.length) {
+            throw new IllegalArgumentException("Noise maps must have the same dimensions and size to combine.");
+        }
+        for (int r = 0; r < rows.length; r++) {
+            float[] row = rows[r];
+            float[] otherRow = otherRows[r];
+            for (int i = 0; i < row.length; i++) {
+                row[i] = (float) (row[i] + otherRow[i] * weight);
+            }
+        }
+    }
+
+    /**
+     * Asynchronously combines this noise map with another noise map using a specified weight,
+     * on {@link VirtualThreadExecutor#shared()}. The other noise map must have the same dimensions and size.
      *
      * @param other  The noise map to combine with.
      * @param weight The weight factor for combining. Can be negative or positive.
      * @return A CompletableFuture that completes when combination is done.
      */
     public CompletableFuture<Void> combineAsync(NoiseMap other, double weight) {
-        Executor executor = new VirtualThreadExecutor();
+        return combineAsync(other, weight, VirtualThreadExecutor.shared());
+    }
+
+    /**
+     * Asynchronously combines this noise map with another noise map on the given executor.
+     *
+     * @param other    The noise map to combine with.
+     * @param weight   The weight factor for combining. Can be negative or positive.
+     * @param executor The executor to run the combination on.
+     * @return A CompletableFuture that completes when combination is done.
+     */
+    public CompletableFuture<Void> combineAsync(NoiseMap other, double weight, Executor executor) {
         return CompletableFuture.runAsync(() -> combine(other, weight), executor);
     }
 }
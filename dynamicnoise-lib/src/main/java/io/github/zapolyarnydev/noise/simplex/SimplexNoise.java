@@ -19,6 +19,8 @@ import java.util.Random;
  *     <li><strong>Octaves</strong>: Specifies the number of layers of noise, adding finer details with each octave.</li>
  *     <li><strong>Lacunarity</strong>: Controls the increase in frequency between successive octaves.</li>
  *     <li><strong>Persistence</strong>: Determines the amplitude of successive octaves.</li>
+ *     <li><strong>Legacy</strong>: Generates the improved Perlin noise that earlier versions of the library produced
+ *     for simplex settings, for worlds that must keep their terrain. Disabled by default.</li>
  * </ul>
  *
  * <p>This class includes a default constructor that initializes the noise generator with preset default values
@@ -39,6 +41,7 @@ public class SimplexNoise implements Noise {
     private int octaves;
     private double lacunarity;
     private double persistence;
+    private boolean legacy;
     private final Random random = new Random();
 
     /**
@@ -49,6 +52,7 @@ public class SimplexNoise implements Noise {
      *     <li>Octaves: 3</li>
      *     <li>Lacunarity: 2.0</li>
      *     <li>Persistence: 0.5</li>
+     *     <li>Legacy: false</li>
      * </ul>
      */
     public SimplexNoise() {
@@ -57,6 +61,7 @@ public class SimplexNoise implements Noise {
         this.octaves = 3;
         this.lacunarity = 2;
         this.persistence = 0.5;
+        this.legacy = false;
     }
 
     /**
@@ -67,6 +72,7 @@ public class SimplexNoise implements Noise {
      *     <li>Octaves: 3</li>
      *     <li>Lacunarity: 2.0</li>
      *     <li>Persistence: 0.5</li>
+     *     <li>Legacy: false</li>
      * </ul>
      */
     @Override
@@ -76,5 +82,6 @@ public class SimplexNoise implements Noise {
         this.octaves = 3;
         this.lacunarity = 2;
         this.persistence = 0.5;
+        this.legacy = false;
     }
 }
@@ -4,5 +4,6 @@
 module DynamicNoise.dynamicnoise.lib {
     requires DynamicNoise.dynamicnoise.generation;
     requires static lombok;
+    requires jdk.jfr;
     exports io.github.zapolyarnydev.generator;
 }
\ No newline at end of file
@@ -0,0 +1,96 @@
+package io.github.zapolyarnydev.buffer;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MappedNoiseBufferTest {
+
+    /**
+     * The number of samples of a mapped segment.
+     */
+    private static final long SEGMENT = 1L << 27;
+
+    @Test
+    void storesLittleEndianSamplesInTheFile() throws IOException {
+        Path file = Files.createTempFile("noise", ".bin");
+        try {
+            try (MappedNoiseBuffer buffer = new MappedNoiseBuffer(file, 32, 4)) {
+                buffer.setRow(buffer.index(3, 0, 0), new double[]{0.5, -1, 2, 4}, 0, 4);
+                buffer.force();
+            }
+            assertEquals(32 * 4 * Double.BYTES, Files.size(file));
+
+            ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(file)).order(ByteOrder.LITTLE_ENDIAN);
+            assertEquals(-1, bytes.getDouble((3 * 4 + 1) * Double.BYTES));
+
+            try (MappedNoiseBuffer buffer = new MappedNoiseBuffer(file, 32, 4)) {
+                double[] row = new double[4];
+                buffer.getRow(buffer.index(3, 0, 0), row, 0, row.length);
+                assertArrayEquals(new double[]{0.5, -1, 2, 4}, row);
+            }
+        } finally {
+            delete(file);
+        }
+    }
+
+    /**
+     * The buffer spans two segments of the mapping. The file grows sparsely, so only the pages around the boundary
+     * are ever written.
+     */
+    @Test
+    void rowsCrossTheSegmentBoundary() throws IOException {
+        Path file = Files.createTempFile("noise", ".bin");
+        try (MappedNoiseBuffer buffer = new MappedNoiseBuffer(file, 1 << 14, (1 << 13) + 1)) {
+            double[] row = new double[10];
+            for (int i = 0; i < row.length; i++) {
+                row[i] = i + 0.25;
+            }
+            buffer.setRow(SEGMENT - 4, row, 0, row.length);
+            buffer.set(SEGMENT + 20, 42);
+
+            double[] read = new double[10];
+            buffer.getRow(SEGMENT - 4, read, 0, read.length);
+            assertArrayEquals(row, read);
+            assertEquals(3.25, buffer.get(SEGMENT - 1));
+            assertEquals(4.25, buffer.get(SEGMENT));
+            assertEquals(42, buffer.get(SEGMENT + 20));
+        } finally {
+            delete(file);
+        }
+    }
+
+    @Test
+    void cannotBeUsedAfterClose() throws IOException {
+        Path file = Files.createTempFile("noise", ".bin");
+        try {
+            MappedNoiseBuffer buffer = new MappedNoiseBuffer(file, 32);
+            buffer.close();
+            buffer.close();
+
+            assertThrows(IllegalStateException.class, () -> buffer.get(0));
+            assertThrows(IllegalStateException.class, () -> buffer.set(0, 1));
+        } finally {
+            delete(file);
+        }
+    }
+
+    /**
+     * Deletes the file if the system allows it while the mapping has not been released yet.
+     */
+    private static void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            file.toFile().deleteOnExit();
+        }
+    }
+}
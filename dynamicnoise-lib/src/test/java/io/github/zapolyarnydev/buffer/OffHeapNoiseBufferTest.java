@@ -0,0 +1,79 @@
+package io.github.zapolyarnydev.buffer;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteOrder;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class OffHeapNoiseBufferTest {
+
+    @Test
+    void rowsAndSamplesShareTheNativeMemory() {
+        OffHeapNoiseBuffer buffer = new OffHeapNoiseBuffer(4, 3, 5);
+        double[] row = {1, 2, 3, 4, 5};
+
+        buffer.setRow(buffer.index(2, 1, 0), row, 0, row.length);
+        buffer.set(buffer.index(3, 2, 4), -7);
+
+        double[] read = new double[5];
+        buffer.getRow(buffer.index(2, 1, 0), read, 0, read.length);
+        assertArrayEquals(row, read);
+        assertEquals(-7, buffer.get(buffer.index(3, 2, 4)));
+        assertEquals(ByteOrder.nativeOrder(), buffer.byteBuffer().order());
+        assertEquals(4 * 3 * 5 * Double.BYTES, buffer.byteBuffer().remaining());
+        assertEquals(3, buffer.byteBuffer().getDouble((int) buffer.index(2, 1, 2) * Double.BYTES));
+        assertEquals(-7, buffer.doubleBuffer().get((int) buffer.index(3, 2, 4)));
+    }
+
+    @Test
+    void poolHandsReleasedBuffersOutAgain() {
+        OffHeapBufferPool pool = new OffHeapBufferPool(4);
+        OffHeapNoiseBuffer first = pool.acquire(32, 16);
+        OffHeapNoiseBuffer second = pool.acquire(32, 16);
+        assertNotSame(first, second);
+
+        pool.release(first);
+        assertEquals(1, pool.idleCount());
+        assertSame(first, pool.acquire(32, 16));
+        assertEquals(0, pool.idleCount());
+
+        pool.release(second);
+        assertNotSame(second, pool.acquire(32, 8));
+        assertNotSame(second, pool.acquire(32, 16, 1));
+        assertSame(second, pool.acquire(32, 16));
+    }
+
+    @Test
+    void poolKeepsAtMostMaxIdleBuffers() {
+        OffHeapBufferPool pool = new OffHeapBufferPool(1);
+        OffHeapNoiseBuffer first = pool.acquire(64);
+        OffHeapNoiseBuffer second = pool.acquire(64);
+
+        pool.release(first);
+        pool.release(second);
+
+        assertEquals(1, pool.idleCount());
+        assertSame(first, pool.acquire(64));
+        assertNotSame(second, pool.acquire(64));
+    }
+
+    @Test
+    void poolRejectsForeignAndRepeatedReleases() {
+        OffHeapBufferPool pool = new OffHeapBufferPool(4);
+        OffHeapNoiseBuffer buffer = pool.acquire(32);
+
+        assertThrows(IllegalArgumentException.class, () -> pool.release(new OffHeapNoiseBuffer(32)));
+        assertThrows(IllegalArgumentException.class, () -> new OffHeapBufferPool(4).release(buffer));
+        pool.release(buffer);
+        assertThrows(IllegalStateException.class, () -> pool.release(buffer));
+
+        pool.clear();
+        assertEquals(0, pool.idleCount());
+        assertNotSame(buffer, pool.acquire(32));
+    }
+}
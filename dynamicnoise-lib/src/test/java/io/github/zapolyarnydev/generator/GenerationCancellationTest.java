@@ -0,0 +1,108 @@
+package io.github.zapolyarnydev.generator;
+
+import io.github.zapolyarnydev.map.NoiseMap;
+import io.github.zapolyarnydev.noise.Noise;
+import io.github.zapolyarnydev.noise.perlin.PerlinNoise;
+import io.github.zapolyarnydev.writer.NoiseProgress;
+import io.github.zapolyarnydev.writer.NoiseWindow;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GenerationCancellationTest {
+
+    private static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+    @AfterAll
+    static void shutdownPool() {
+        POOL.shutdown();
+    }
+
+    @Test
+    void cancelledGenerationLeavesTheMapUnwritten() throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            CountDownLatch started = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            executor.execute(() -> {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            started.await();
+
+            Noise noise = NoiseGeneratorTest.noises().get(0);
+            NoiseGenerator generator = new NoiseGenerator(noise);
+            generator.setExecutor(executor);
+            double[][] map = new double[64][64];
+            GenerationFuture future = generator.generateForMapAsync(new NoiseMap(map), noise, NoiseWindow.ORIGIN);
+
+            assertTrue(future.cancel(false));
+            release.countDown();
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+            assertThrows(CancellationException.class, future::join);
+            assertTrue(future.getProgress().isCancelled());
+            for (double[] row : map) {
+                assertArrayEquals(new double[row.length], row);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Cancels a fill that is already writing rows, serially and in parallel bands. The writers stop at their next
+     * row, so the executor is free again long before the volume could have been filled.
+     */
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    void cancellingARunningGenerationStopsIt(boolean parallel) throws Exception {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            PerlinNoise noise = new PerlinNoise();
+            noise.setSeed(7);
+            noise.setOctaves(8);
+            NoiseGenerator generator = new NoiseGenerator(noise);
+            if (parallel) {
+                generator.setParallel(true);
+                generator.setPool(POOL);
+            }
+            generator.setExecutor(executor);
+            GenerationFuture future = generator.generateForMapAsync(new NoiseMap(new float[128][128][512]), noise,
+                    NoiseWindow.ORIGIN);
+            NoiseProgress progress = future.getProgress();
+
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (progress.completed() == 0) {
+                assertTrue(System.nanoTime() < deadline, "generation did not start");
+                Thread.onSpinWait();
+            }
+            assertTrue(future.cancel(false));
+            executor.shutdown();
+            assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+            assertThrows(CancellationException.class, future::join);
+            assertTrue(progress.completed() > 0);
+            assertTrue(progress.completed() < progress.total());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
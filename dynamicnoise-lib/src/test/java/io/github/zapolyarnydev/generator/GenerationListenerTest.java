@@ -0,0 +1,122 @@
+package io.github.zapolyarnydev.generator;
+
+import io.github.zapolyarnydev.map.NoiseMap;
+import io.github.zapolyarnydev.noise.perlin.PerlinNoise;
+import io.github.zapolyarnydev.noise.value.ValueNoise;
+import io.github.zapolyarnydev.writer.NoiseWindow;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GenerationListenerTest {
+
+    private final List<GenerationMetrics> received = new CopyOnWriteArrayList<>();
+
+    @Test
+    void reportsTheParametersAndPhasesOfANormalizedMap() {
+        PerlinNoise noise = perlin();
+        NoiseGenerator generator = new NoiseGenerator(noise);
+        generator.setListener(received::add);
+
+        generator.generateForMap(new NoiseMap(new double[64][40]), noise, 0, 1);
+
+        assertEquals(1, received.size());
+        GenerationMetrics metrics = received.get(0);
+        assertEquals("PerlinNoise", metrics.noiseType());
+        assertEquals(noise.getSeed(), metrics.seed());
+        assertEquals(noise.getScale(), metrics.scale());
+        assertEquals(noise.getOctaves(), metrics.octaves());
+        assertEquals(2, metrics.dimension());
+        assertEquals(64 * 40, metrics.samples());
+        assertTrue(metrics.writerSetupNanos() >= 0);
+        assertTrue(metrics.fillNanos() > 0);
+        assertTrue(metrics.normalizeNanos() >= 0);
+        assertEquals(metrics.writerSetupNanos() + metrics.fillNanos() + metrics.normalizeNanos(), metrics.totalNanos());
+        assertSame(Thread.currentThread(), metrics.thread());
+    }
+
+    @Test
+    void windowsAreNotNormalized() {
+        PerlinNoise noise = perlin();
+        NoiseGenerator generator = new NoiseGenerator(noise);
+        generator.setListener(received::add);
+
+        generator.generateForMap(new NoiseMap(new float[32][4][5]), noise, NoiseWindow.at(10, 20, 30));
+
+        assertEquals(1, received.size());
+        assertEquals(3, received.get(0).dimension());
+        assertEquals(32 * 4 * 5, received.get(0).samples());
+        assertEquals(0, received.get(0).normalizeNanos());
+    }
+
+    @Test
+    void combinationsAreReportedWithoutNoiseParameters() {
+        PerlinNoise noise = perlin();
+        NoiseGenerator generator = new NoiseGenerator(noise);
+        generator.setListener(received::add);
+
+        generator.generateForMap(new NoiseMap(new double[32]), List.of(new NoiseLayer(noise, 1), new NoiseLayer(value(), 0.5)));
+        generator.generateForMap(new NoiseMap(new double[32]), NoiseGraph.source(noise).abs());
+
+        assertEquals(List.of("Layers", "Graph"), received.stream().map(GenerationMetrics::noiseType).toList());
+        for (GenerationMetrics metrics : received) {
+            assertEquals(0, metrics.seed());
+            assertEquals(0, metrics.scale());
+            assertEquals(0, metrics.octaves());
+            assertEquals(1, metrics.dimension());
+        }
+    }
+
+    @Test
+    void everySeedOfASweepIsReported() {
+        PerlinNoise noise = perlin();
+        NoiseGenerator generator = new NoiseGenerator(noise);
+        generator.setListener(received::add);
+
+        generator.generateForSeeds(List.of(new NoiseMap(new double[32][32]), new NoiseMap(new double[32][32])), noise, 3, 4);
+
+        assertEquals(List.of(3, 4), received.stream().map(GenerationMetrics::seed).sorted().toList());
+    }
+
+    @Test
+    void chunkCacheReportsGeneratedChunksOnly() {
+        NoiseChunkCache cache = new NoiseChunkCache(32, 1L << 20, Runnable::run);
+        cache.setListener(received::add);
+
+        cache.getChunk(perlin(), 0, 0);
+        cache.getChunk(perlin(), 0, 0);
+        cache.getChunk(perlin(), 1, 0, 0);
+
+        assertEquals(List.of(2, 3), received.stream().map(GenerationMetrics::dimension).toList());
+        assertEquals(32L * 32 * 32, received.get(1).samples());
+    }
+
+    @Test
+    void nothingIsReportedAfterTheListenerIsRemoved() {
+        PerlinNoise noise = perlin();
+        NoiseGenerator generator = new NoiseGenerator(noise);
+        generator.setListener(received::add);
+        generator.setListener(null);
+
+        generator.generateForMap(new NoiseMap(new double[32][32]), noise, 0, 1);
+
+        assertEquals(0, received.size());
+    }
+
+    private static PerlinNoise perlin() {
+        PerlinNoise noise = new PerlinNoise();
+        noise.setSeed(9);
+        return noise;
+    }
+
+    private static ValueNoise value() {
+        ValueNoise noise = new ValueNoise();
+        noise.setSeed(10);
+        return noise;
+    }
+}
@@ -0,0 +1,139 @@
+package io.github.zapolyarnydev.generator;
+
+import io.github.zapolyarnydev.map.NoiseMap;
+import io.github.zapolyarnydev.noise.Noise;
+import io.github.zapolyarnydev.noise.perlin.PerlinNoise;
+import io.github.zapolyarnydev.noise.simplex.SimplexNoise;
+import io.github.zapolyarnydev.writer.NoiseWindow;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LazyNoiseMapTest {
+
+    /**
+     * The bytes of a 2D tile of 8 x 8 cells.
+     */
+    private static final long TILE_BYTES_2D = 8 * 8 * Double.BYTES;
+
+    @Test
+    void samplesEqualGeneratedMaps() {
+        Noise noise = perlin();
+        NoiseGenerator generator = new NoiseGenerator(noise);
+        double[] line = new double[5000];
+        double[][] area = new double[100][70];
+        generator.generateForMap(new NoiseMap(line), noise, NoiseWindow.ORIGIN);
+        generator.generateForMap(new NoiseMap(area), noise, NoiseWindow.ORIGIN);
+
+        LazyNoiseMap lazyLine = new LazyNoiseMap(noise, line.length);
+        LazyNoiseMap lazyArea = new LazyNoiseMap(noise, area.length, area[0].length);
+
+        for (int x = line.length - 1; x >= 0; x--) {
+            assertEquals(line[x], lazyLine.get(x));
+        }
+        for (int x = 0; x < area.length; x++) {
+            for (int y = 0; y < area[x].length; y++) {
+                assertEquals(area[x][y], lazyArea.get(x, y));
+            }
+        }
+        assertEquals(2, lazyLine.stats().size());
+        assertEquals(4, lazyArea.stats().size());
+    }
+
+    @Test
+    void samplesEqualGeneratedMapsAfterEviction() {
+        NoiseGraph graph = NoiseGraph.source(perlin()).add(NoiseGraph.source(simplex()).multiply(0.5));
+        double[][][] volume = new double[32][16][20];
+        new NoiseGenerator(perlin()).generateForMap(new NoiseMap(volume), graph);
+        LazyNoiseMap lazy = new LazyNoiseMap(graph, 8, 2 * 8 * 8 * 8 * Double.BYTES, 32, 16, 20);
+
+        Random random = new Random(3);
+        for (int i = 0; i < 20_000; i++) {
+            int x = random.nextInt(32);
+            int y = random.nextInt(16);
+            int z = random.nextInt(20);
+            assertEquals(volume[x][y][z], lazy.get(x, y, z));
+        }
+
+        assertTrue(lazy.stats().evictions() > 0);
+        assertTrue(lazy.stats().size() <= 2);
+    }
+
+    /**
+     * With room for two tiles, a tile read again since it was stored gets a second chance, so the clock evicts the
+     * other tile.
+     */
+    @Test
+    void clockKeepsTilesReadSinceTheLastSweep() {
+        LazyNoiseMap lazy = new LazyNoiseMap(NoiseGraph.source(perlin()), 8, 2 * TILE_BYTES_2D, 32, 32);
+
+        lazy.get(0, 0);
+        lazy.get(8, 0);
+        lazy.get(1, 1);
+        lazy.get(16, 0);
+        assertEquals(3, lazy.stats().misses());
+        assertEquals(1, lazy.stats().evictions());
+
+        lazy.get(2, 2);
+        assertEquals(3, lazy.stats().misses());
+        lazy.get(9, 1);
+        assertEquals(4, lazy.stats().misses());
+    }
+
+    @Test
+    void concurrentReadersGenerateATileOnce() throws Exception {
+        LazyNoiseMap lazy = new LazyNoiseMap(perlin(), 256, 256);
+        ExecutorService threads = Executors.newFixedThreadPool(8);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Double>> samples = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                int y = i;
+                samples.add(threads.submit(() -> {
+                    start.await();
+                    return lazy.get(3, y);
+                }));
+            }
+            start.countDown();
+            for (Future<Double> sample : samples) {
+                sample.get();
+            }
+
+            assertEquals(1, lazy.stats().misses());
+            assertEquals(7, lazy.stats().hits());
+        } finally {
+            threads.shutdownNow();
+        }
+    }
+
+    @Test
+    void rejectsCellsOutsideTheMap() {
+        LazyNoiseMap lazy = new LazyNoiseMap(perlin(), 40, 30);
+
+        assertThrows(IndexOutOfBoundsException.class, () -> lazy.get(40, 0));
+        assertThrows(IndexOutOfBoundsException.class, () -> lazy.get(0, -1));
+        assertEquals(0, lazy.stats().misses());
+    }
+
+    private static Noise perlin() {
+        PerlinNoise noise = new PerlinNoise();
+        noise.setSeed(21);
+        return noise;
+    }
+
+    private static Noise simplex() {
+        SimplexNoise noise = new SimplexNoise();
+        noise.setSeed(22);
+        return noise;
+    }
+}
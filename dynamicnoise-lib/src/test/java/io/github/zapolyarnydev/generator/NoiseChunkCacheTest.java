@@ -0,0 +1,125 @@
+package io.github.zapolyarnydev.generator;
+
+import io.github.zapolyarnydev.buffer.DoubleNoiseBuffer;
+import io.github.zapolyarnydev.map.NoiseMap;
+import io.github.zapolyarnydev.noise.perlin.PerlinNoise;
+import io.github.zapolyarnydev.writer.NoiseWindow;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NoiseChunkCacheTest {
+
+    private static final int CHUNK_SIZE = 32;
+    private static final long CHUNK_BYTES = (long) CHUNK_SIZE * CHUNK_SIZE * Double.BYTES;
+
+    @Test
+    void chunksHoldTheNoiseOfTheirWindow() {
+        PerlinNoise noise = perlin();
+        NoiseChunkCache cache = new NoiseChunkCache(CHUNK_SIZE, 16 * CHUNK_BYTES, Runnable::run);
+        double[][] expected = new double[CHUNK_SIZE][CHUNK_SIZE];
+
+        new NoiseGenerator(noise).generateForMap(new NoiseMap(expected), noise,
+                NoiseWindow.at(-2 * CHUNK_SIZE, 3 * CHUNK_SIZE));
+        DoubleNoiseBuffer chunk = cache.getChunk(noise, -2, 3);
+
+        for (int x = 0; x < CHUNK_SIZE; x++) {
+            for (int y = 0; y < CHUNK_SIZE; y++) {
+                assertEquals(expected[x][y], chunk.get(x, y));
+            }
+        }
+    }
+
+    @Test
+    void requestsForALoadingChunkShareOneGeneration() {
+        List<Runnable> tasks = new ArrayList<>();
+        NoiseChunkCache cache = new NoiseChunkCache(CHUNK_SIZE, 16 * CHUNK_BYTES, tasks::add);
+        PerlinNoise noise = perlin();
+
+        CompletableFuture<DoubleNoiseBuffer> first = cache.getChunkAsync(noise, 1, 2);
+        CompletableFuture<DoubleNoiseBuffer> second = cache.getChunkAsync(perlin(), 1, 2);
+
+        assertSame(first, second);
+        assertFalse(first.isDone());
+        assertEquals(1, tasks.size());
+        assertEquals(1, cache.stats().misses());
+        assertEquals(1, cache.stats().hits());
+
+        tasks.get(0).run();
+        assertTrue(first.isDone());
+        assertSame(first.join(), cache.getChunk(noise, 1, 2));
+        assertEquals(1, tasks.size());
+    }
+
+    @Test
+    void concurrentRequestsGenerateAChunkOnce() throws Exception {
+        NoiseChunkCache cache = new NoiseChunkCache(CHUNK_SIZE, 16 * CHUNK_BYTES);
+        ExecutorService threads = Executors.newFixedThreadPool(8);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<DoubleNoiseBuffer>> chunks = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                chunks.add(threads.submit(() -> {
+                    start.await();
+                    return cache.getChunk(perlin(), 4, -4, 4);
+                }));
+            }
+            start.countDown();
+
+            DoubleNoiseBuffer chunk = chunks.get(0).get();
+            for (Future<DoubleNoiseBuffer> other : chunks) {
+                assertSame(chunk, other.get());
+            }
+            assertEquals(1, cache.stats().misses());
+            assertEquals(7, cache.stats().hits());
+        } finally {
+            threads.shutdownNow();
+        }
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedChunk() {
+        NoiseChunkCache cache = new NoiseChunkCache(CHUNK_SIZE, 2 * CHUNK_BYTES, Runnable::run);
+        PerlinNoise noise = perlin();
+
+        DoubleNoiseBuffer first = cache.getChunk(noise, 0, 0);
+        DoubleNoiseBuffer second = cache.getChunk(noise, 1, 0);
+        assertSame(first, cache.getChunk(noise, 0, 0));
+        cache.getChunk(noise, 2, 0);
+
+        assertEquals(1, cache.stats().evictions());
+        assertEquals(2, cache.stats().size());
+        assertSame(first, cache.getChunk(noise, 0, 0));
+        assertNotSame(second, cache.getChunk(noise, 1, 0));
+    }
+
+    @Test
+    void keepsTheNewestChunkEvenIfItExceedsTheLimit() {
+        NoiseChunkCache cache = new NoiseChunkCache(CHUNK_SIZE, CHUNK_BYTES, Runnable::run);
+        PerlinNoise noise = perlin();
+
+        cache.getChunk(noise, 0, 0);
+        DoubleNoiseBuffer volume = cache.getChunk(noise, 0, 0, 0);
+
+        assertEquals(1, cache.stats().evictions());
+        assertSame(volume, cache.getChunk(noise, 0, 0, 0));
+    }
+
+    private static PerlinNoise perlin() {
+        PerlinNoise noise = new PerlinNoise();
+        noise.setSeed(11);
+        return noise;
+    }
+}
@@ -0,0 +1,81 @@
+package io.github.zapolyarnydev.generator;
+
+import io.github.zapolyarnydev.map.NoiseMap;
+import io.github.zapolyarnydev.noise.Noise;
+import io.github.zapolyarnydev.noise.perlin.PerlinNoise;
+import io.github.zapolyarnydev.noise.simplex.SimplexNoise;
+import io.github.zapolyarnydev.noise.value.ValueNoise;
+import io.github.zapolyarnydev.noise.white.WhiteNoise;
+import io.github.zapolyarnydev.writer.NoiseWindow;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+class NoiseGeneratorTest {
+
+    /**
+     * A pool wider than the machine may be, so that maps are always split into several bands.
+     */
+    private static final ForkJoinPool POOL = new ForkJoinPool(4);
+
+    @AfterAll
+    static void shutdownPool() {
+        POOL.shutdown();
+    }
+
+    static List<Noise> noises() {
+        SimplexNoise legacy = new SimplexNoise();
+        legacy.setSeed(7);
+        legacy.setLegacy(true);
+        PerlinNoise perlin = new PerlinNoise();
+        perlin.setSeed(7);
+        SimplexNoise simplex = new SimplexNoise();
+        simplex.setSeed(7);
+        ValueNoise value = new ValueNoise();
+        value.setSeed(7);
+        WhiteNoise white = new WhiteNoise();
+        white.setSeed(7);
+        return List.of(perlin, simplex, legacy, value, white);
+    }
+
+    static List<Noise> smoothNoises() {
+        return noises().stream().filter(noise -> !(noise instanceof WhiteNoise)).toList();
+    }
+
+    @ParameterizedTest
+    @MethodSource("noises")
+    void parallelGenerationMatchesSerial2D(Noise noise) {
+        double[][] serial = new double[256][200];
+        double[][] parallel = new double[256][200];
+
+        new NoiseGenerator(noise).generateForMap(new NoiseMap(serial), noise, 0, 1);
+        parallelGenerator(noise).generateForMap(new NoiseMap(parallel), noise, 0, 1);
+
+        assertArrayEquals(serial, parallel);
+    }
+
+    @ParameterizedTest
+    @MethodSource("noises")
+    void parallelGenerationMatchesSerial3D(Noise noise) {
+        float[][][] serial = new float[48][40][36];
+        float[][][] parallel = new float[48][40][36];
+        NoiseWindow window = NoiseWindow.at(-100, 30, -7);
+
+        new NoiseGenerator(noise).generateForMap(new NoiseMap(serial), noise, window);
+        parallelGenerator(noise).generateForMap(new NoiseMap(parallel), noise, window);
+
+        assertArrayEquals(serial, parallel);
+    }
+
+    private static NoiseGenerator parallelGenerator(Noise noise) {
+        NoiseGenerator generator = new NoiseGenerator(noise);
+        generator.setParallel(true);
+        generator.setPool(POOL);
+        return generator;
+    }
+}
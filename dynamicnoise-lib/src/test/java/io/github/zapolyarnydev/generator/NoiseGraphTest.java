@@ -0,0 +1,118 @@
+package io.github.zapolyarnydev.generator;
+
+import io.github.zapolyarnydev.map.NoiseMap;
+import io.github.zapolyarnydev.noise.Noise;
+import io.github.zapolyarnydev.noise.perlin.PerlinNoise;
+import io.github.zapolyarnydev.noise.simplex.SimplexNoise;
+import io.github.zapolyarnydev.noise.value.ValueNoise;
+import io.github.zapolyarnydev.writer.NoiseWindow;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class NoiseGraphTest {
+
+    @Test
+    void weightedSumEqualsLayers2D() {
+        double[][] layered = new double[48][40];
+        double[][] compiled = new double[48][40];
+
+        new NoiseGenerator(continents()).generateForMap(new NoiseMap(layered), layers());
+        new NoiseGenerator(continents()).generateForMap(new NoiseMap(compiled), layerGraph());
+
+        assertArrayEquals(layered, compiled);
+    }
+
+    @Test
+    void weightedSumEqualsLayers3D() {
+        double[][][] layered = new double[32][12][20];
+        double[][][] compiled = new double[32][12][20];
+        NoiseGenerator generator = new NoiseGenerator(continents());
+        generator.setParallel(true);
+
+        generator.generateForMap(new NoiseMap(layered), layers());
+        generator.generateForMap(new NoiseMap(compiled), layerGraph());
+
+        assertArrayEquals(layered, compiled);
+    }
+
+    /**
+     * {@code continents} appears three times in the graph and is evaluated once per sample, which must not change
+     * the result of any of its uses.
+     */
+    @Test
+    void operatorsMatchCombiningTheSourceMaps() {
+        Noise continents = continents();
+        Noise ridges = hills();
+        NoiseGraph shared = NoiseGraph.source(continents);
+        NoiseGraph graph = shared.add(NoiseGraph.source(ridges).abs().multiply(-1).add(1).multiply(shared.clamp(0, 1)))
+                .add(shared.multiply(0.5))
+                .remap(-2, 2, 0, 1);
+        NoiseGenerator generator = new NoiseGenerator(continents);
+        double[][] first = new double[40][36];
+        double[][] second = new double[40][36];
+        double[][] compiled = new double[40][36];
+
+        generator.generateForMap(new NoiseMap(first), continents, NoiseWindow.ORIGIN);
+        generator.generateForMap(new NoiseMap(second), ridges, NoiseWindow.ORIGIN);
+        generator.generateForMap(new NoiseMap(compiled), graph);
+
+        for (int x = 0; x < compiled.length; x++) {
+            for (int y = 0; y < compiled[x].length; y++) {
+                double c = first[x][y];
+                double sum = c + (-Math.abs(second[x][y]) + 1) * Math.min(Math.max(c, 0), 1) + c * 0.5;
+                assertEquals((sum + 2) / 4, compiled[x][y], 1e-12);
+            }
+        }
+    }
+
+    @Test
+    void warpedGraphsMatchAcrossWindowsAndBands() {
+        NoiseGraph graph = NoiseGraph.source(continents()).warp(NoiseGraph.source(hills()), 8);
+        NoiseGenerator serial = new NoiseGenerator(continents());
+        NoiseGenerator parallel = new NoiseGenerator(continents());
+        parallel.setParallel(true);
+        float[][][] whole = new float[64][8][24];
+        float[][][] right = new float[32][8][24];
+
+        serial.generateForMap(new NoiseMap(whole), graph, NoiseWindow.at(-10, 5, 7));
+        parallel.generateForMap(new NoiseMap(right), graph, NoiseWindow.at(22, 5, 7));
+
+        for (int x = 0; x < right.length; x++) {
+            assertArrayEquals(whole[x + 32], right[x]);
+        }
+    }
+
+    private static List<NoiseLayer> layers() {
+        return List.of(new NoiseLayer(continents(), 1), new NoiseLayer(hills(), 0.25), new NoiseLayer(detail(), 0.05));
+    }
+
+    private static NoiseGraph layerGraph() {
+        return NoiseGraph.source(continents())
+                .add(NoiseGraph.source(hills()).multiply(0.25))
+                .add(NoiseGraph.source(detail()).multiply(0.05));
+    }
+
+    private static Noise continents() {
+        PerlinNoise noise = new PerlinNoise();
+        noise.setSeed(5);
+        noise.setScale(64);
+        return noise;
+    }
+
+    private static Noise hills() {
+        SimplexNoise noise = new SimplexNoise();
+        noise.setSeed(6);
+        return noise;
+    }
+
+    private static Noise detail() {
+        ValueNoise noise = new ValueNoise();
+        noise.setSeed(7);
+        noise.setScale(4);
+        return noise;
+    }
+}
@@ -0,0 +1,115 @@
+package io.github.zapolyarnydev.generator;
+
+import io.github.zapolyarnydev.map.NoiseMap;
+import io.github.zapolyarnydev.noise.Noise;
+import io.github.zapolyarnydev.noise.simplex.SimplexNoise;
+import io.github.zapolyarnydev.writer.NoiseSampler;
+import io.github.zapolyarnydev.writer.NoiseWindow;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class NoiseSamplerTest {
+
+    static List<Noise> smoothNoises() {
+        return NoiseGeneratorTest.smoothNoises();
+    }
+
+    @ParameterizedTest
+    @MethodSource("smoothNoises")
+    void samplerMatchesGeneratedMaps(Noise noise) {
+        NoiseGenerator generator = new NoiseGenerator(noise);
+        double[] line = new double[300];
+        double[][] area = new double[40][50];
+        double[][][] volume = new double[32][6][20];
+
+        generator.generateForMap(new NoiseMap(line), noise, NoiseWindow.ORIGIN);
+        generator.generateForMap(new NoiseMap(area), noise, NoiseWindow.ORIGIN);
+        generator.generateForMap(new NoiseMap(volume), noise, NoiseWindow.ORIGIN);
+
+        assertMatchesSampler(generator.createSampler(noise), line, area, volume);
+    }
+
+    /**
+     * Writers reuse their row scratch from one write to the next, so the maps are generated one after another from
+     * the deepest to the shallowest, where a row could pick up the coordinates of a deeper map.
+     */
+    @ParameterizedTest
+    @MethodSource("smoothNoises")
+    void samplerMatchesMapsGeneratedAfterDeeperMaps(Noise noise) {
+        NoiseGenerator generator = new NoiseGenerator(noise);
+        double[] line = new double[300];
+        double[][] area = new double[40][50];
+        double[][][] volume = new double[32][6][20];
+
+        generator.generateForMap(new NoiseMap(volume), noise, NoiseWindow.ORIGIN);
+        generator.generateForMap(new NoiseMap(area), noise, NoiseWindow.ORIGIN);
+        generator.generateForMap(new NoiseMap(line), noise, NoiseWindow.ORIGIN);
+
+        assertMatchesSampler(generator.createSampler(noise), line, area, volume);
+    }
+
+    @Test
+    void legacySimplexMapsAfterDeeperMapsMatchSampler() {
+        SimplexNoise noise = new SimplexNoise();
+        noise.setSeed(7);
+        noise.setLegacy(true);
+        NoiseGenerator generator = new NoiseGenerator(noise);
+        NoiseSampler sampler = generator.createSampler(noise);
+        double[][][] volume = new double[32][4][300];
+        double[][] area = new double[32][300];
+        double[] line = new double[300];
+
+        generator.generateForMap(new NoiseMap(volume), noise, NoiseWindow.at(50, 60, 70));
+        generator.generateForMap(new NoiseMap(area), noise, NoiseWindow.ORIGIN);
+        generator.generateForMap(new NoiseMap(line), noise, NoiseWindow.ORIGIN);
+
+        for (int x = 0; x < area.length; x++) {
+            for (int y = 0; y < area[x].length; y++) {
+                assertEquals(area[x][y], sampler.sample(x, y));
+            }
+        }
+        for (int x = 0; x < line.length; x++) {
+            assertEquals(line[x], sampler.sample(x));
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("smoothNoises")
+    void boundedSamplerMatchesNoiseBoundsNormalization(Noise noise) {
+        NoiseGenerator generator = new NoiseGenerator(noise);
+        generator.setNormalization(Normalization.NOISE_BOUNDS);
+        NoiseSampler sampler = generator.createSampler(noise, -1, 255);
+        double[][] area = new double[40][50];
+
+        generator.generateForMap(new NoiseMap(area), noise, -1, 255);
+
+        for (int x = 0; x < area.length; x++) {
+            for (int y = 0; y < area[x].length; y++) {
+                assertEquals(area[x][y], sampler.sample(x, y), 1e-9);
+            }
+        }
+    }
+
+    private static void assertMatchesSampler(NoiseSampler sampler, double[] line, double[][] area, double[][][] volume) {
+        for (int x = 0; x < line.length; x++) {
+            assertEquals(line[x], sampler.sample(x));
+        }
+        for (int x = 0; x < area.length; x++) {
+            for (int y = 0; y < area[x].length; y++) {
+                assertEquals(area[x][y], sampler.sample(x, y));
+            }
+        }
+        for (int x = 0; x < volume.length; x++) {
+            for (int y = 0; y < volume[x].length; y++) {
+                for (int z = 0; z < volume[x][y].length; z++) {
+                    assertEquals(volume[x][y][z], sampler.sample(x, y, z));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package io.github.zapolyarnydev.generator;
+
+import io.github.zapolyarnydev.map.NoiseMap;
+import io.github.zapolyarnydev.noise.Noise;
+import io.github.zapolyarnydev.writer.NoiseWindow;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+class NoiseWindowTest {
+
+    static List<Noise> noises() {
+        return NoiseGeneratorTest.noises();
+    }
+
+    @ParameterizedTest
+    @MethodSource("noises")
+    void adjacentWindowsAtNegativeOriginsStitch(Noise noise) {
+        NoiseGenerator generator = new NoiseGenerator(noise);
+        double[][] whole = new double[64][32];
+        double[][] left = new double[32][32];
+        double[][] right = new double[32][32];
+
+        generator.generateForMap(new NoiseMap(whole), noise, NoiseWindow.at(-48, -40));
+        generator.generateForMap(new NoiseMap(left), noise, NoiseWindow.at(-48, -40));
+        generator.generateForMap(new NoiseMap(right), noise, NoiseWindow.at(-16, -40));
+
+        for (int x = 0; x < 32; x++) {
+            assertArrayEquals(whole[x], left[x]);
+            assertArrayEquals(whole[x + 32], right[x]);
+        }
+    }
+}
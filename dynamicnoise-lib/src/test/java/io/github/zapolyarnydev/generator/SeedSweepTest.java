@@ -0,0 +1,97 @@
+package io.github.zapolyarnydev.generator;
+
+import io.github.zapolyarnydev.map.NoiseMap;
+import io.github.zapolyarnydev.noise.Noise;
+import io.github.zapolyarnydev.writer.NoiseWindow;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SeedSweepTest {
+
+    private static final int[] SEEDS = {1, -8, 42, 1 << 20, 7};
+
+    static List<Noise> noises() {
+        return NoiseGeneratorTest.noises();
+    }
+
+    @ParameterizedTest
+    @MethodSource("noises")
+    void sweepEqualsSeparateWindowGenerations(Noise noise) {
+        NoiseGenerator generator = new NoiseGenerator(noise);
+        generator.setParallel(true);
+        double[][][] swept = new double[SEEDS.length][48][40];
+
+        generator.generateForSeeds(maps(swept), noise, SEEDS);
+
+        for (int i = 0; i < SEEDS.length; i++) {
+            double[][] expected = new double[48][40];
+            generateWithSeed(noise, SEEDS[i], seeded -> new NoiseGenerator(seeded)
+                    .generateForMap(new NoiseMap(expected), seeded, NoiseWindow.ORIGIN));
+            assertArrayEquals(expected, swept[i]);
+        }
+        assertEquals(7, noise.getSeed());
+    }
+
+    @ParameterizedTest
+    @MethodSource("noises")
+    void normalizedSweepEqualsSeparateNormalizedGenerations(Noise noise) {
+        NoiseGenerator generator = new NoiseGenerator(noise);
+        double[][][] swept = new double[SEEDS.length][32][36];
+
+        generator.generateForSeeds(maps(swept), noise, SEEDS, -1, 255);
+
+        for (int i = 0; i < SEEDS.length; i++) {
+            double[][] expected = new double[32][36];
+            generateWithSeed(noise, SEEDS[i], seeded -> new NoiseGenerator(seeded)
+                    .generateForMap(new NoiseMap(expected), seeded, -1, 255));
+            assertArrayEquals(expected, swept[i]);
+        }
+    }
+
+    @Test
+    void sweepsDoNotFillTheWriterCache() {
+        Noise noise = noises().get(0);
+        WriterManager.clear();
+        long misses = WriterManager.stats().misses();
+
+        new NoiseGenerator(noise).generateForSeeds(maps(new double[SEEDS.length][32][32]), noise, SEEDS);
+
+        assertEquals(0, WriterManager.stats().size());
+        assertEquals(misses, WriterManager.stats().misses());
+    }
+
+    @Test
+    void rejectsMoreSeedsThanMaps() {
+        Noise noise = noises().get(0);
+        NoiseGenerator generator = new NoiseGenerator(noise);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> generator.generateForSeeds(maps(new double[2][32][32]), noise, 1, 2, 3));
+    }
+
+    private static List<NoiseMap> maps(double[][][] arrays) {
+        return IntStream.range(0, arrays.length).mapToObj(i -> new NoiseMap(arrays[i])).toList();
+    }
+
+    /**
+     * Runs a generation with the noise temporarily set to the given seed.
+     */
+    private static void generateWithSeed(Noise noise, int seed, Consumer<Noise> generation) {
+        int original = noise.getSeed();
+        noise.setSeed(seed);
+        try {
+            generation.accept(noise);
+        } finally {
+            noise.setSeed(original);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package io.github.zapolyarnydev.generator;
+
+import io.github.zapolyarnydev.noise.simplex.SimplexNoise;
+import io.github.zapolyarnydev.writer.NoiseSampler;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SimplexNoiseTest {
+
+    /**
+     * An upper bound of the slope of a single octave. The steepest slope found over many seeds is about 6.8.
+     */
+    private static final double MAX_SLOPE = 8;
+
+    @ParameterizedTest
+    @ValueSource(ints = {0, 1, 42})
+    void singleOctaveStaysWithinUnitRange(int seed) {
+        NoiseSampler sampler = sampler(seed);
+        Random random = new Random(seed);
+        double max2D = 0;
+        double max3D = 0;
+
+        for (int i = 0; i < 200_000; i++) {
+            double x = random.nextDouble() * 512 - 256;
+            double y = random.nextDouble() * 512 - 256;
+            double z = random.nextDouble() * 512 - 256;
+            max2D = Math.max(max2D, Math.abs(sampler.sample(x, y)));
+            max3D = Math.max(max3D, Math.abs(sampler.sample(x, y, z)));
+        }
+
+        assertTrue(max2D <= 1 && max2D > 0.9, "2D extreme " + max2D);
+        assertTrue(max3D <= 1 && max3D > 0.9, "3D extreme " + max3D);
+    }
+
+    /**
+     * Walks lines that cross many simplices with a fine step, so that any corner contribution that does not fall off
+     * to 0 at the faces of its simplices shows up as a jump.
+     */
+    @Test
+    void noiseIsContinuousAcrossSimplices() {
+        NoiseSampler sampler = sampler(7);
+        double step = 1e-4;
+
+        double previous2D = Double.NaN;
+        double previous3D = Double.NaN;
+        for (int i = 0; i <= 200_000; i++) {
+            double t = -20 + i * step;
+            double next2D = sampler.sample(t, 3.3 + 0.37 * t);
+            double next3D = sampler.sample(t, 3.3 + 0.37 * t, -7.1 - 0.61 * t);
+            if (i > 0) {
+                assertTrue(Math.abs(next2D - previous2D) <= 2 * MAX_SLOPE * step, "2D jump at " + t);
+                assertTrue(Math.abs(next3D - previous3D) <= 2 * MAX_SLOPE * step, "3D jump at " + t);
+            }
+            previous2D = next2D;
+            previous3D = next3D;
+        }
+    }
+
+    private static NoiseSampler sampler(int seed) {
+        SimplexNoise noise = new SimplexNoise();
+        noise.setSeed(seed);
+        noise.setScale(1);
+        noise.setOctaves(1);
+        return new NoiseGenerator(noise).createSampler(noise);
+    }
+}
@@ -0,0 +1,103 @@
+package io.github.zapolyarnydev.generator;
+
+import io.github.zapolyarnydev.map.NoiseMap;
+import io.github.zapolyarnydev.noise.white.WhiteNoise;
+import io.github.zapolyarnydev.writer.NoiseSampler;
+import io.github.zapolyarnydev.writer.NoiseWindow;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WhiteNoiseTest {
+
+    @Test
+    void valueOfACellDoesNotDependOnTheRegionWritten() {
+        WhiteNoise noise = white();
+        NoiseGenerator generator = new NoiseGenerator(noise);
+        double[][] whole = new double[96][40];
+        double[][] part = new double[32][32];
+
+        generator.generateForMap(new NoiseMap(whole), noise, NoiseWindow.at(-48, -20));
+        generator.generateForMap(new NoiseMap(part), noise, NoiseWindow.at(-16, -12));
+
+        for (int x = 0; x < part.length; x++) {
+            for (int y = 0; y < part[x].length; y++) {
+                assertEquals(whole[x + 32][y + 8], part[x][y]);
+            }
+        }
+    }
+
+    @Test
+    void valueOfACellDoesNotDependOnTheShapeWritten() {
+        WhiteNoise noise = white();
+        NoiseGenerator generator = new NoiseGenerator(noise);
+        NoiseSampler sampler = generator.createSampler(noise);
+        double[] line = new double[64];
+        double[][] area = new double[64][33];
+        double[][][] volume = new double[32][64][3];
+
+        generator.generateForMap(new NoiseMap(line), noise, NoiseWindow.ORIGIN);
+        generator.generateForMap(new NoiseMap(area), noise, NoiseWindow.ORIGIN);
+        generator.generateForMap(new NoiseMap(volume), noise, NoiseWindow.ORIGIN);
+
+        for (int x = 0; x < line.length; x++) {
+            assertEquals(area[x][0], line[x]);
+            assertEquals(sampler.sample(x), line[x]);
+        }
+        for (int x = 0; x < volume.length; x++) {
+            for (int y = 0; y < area[x].length; y++) {
+                assertEquals(area[x][y], volume[x][y][0]);
+                assertEquals(sampler.sample(x, y), area[x][y]);
+            }
+        }
+    }
+
+    @Test
+    void parallelBandsMatchSerialGeneration() {
+        WhiteNoise noise = white();
+        NoiseGenerator parallel = new NoiseGenerator(noise);
+        parallel.setParallel(true);
+        float[][][] serial = new float[64][16][40];
+        float[][][] banded = new float[64][16][40];
+        NoiseWindow window = NoiseWindow.at(1000, -1000, 3);
+
+        new NoiseGenerator(noise).generateForMap(new NoiseMap(serial), noise, window);
+        parallel.generateForMap(new NoiseMap(banded), noise, window);
+
+        for (int x = 0; x < serial.length; x++) {
+            for (int y = 0; y < serial[x].length; y++) {
+                for (int z = 0; z < serial[x][y].length; z++) {
+                    assertEquals(serial[x][y][z], banded[x][y][z]);
+                }
+            }
+        }
+    }
+
+    @Test
+    void valuesAreCenteredAndDependOnTheSeed() {
+        WhiteNoise other = white();
+        other.setSeed(other.getSeed() + 1);
+        NoiseSampler first = new NoiseGenerator(white()).createSampler(white());
+        NoiseSampler second = new NoiseGenerator(other).createSampler(other);
+
+        int equal = 0;
+        double sum = 0;
+        for (int x = 0; x < 10_000; x++) {
+            double value = first.sample(x, 7);
+            assertTrue(value >= -1 && value < 1);
+            sum += value;
+            if (value == second.sample(x, 7)) {
+                equal++;
+            }
+        }
+        assertEquals(0, equal);
+        assertEquals(0, sum / 10_000, 0.05);
+    }
+
+    private static WhiteNoise white() {
+        WhiteNoise noise = new WhiteNoise();
+        noise.setSeed(19);
+        return noise;
+    }
+}
@@ -0,0 +1,70 @@
+package io.github.zapolyarnydev.generator;
+
+import io.github.zapolyarnydev.noise.perlin.PerlinNoise;
+import io.github.zapolyarnydev.noise.simplex.SimplexNoise;
+import io.github.zapolyarnydev.writer.NoiseWriter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class WriterManagerTest {
+
+    @BeforeEach
+    void clearCache() {
+        WriterManager.clear();
+    }
+
+    @Test
+    void equalSettingsShareOneWriter() {
+        PerlinNoise noise = perlin(3);
+        CacheStats before = WriterManager.stats();
+
+        NoiseWriter writer = WriterManager.getWriter(noise);
+        assertSame(writer, WriterManager.getWriter(perlin(3)));
+        noise.setOctaves(noise.getOctaves() + 1);
+        assertNotSame(writer, WriterManager.getWriter(noise));
+
+        CacheStats after = WriterManager.stats();
+        assertEquals(1, after.hits() - before.hits());
+        assertEquals(2, after.misses() - before.misses());
+        assertEquals(2, after.size());
+    }
+
+    @Test
+    void legacySimplexIsCachedApartFromSimplex() {
+        SimplexNoise simplex = new SimplexNoise();
+        simplex.setSeed(3);
+        SimplexNoise legacy = new SimplexNoise();
+        legacy.setSeed(3);
+        legacy.setLegacy(true);
+
+        assertNotSame(WriterManager.getWriter(simplex), WriterManager.getWriter(legacy));
+    }
+
+    @Test
+    void evictsTheLeastRecentlyUsedWriter() {
+        NoiseWriter first = WriterManager.getWriter(perlin(0));
+        NoiseWriter second = WriterManager.getWriter(perlin(1));
+        CacheStats before = WriterManager.stats();
+
+        for (int seed = 2; seed <= WriterManager.CACHE_CAPACITY; seed++) {
+            assertSame(second, WriterManager.getWriter(perlin(1)));
+            WriterManager.getWriter(perlin(seed));
+        }
+
+        CacheStats after = WriterManager.stats();
+        assertEquals(1, after.evictions() - before.evictions());
+        assertEquals(WriterManager.CACHE_CAPACITY, after.size());
+        assertSame(second, WriterManager.getWriter(perlin(1)));
+        assertNotSame(first, WriterManager.getWriter(perlin(0)));
+    }
+
+    private static PerlinNoise perlin(int seed) {
+        PerlinNoise noise = new PerlinNoise();
+        noise.setSeed(seed);
+        return noise;
+    }
+}
@@ -0,0 +1,129 @@
+package io.github.zapolyarnydev.map;
+
+import io.github.zapolyarnydev.buffer.DoubleNoiseBuffer;
+import io.github.zapolyarnydev.buffer.FloatNoiseBuffer;
+import io.github.zapolyarnydev.buffer.NoiseBuffer;
+import io.github.zapolyarnydev.buffer.OffHeapNoiseBuffer;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class NoiseMapTest {
+
+    /**
+     * Every storage of a map, created with the given width, height and depth. Rows of 3D maps are longer
+     * than the chunks in which maps of different storages are combined.
+     */
+    private static final List<Function<int[], Object>> STORAGES = List.of(
+            shape -> shape[2] == 1 ? new double[shape[0]][shape[1]] : new double[shape[0]][shape[1]][shape[2]],
+            shape -> shape[2] == 1 ? new float[shape[0]][shape[1]] : new float[shape[0]][shape[1]][shape[2]],
+            shape -> shape[2] == 1 ? new DoubleNoiseBuffer(shape[0], shape[1]) : new DoubleNoiseBuffer(shape[0], shape[1], shape[2]),
+            shape -> shape[2] == 1 ? new FloatNoiseBuffer(shape[0], shape[1]) : new FloatNoiseBuffer(shape[0], shape[1], shape[2]),
+            shape -> shape[2] == 1 ? new OffHeapNoiseBuffer(shape[0], shape[1]) : new OffHeapNoiseBuffer(shape[0], shape[1], shape[2]));
+
+    @Test
+    void combinesMapsOfEveryStorage2D() {
+        int[] shape = {37, 29, 1};
+        for (Function<int[], Object> target : STORAGES) {
+            for (Function<int[], Object> source : STORAGES) {
+                assertCombines(target.apply(shape), source.apply(shape), shape, 2);
+            }
+        }
+    }
+
+    @Test
+    void combinesMapsOfEveryStorage3D() {
+        int[] shape = {32, 2, 4100};
+        for (Function<int[], Object> target : STORAGES) {
+            for (Function<int[], Object> source : STORAGES) {
+                assertCombines(target.apply(shape), source.apply(shape), shape, -0.5);
+            }
+        }
+    }
+
+    @Test
+    void countsTheSamplesOfEveryStorage() {
+        for (Function<int[], Object> storage : STORAGES) {
+            assertEquals(37 * 29, new NoiseMap(storage.apply(new int[]{37, 29, 1})).getSampleCount());
+            assertEquals(32 * 3 * 17, new NoiseMap(storage.apply(new int[]{32, 3, 17})).getSampleCount());
+        }
+        assertEquals(300, new NoiseMap(new double[300]).getSampleCount());
+        assertEquals(300, new NoiseMap(new float[300]).getSampleCount());
+    }
+
+    @Test
+    void rejectsMapsOfDifferentShapes() {
+        NoiseMap map = new NoiseMap(new DoubleNoiseBuffer(40, 30));
+        NoiseMap other = new NoiseMap(new double[40][31]);
+
+        assertThrows(IllegalArgumentException.class, () -> map.combine(other, 1));
+    }
+
+    /**
+     * Fills both storages with distinct values, combines {@code source} into {@code target} with the weight
+     * and checks every sample against the sum computed here, rounded to the precision of the target.
+     */
+    private static void assertCombines(Object target, Object source, int[] shape, double weight) {
+        fill(target, shape, 0.25);
+        fill(source, shape, -0.5);
+        new NoiseMap(target).combine(new NoiseMap(source), weight);
+
+        for (int x = 0; x < shape[0]; x++) {
+            for (int y = 0; y < shape[1]; y++) {
+                for (int z = 0; z < shape[2]; z++) {
+                    double expected = stored(value(x, y, z, 0.25), target) + stored(value(x, y, z, -0.5), source) * weight;
+                    String storages = target.getClass().getSimpleName() + " <- " + source.getClass().getSimpleName();
+                    assertEquals(stored(expected, target), get(target, x, y, z), storages);
+                }
+            }
+        }
+    }
+
+    private static double value(int x, int y, int z, double offset) {
+        return Math.sin(x * 0.37 + y * 1.3 + z * 0.011) + offset;
+    }
+
+    /**
+     * Returns the value as the storage holds it.
+     */
+    private static double stored(double value, Object storage) {
+        return storage instanceof float[][] || storage instanceof float[][][] || storage instanceof FloatNoiseBuffer
+                ? (float) value : value;
+    }
+
+    private static void fill(Object storage, int[] shape, double offset) {
+        for (int x = 0; x < shape[0]; x++) {
+            for (int y = 0; y < shape[1]; y++) {
+                for (int z = 0; z < shape[2]; z++) {
+                    set(storage, x, y, z, value(x, y, z, offset));
+                }
+            }
+        }
+    }
+
+    private static double get(Object storage, int x, int y, int z) {
+        return switch (storage) {
+            case NoiseBuffer buffer -> buffer.get(buffer.index(x, y, z));
+            case double[][] array -> array[x][y];
+            case float[][] array -> array[x][y];
+            case double[][][] array -> array[x][y][z];
+            case float[][][] array -> array[x][y][z];
+            default -> throw new IllegalArgumentException(storage.getClass().getName());
+        };
+    }
+
+    private static void set(Object storage, int x, int y, int z, double value) {
+        switch (storage) {
+            case NoiseBuffer buffer -> buffer.set(buffer.index(x, y, z), value);
+            case double[][] array -> array[x][y] = value;
+            case float[][] array -> array[x][y] = (float) value;
+            case double[][][] array -> array[x][y][z] = value;
+            case float[][][] array -> array[x][y][z] = (float) value;
+            default -> throw new IllegalArgumentException(storage.getClass().getName());
+        }
+    }
+}
@@ -0,0 +1,44 @@
+plugins {
+    id("java")
+}
+
+group = "io.github.zapolyarnydev"
+version = "1.1.0"
+
+repositories {
+    mavenCentral()
+}
+
+val jmhVersion = "1.37"
+
+dependencies {
+    implementation(files("../dynamicnoise-lib/build/libs/dynamicnoise-lib-1.1.0.jar"))
+    implementation("org.openjdk.jmh:jmh-core:$jmhVersion")
+    annotationProcessor("org.openjdk.jmh:jmh-generator-annprocess:$jmhVersion")
+}
+
+tasks.compileJava {
+    dependsOn(":dynamicnoise-lib:jar")
+}
+
+java {
+    toolchain {
+        languageVersion.set(JavaLanguageVersion.of(21))
+    }
+}
+
+// Runs the benchmarks with the allocation profiler and writes the results as JSON, so runs of different
+// versions can be compared. JMH options are passed with -Pjmh, e.g. -Pjmh="GenerationBenchmark -p noise=PERLIN".
+tasks.register<JavaExec>("jmh") {
+    group = "benchmark"
+    description = "Runs the JMH benchmarks."
+    dependsOn(tasks.classes)
+    classpath = sourceSets.main.get().runtimeClasspath
+    mainClass.set("org.openjdk.jmh.Main")
+    val results = layout.buildDirectory.file("results/jmh/results.json").get().asFile
+    doFirst {
+        results.parentFile.mkdirs()
+    }
+    args("-prof", "gc", "-rf", "json", "-rff", results.absolutePath)
+    (findProperty("jmh") as String?)?.let { args(it.split(" ").filter(String::isNotBlank)) }
+}
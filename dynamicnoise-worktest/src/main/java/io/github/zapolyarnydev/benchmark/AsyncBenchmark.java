@@ -0,0 +1,84 @@
+package io.github.zapolyarnydev.benchmark;
+
+import io.github.zapolyarnydev.generator.NoiseGenerator;
+import io.github.zapolyarnydev.map.NoiseMap;
+import io.github.zapolyarnydev.noise.Noise;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the asynchronous entry points against their synchronous counterparts on a 512x512 map, including
+ * normalization, in nanoseconds per sample. The difference is the cost of handing the work to a virtual thread
+ * and joining it; {@link #parallel} shows what the fork-join bands gain on the machine running the benchmark.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AsyncBenchmark {
+
+    private Noise noise;
+    private NoiseGenerator generator;
+    private NoiseGenerator parallelGenerator;
+    private NoiseMap map;
+    private NoiseMap other;
+    private double[][] array;
+
+    @Setup
+    public void setup() {
+        noise = NoiseType.PERLIN.create(4);
+        generator = new NoiseGenerator(noise, 0, 1);
+        parallelGenerator = new NoiseGenerator(noise, 0, 1);
+        parallelGenerator.setParallel(true);
+        map = new NoiseMap(Shapes.doubles(2, Shapes.LARGE));
+        other = new NoiseMap(Shapes.doubles(2, Shapes.LARGE));
+        array = (double[][]) Shapes.doubles(2, Shapes.LARGE);
+        generator.generateForMap(other);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(Shapes.LARGE)
+    public NoiseMap sync() {
+        generator.generateForMap(map);
+        return map;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(Shapes.LARGE)
+    public NoiseMap parallel() {
+        parallelGenerator.generateForMap(map);
+        return map;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(Shapes.LARGE)
+    public NoiseMap mapAsync() {
+        generator.generateForMapAsync(map).join();
+        return map;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(Shapes.LARGE)
+    public double[][] arrayAsync() {
+        generator.generateForArrayAsync(array).join();
+        return array;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(Shapes.LARGE)
+    public NoiseMap normalizeAsync() {
+        other.normalizeAsync(0, 1).join();
+        return other;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(2 * Shapes.LARGE)
+    public NoiseMap combineAsync() {
+        map.combineAsync(other, 0.5).join();
+        map.combineAsync(other, -0.5).join();
+        return map;
+    }
+}
@@ -0,0 +1,59 @@
+package io.github.zapolyarnydev.benchmark;
+
+import io.github.zapolyarnydev.generator.NoiseGenerator;
+import io.github.zapolyarnydev.map.NoiseMap;
+import io.github.zapolyarnydev.noise.Noise;
+import io.github.zapolyarnydev.writer.NoiseWindow;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the raw generation of every writer: each noise type in 1D, 2D and 3D, at two map sizes and several
+ * octave counts. Maps are written without normalization, so the scores are the cost of the writers alone,
+ * in nanoseconds per sample.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GenerationBenchmark {
+
+    @Param({"PERLIN", "SIMPLEX", "LEGACY_SIMPLEX", "VALUE", "WHITE"})
+    public NoiseType noise;
+
+    @Param({"1", "2", "3"})
+    public int dimension;
+
+    @Param({"1", "4", "8"})
+    public int octaves;
+
+    private Noise settings;
+    private NoiseGenerator generator;
+    private NoiseMap small;
+    private NoiseMap large;
+
+    @Setup
+    public void setup() {
+        settings = noise.create(octaves);
+        generator = new NoiseGenerator(settings);
+        small = new NoiseMap(Shapes.doubles(dimension, Shapes.SMALL));
+        large = new NoiseMap(Shapes.doubles(dimension, Shapes.LARGE));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(Shapes.SMALL)
+    public NoiseMap small() {
+        generator.generateForMap(small, settings, NoiseWindow.ORIGIN);
+        return small;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(Shapes.LARGE)
+    public NoiseMap large() {
+        generator.generateForMap(large, settings, NoiseWindow.ORIGIN);
+        return large;
+    }
+}
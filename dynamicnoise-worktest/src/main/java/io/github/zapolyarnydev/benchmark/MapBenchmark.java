@@ -0,0 +1,74 @@
+package io.github.zapolyarnydev.benchmark;
+
+import io.github.zapolyarnydev.buffer.DoubleNoiseBuffer;
+import io.github.zapolyarnydev.generator.NoiseGenerator;
+import io.github.zapolyarnydev.map.NoiseMap;
+import io.github.zapolyarnydev.writer.NoiseRange;
+import io.github.zapolyarnydev.writer.NoiseWindow;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the operations on generated maps, {@link NoiseMap#normalize}, {@link NoiseMap#combine} and
+ * {@link NoiseMap#range}, for every kind of storage, in nanoseconds per sample of a 512x512 map.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MapBenchmark {
+
+    public enum Storage {
+        DOUBLE_ARRAY,
+        FLOAT_ARRAY,
+        DOUBLE_BUFFER
+    }
+
+    @Param({"DOUBLE_ARRAY", "FLOAT_ARRAY", "DOUBLE_BUFFER"})
+    public Storage storage;
+
+    private NoiseMap map;
+    private NoiseMap other;
+
+    @Setup
+    public void setup() {
+        map = create();
+        other = create();
+        NoiseGenerator generator = new NoiseGenerator(NoiseType.PERLIN.create(4));
+        generator.generateForMap(map, NoiseWindow.ORIGIN);
+        generator.generateForMap(other, NoiseType.VALUE.create(4), NoiseWindow.ORIGIN);
+    }
+
+    private NoiseMap create() {
+        return new NoiseMap(switch (storage) {
+            case DOUBLE_ARRAY -> Shapes.doubles(2, Shapes.LARGE);
+            case FLOAT_ARRAY -> Shapes.floats(2, Shapes.LARGE);
+            case DOUBLE_BUFFER -> new DoubleNoiseBuffer(512, 512);
+        });
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(Shapes.LARGE)
+    public NoiseMap normalize() {
+        map.normalize(0, 1);
+        return map;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(Shapes.LARGE)
+    public NoiseRange range() {
+        return map.range();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(2 * Shapes.LARGE)
+    public NoiseMap combine() {
+        // Adding and then subtracting keeps the values bounded over any number of invocations.
+        map.combine(other, 0.5);
+        map.combine(other, -0.5);
+        return map;
+    }
+}
@@ -0,0 +1,41 @@
+package io.github.zapolyarnydev.benchmark;
+
+import io.github.zapolyarnydev.noise.Noise;
+import io.github.zapolyarnydev.noise.perlin.PerlinNoise;
+import io.github.zapolyarnydev.noise.simplex.SimplexNoise;
+import io.github.zapolyarnydev.noise.value.ValueNoise;
+import io.github.zapolyarnydev.noise.white.WhiteNoise;
+
+/**
+ * The noise types covered by the benchmarks, created with fixed settings so results are comparable between runs.
+ */
+public enum NoiseType {
+    PERLIN,
+    SIMPLEX,
+    LEGACY_SIMPLEX,
+    VALUE,
+    WHITE;
+
+    static final int SEED = 42;
+    static final int SCALE = 32;
+
+    public Noise create(int octaves) {
+        Noise noise = switch (this) {
+            case PERLIN -> new PerlinNoise();
+            case SIMPLEX -> new SimplexNoise();
+            case LEGACY_SIMPLEX -> {
+                SimplexNoise simplex = new SimplexNoise();
+                simplex.setLegacy(true);
+                yield simplex;
+            }
+            case VALUE -> new ValueNoise();
+            case WHITE -> new WhiteNoise();
+        };
+        noise.setSeed(SEED);
+        noise.setScale(SCALE);
+        noise.setOctaves(octaves);
+        noise.setLacunarity(2.0);
+        noise.setPersistence(0.5);
+        return noise;
+    }
+}
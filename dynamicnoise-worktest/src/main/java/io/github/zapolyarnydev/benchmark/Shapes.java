@@ -0,0 +1,60 @@
+package io.github.zapolyarnydev.benchmark;
+
+/**
+ * Map shapes with the same number of samples in every dimension, so that the time per sample of 1D, 2D and 3D
+ * maps can be compared directly. Sample counts are powers of two, split as evenly as possible between the axes.
+ */
+final class Shapes {
+
+    /**
+     * 32768 samples: a 1D row, a 256x128 map or a 32x32x32 map, 256 KB of doubles.
+     */
+    static final int SMALL = 1 << 15;
+
+    /**
+     * 262144 samples: a 1D row, a 512x512 map or a 64x64x64 map, 2 MB of doubles.
+     */
+    static final int LARGE = 1 << 18;
+
+    private Shapes() {
+    }
+
+    /**
+     * Creates a {@code double} array of the given dimension holding exactly {@code samples} samples.
+     */
+    static Object doubles(int dimension, int samples) {
+        int[] shape = shape(dimension, samples);
+        return switch (dimension) {
+            case 1 -> new double[shape[0]];
+            case 2 -> new double[shape[0]][shape[1]];
+            default -> new double[shape[0]][shape[1]][shape[2]];
+        };
+    }
+
+    /**
+     * Creates a {@code float} array of the given dimension holding exactly {@code samples} samples.
+     */
+    static Object floats(int dimension, int samples) {
+        int[] shape = shape(dimension, samples);
+        return switch (dimension) {
+            case 1 -> new float[shape[0]];
+            case 2 -> new float[shape[0]][shape[1]];
+            default -> new float[shape[0]][shape[1]][shape[2]];
+        };
+    }
+
+    /**
+     * Returns the length of every axis of a map of the given dimension and power-of-two sample count.
+     */
+    static int[] shape(int dimension, int samples) {
+        if (Integer.bitCount(samples) != 1) {
+            throw new IllegalArgumentException("Sample count must be a power of two: " + samples);
+        }
+        int exponent = Integer.numberOfTrailingZeros(samples);
+        int[] shape = new int[dimension];
+        for (int axis = 0; axis < dimension; axis++) {
+            shape[axis] = 1 << (exponent / dimension + (axis < exponent % dimension ? 1 : 0));
+        }
+        return shape;
+    }
+}
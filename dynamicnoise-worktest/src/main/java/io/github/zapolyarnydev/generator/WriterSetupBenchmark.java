@@ -0,0 +1,44 @@
+package io.github.zapolyarnydev.generator;
+
+import io.github.zapolyarnydev.benchmark.NoiseType;
+import io.github.zapolyarnydev.noise.Noise;
+import io.github.zapolyarnydev.writer.NoiseWriter;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link WriterManager#getWriter}, which every generation starts with: a cache hit, and a miss that
+ * builds the writer and its permutation tables. Scores are in nanoseconds per call.
+ * <p>
+ * The benchmark lives in the package of {@link WriterManager} because the manager is not public.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class WriterSetupBenchmark {
+
+    @Param({"PERLIN", "SIMPLEX", "LEGACY_SIMPLEX", "VALUE", "WHITE"})
+    public NoiseType noise;
+
+    private Noise settings;
+
+    @Setup
+    public void setup() {
+        settings = noise.create(4);
+    }
+
+    @Benchmark
+    public NoiseWriter cached() {
+        return WriterManager.getWriter(settings);
+    }
+
+    @Benchmark
+    public NoiseWriter uncached() {
+        WriterManager.clear();
+        return WriterManager.getWriter(settings);
+    }
+}